@@ -3,6 +3,7 @@ package group.rxcloud.vrml.alert.actor;
 import com.google.common.util.concurrent.MoreExecutors;
 import group.rxcloud.vrml.alert.config.AlertConfiguration;
 import group.rxcloud.vrml.core.beans.SpringContextConfigurator;
+import group.rxcloud.vrml.core.integration.VrmlContext;
 import group.rxcloud.vrml.core.tags.Important;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,9 +98,9 @@ public abstract class AlertActorSystem {
                 if (configuration.isAlertEnable(message)) {
                     if (configuration.isAlertAsync()) {
                         AlertActorSystemInitial.initAsyncAlertPool();
-                        executorService.submit(() -> {
+                        executorService.submit(VrmlContext.propagate(() -> {
                             AlertActorSystem.send(message);
-                        });
+                        }));
                     } else {
                         AlertActorSystem.send(message);
                     }
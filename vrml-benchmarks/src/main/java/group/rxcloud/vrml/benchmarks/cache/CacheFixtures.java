@@ -0,0 +1,128 @@
+package group.rxcloud.vrml.benchmarks.cache;
+
+import group.rxcloud.vrml.cache.api.CacheOperations;
+import group.rxcloud.vrml.cache.caffeine.CaffeineCacheConfiguration;
+import group.rxcloud.vrml.cache.caffeine.CaffeineCacheOperations;
+import group.rxcloud.vrml.cache.codec.BinaryCacheCodec;
+import group.rxcloud.vrml.cache.config.DefaultCacheConfiguration;
+import group.rxcloud.vrml.cache.core.ProtectedCacheOperations;
+import group.rxcloud.vrml.cache.multilevel.MultilevelCacheConfiguration;
+import group.rxcloud.vrml.cache.multilevel.MultilevelCacheOperations;
+import group.rxcloud.vrml.cache.protection.CacheProtection;
+import group.rxcloud.vrml.cache.redis.RedisCacheOperations;
+
+import java.time.Duration;
+
+/**
+ * 基准测试用的缓存实例工厂
+ * 所有实例都在进程内构建，不依赖外部服务
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public final class CacheFixtures {
+
+    /**
+     * 基准测试的键模式
+     */
+    public static final String PATTERN = "bench:{}";
+
+    /**
+     * 嵌套缓存使用的透传键模式，避免多级缓存重复添加前缀
+     */
+    private static final String PASS_THROUGH_PATTERN = "{}";
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    private CacheFixtures() {
+    }
+
+    /**
+     * 缓存实现类型
+     */
+    public enum Type {
+        CAFFEINE,
+        REDIS,
+        REDIS_BINARY,
+        MULTILEVEL,
+        PROTECTED
+    }
+
+    /**
+     * 按类型构建缓存操作
+     *
+     * @param type    缓存实现类型
+     * @param maxSize 本地缓存最大大小
+     * @return 缓存操作
+     */
+    public static CacheOperations create(Type type, long maxSize) {
+        switch (type) {
+            case CAFFEINE:
+                return caffeine(PATTERN, maxSize);
+            case REDIS:
+                return redis(PATTERN);
+            case REDIS_BINARY:
+                return redisBinary(PATTERN);
+            case MULTILEVEL:
+                return multilevel(maxSize);
+            case PROTECTED:
+                return protectedCaffeine(maxSize);
+            default:
+                throw new IllegalArgumentException("Unknown cache type: " + type);
+        }
+    }
+
+    /**
+     * 释放缓存持有的资源
+     *
+     * @param cache 缓存操作
+     */
+    public static void release(CacheOperations cache) {
+        if (cache instanceof MultilevelCacheOperations) {
+            ((MultilevelCacheOperations) cache).shutdown();
+        } else if (cache instanceof ProtectedCacheOperations) {
+            ((ProtectedCacheOperations) cache).cleanup();
+        }
+    }
+
+    private static CaffeineCacheOperations caffeine(String pattern, long maxSize) {
+        CaffeineCacheConfiguration config = CaffeineCacheConfiguration.caffeineBuilder()
+                .maxSize(maxSize)
+                .defaultTtl(TTL)
+                .build();
+        return new CaffeineCacheOperations(pattern, config);
+    }
+
+    private static RedisCacheOperations redis(String pattern) {
+        DefaultCacheConfiguration config = DefaultCacheConfiguration.builder()
+                .cacheType("redis")
+                .defaultTtl(TTL)
+                .build();
+        return new RedisCacheOperations(pattern, config, new InMemoryRedisTemplate());
+    }
+
+    private static RedisCacheOperations redisBinary(String pattern) {
+        DefaultCacheConfiguration config = DefaultCacheConfiguration.builder()
+                .cacheType("redis")
+                .serializerType(BinaryCacheCodec.TYPE)
+                .defaultTtl(TTL)
+                .build();
+        return new RedisCacheOperations(pattern, config, new InMemoryRedisTemplate());
+    }
+
+    private static MultilevelCacheOperations multilevel(long maxSize) {
+        MultilevelCacheConfiguration config = new MultilevelCacheConfiguration();
+        config.setDefaultTtl(TTL);
+        return new MultilevelCacheOperations(PATTERN, config,
+                caffeine(PASS_THROUGH_PATTERN, maxSize),
+                redis(PASS_THROUGH_PATTERN));
+    }
+
+    private static ProtectedCacheOperations protectedCaffeine(long maxSize) {
+        CacheProtection.ProtectionConfig protectionConfig = new CacheProtection.ProtectionConfig();
+        // 基准测试的未命中键从未写入过，关闭布隆过滤器才能覆盖真实的加载路径
+        protectionConfig.setPenetrationProtectionEnabled(false);
+        return new ProtectedCacheOperations(caffeine(PATTERN, maxSize),
+                new CacheProtection(protectionConfig), null, "bench");
+    }
+}
@@ -0,0 +1,156 @@
+package group.rxcloud.vrml.benchmarks.cache;
+
+import group.rxcloud.vrml.cache.api.CacheOperations;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * CacheOperations基准测试
+ * 覆盖所有实现的单键与批量操作、命中与未命中路径，以及1/4/16/64线程并发
+ *
+ * <pre>
+ * mvn -pl vrml-benchmarks -am package
+ * java -jar vrml-benchmarks/target/benchmarks.jar CacheOperationsBenchmark
+ * </pre>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class CacheOperationsBenchmark {
+
+    /**
+     * 预热写入的键数量，必须是2的幂
+     */
+    private static final int KEY_COUNT = 1 << 12;
+
+    private static final int KEY_MASK = KEY_COUNT - 1;
+
+    private static final String VALUE = "vrml-benchmark-value";
+
+    @Param({"CAFFEINE", "REDIS", "REDIS_BINARY", "MULTILEVEL", "PROTECTED"})
+    public CacheFixtures.Type cacheType;
+
+    @Param({"16"})
+    public int batchSize;
+
+    private CacheOperations cache;
+
+    private String[] hitKeys;
+    private String[] missKeys;
+    private List<List<String>> hitBatches;
+    private List<List<String>> missBatches;
+
+    private final Supplier<String> loader = () -> VALUE;
+
+    /**
+     * 返回null的加载器不会回写缓存，保证每次调用都走未命中路径
+     */
+    private final Supplier<String> nullLoader = () -> null;
+
+    /**
+     * 每个线程独立的键游标
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            index = (int) (Thread.currentThread().getId() * 31);
+        }
+
+        int next() {
+            return index++ & KEY_MASK;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = CacheFixtures.create(cacheType, KEY_COUNT * 2L);
+        hitKeys = new String[KEY_COUNT];
+        missKeys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            hitKeys[i] = "hit-" + i;
+            missKeys[i] = "miss-" + i;
+            cache.put(hitKeys[i], VALUE).get();
+        }
+        hitBatches = batches(hitKeys, batchSize);
+        missBatches = batches(missKeys, batchSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        CacheFixtures.release(cache);
+    }
+
+    @Benchmark
+    public Try<Option<String>> getHit(Cursor cursor) {
+        return cache.get(hitKeys[cursor.next()], String.class);
+    }
+
+    @Benchmark
+    public Try<Option<String>> getMiss(Cursor cursor) {
+        return cache.get(missKeys[cursor.next()], String.class);
+    }
+
+    @Benchmark
+    public Try<String> getOrLoadHit(Cursor cursor) {
+        return cache.getOrLoad(hitKeys[cursor.next()], String.class, loader);
+    }
+
+    @Benchmark
+    public Try<String> getOrLoadMiss(Cursor cursor) {
+        return cache.getOrLoad(missKeys[cursor.next()], String.class, nullLoader);
+    }
+
+    @Benchmark
+    public Try<Map<String, String>> multiGetHit(Cursor cursor) {
+        return cache.multiGet(hitBatches.get(cursor.next() % hitBatches.size()), String.class);
+    }
+
+    @Benchmark
+    public Try<Map<String, String>> multiGetMiss(Cursor cursor) {
+        return cache.multiGet(missBatches.get(cursor.next() % missBatches.size()), String.class);
+    }
+
+    private static List<List<String>> batches(String[] keys, int batchSize) {
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from + batchSize <= keys.length; from += batchSize) {
+            List<String> batch = new ArrayList<>(batchSize);
+            for (int i = from; i < from + batchSize; i++) {
+                batch.add(keys[i]);
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    @Threads(1)
+    public static class Threads1 extends CacheOperationsBenchmark {
+    }
+
+    @Threads(4)
+    public static class Threads4 extends CacheOperationsBenchmark {
+    }
+
+    @Threads(16)
+    public static class Threads16 extends CacheOperationsBenchmark {
+    }
+
+    @Threads(64)
+    public static class Threads64 extends CacheOperationsBenchmark {
+    }
+}
@@ -0,0 +1,376 @@
+package group.rxcloud.vrml.benchmarks.cache;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 进程内Redis替身
+ * 只实现RedisCacheOperations用到的命令，使Redis基准测试可以离线运行，
+ * 测得的是VRML自身的开销而不是网络往返时间；值与真实Redis一样以序列化后的字节保存
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public class InMemoryRedisTemplate extends RedisTemplate<String, Object> {
+
+    private final ConcurrentMap<String, Entry> store = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, Object> valueOperations = (ValueOperations<String, Object>) Proxy.newProxyInstance(
+            InMemoryRedisTemplate.class.getClassLoader(),
+            new Class<?>[]{ValueOperations.class},
+            new ValueOperationsHandler());
+
+    private final RedisConnection connection = (RedisConnection) Proxy.newProxyInstance(
+            InMemoryRedisTemplate.class.getClassLoader(),
+            new Class<?>[]{RedisConnection.class},
+            new ConnectionHandler());
+
+    /**
+     * 当前线程管道中的命令结果，不在管道中时为null
+     */
+    private final ThreadLocal<List<Object>> pipelineResults = new ThreadLocal<>();
+
+    /**
+     * 构造函数，使用字符串键和JSON值序列化器
+     */
+    public InMemoryRedisTemplate() {
+        setKeySerializer(RedisSerializer.string());
+        setValueSerializer(RedisSerializer.json());
+    }
+
+    /**
+     * 存储条目
+     */
+    private static final class Entry {
+        private final Object value;
+        private volatile long expireAt;
+
+        private Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expireAt > 0 && now >= expireAt;
+        }
+    }
+
+    @Override
+    public ValueOperations<String, Object> opsForValue() {
+        return valueOperations;
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        return store.remove(key) != null;
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        long count = 0;
+        for (String key : keys) {
+            if (store.remove(key) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return read(key) != null;
+    }
+
+    @Override
+    public Boolean expire(String key, long timeout, TimeUnit unit) {
+        Entry entry = store.get(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.expireAt = System.currentTimeMillis() + unit.toMillis(timeout);
+        return true;
+    }
+
+    @Override
+    public Long getExpire(String key, TimeUnit timeUnit) {
+        Entry entry = store.get(key);
+        if (entry == null) {
+            return -2L;
+        }
+        if (entry.expireAt <= 0) {
+            return -1L;
+        }
+        return timeUnit.convert(entry.expireAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Set<String> keys(String pattern) {
+        Pattern regex = globToRegex(pattern);
+        Set<String> keys = new HashSet<>();
+        for (String key : store.keySet()) {
+            if (regex.matcher(key).matches()) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action) {
+        return action.doInRedis(connection);
+    }
+
+    @Override
+    public List<Object> executePipelined(RedisCallback<?> action) {
+        List<Object> results = new ArrayList<>();
+        pipelineResults.set(results);
+        try {
+            action.doInRedis(connection);
+        } finally {
+            pipelineResults.remove();
+        }
+        return results;
+    }
+
+    /**
+     * 当前存储的键数量
+     *
+     * @return 键数量
+     */
+    public int size() {
+        return store.size();
+    }
+
+    private Object read(String key) {
+        Entry entry = store.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void write(String key, Object value, long ttlMillis) {
+        long expireAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : -1;
+        store.put(key, new Entry(value, expireAt));
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serialize(Object value) {
+        return ((RedisSerializer<Object>) getValueSerializer()).serialize(value);
+    }
+
+    private Object deserialize(Object bytes) {
+        return bytes == null ? null : getValueSerializer().deserialize((byte[]) bytes);
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*':
+                    regex.append(".*");
+                    break;
+                case '?':
+                    regex.append('.');
+                    break;
+                default:
+                    regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * ValueOperations的最小实现
+     */
+    private final class ValueOperationsHandler implements InvocationHandler {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "get":
+                    return deserialize(read((String) args[0]));
+                case "set":
+                    if (args.length == 2) {
+                        write((String) args[0], serialize(args[1]), -1);
+                    } else if (args.length == 3 && args[2] instanceof Duration) {
+                        write((String) args[0], serialize(args[1]), ((Duration) args[2]).toMillis());
+                    } else if (args.length == 4 && args[3] instanceof TimeUnit) {
+                        write((String) args[0], serialize(args[1]), ((TimeUnit) args[3]).toMillis((Long) args[2]));
+                    } else {
+                        break;
+                    }
+                    return null;
+                case "multiGet":
+                    Collection<String> keys = (Collection<String>) args[0];
+                    List<Object> values = new ArrayList<>(keys.size());
+                    for (String key : keys) {
+                        values.add(deserialize(read(key)));
+                    }
+                    return values;
+                case "multiSet":
+                    ((Map<String, Object>) args[0]).forEach((key, value) -> write(key, serialize(value), -1));
+                    return null;
+                case "getOperations":
+                    return InMemoryRedisTemplate.this;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "InMemoryValueOperations";
+                default:
+                    break;
+            }
+            throw new UnsupportedOperationException("ValueOperations." + method.getName());
+        }
+    }
+
+    /**
+     * 管道连接的最小实现，值以原始字节保存
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "setEx":
+                    write(key((byte[]) args[0]), args[2], TimeUnit.SECONDS.toMillis((Long) args[1]));
+                    return true;
+                case "set":
+                    if (args.length == 2) {
+                        write(key((byte[]) args[0]), args[1], -1);
+                        return true;
+                    }
+                    break;
+                case "get":
+                    return read(key((byte[]) args[0]));
+                case "mGet":
+                    byte[][] keys = (byte[][]) args[0];
+                    List<Object> values = new ArrayList<>(keys.length);
+                    for (byte[] key : keys) {
+                        values.add(read(key(key)));
+                    }
+                    return values;
+                case "mSet":
+                    ((Map<byte[], byte[]>) args[0]).forEach((key, value) -> write(key(key), value, -1));
+                    return true;
+                case "scan":
+                    return scan((ScanOptions) args[0]);
+                case "unlink":
+                    return reply(unlink((byte[][]) args[0]));
+                case "dbSize":
+                    return reply((long) store.size());
+                case "close":
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "InMemoryRedisConnection";
+                default:
+                    break;
+            }
+            throw new UnsupportedOperationException("RedisConnection." + method.getName());
+        }
+
+        private String key(byte[] key) {
+            return new String(key, StandardCharsets.UTF_8);
+        }
+
+        private long unlink(byte[][] keys) {
+            long count = 0;
+            for (byte[] key : keys) {
+                if (store.remove(key(key)) != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * 管道中的命令结果在executePipelined返回时统一给出
+         */
+        private Object reply(Object result) {
+            List<Object> results = pipelineResults.get();
+            if (results == null) {
+                return result;
+            }
+            results.add(result);
+            return null;
+        }
+
+        private Cursor<byte[]> scan(ScanOptions options) {
+            Pattern regex = options.getPattern() != null ? globToRegex(options.getPattern()) : null;
+            List<byte[]> keys = new ArrayList<>();
+            for (String key : store.keySet()) {
+                if (regex == null || regex.matcher(key).matches()) {
+                    keys.add(key.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return newCursor(keys.iterator());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<byte[]> newCursor(Iterator<byte[]> keys) {
+        boolean[] closed = new boolean[1];
+        long[] position = new long[1];
+        return (Cursor<byte[]>) Proxy.newProxyInstance(
+                InMemoryRedisTemplate.class.getClassLoader(),
+                new Class<?>[]{Cursor.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hasNext":
+                            return !closed[0] && keys.hasNext();
+                        case "next":
+                            position[0]++;
+                            return keys.next();
+                        case "close":
+                            closed[0] = true;
+                            return null;
+                        case "isClosed":
+                            return closed[0];
+                        case "getCursorId":
+                            return 0L;
+                        case "getPosition":
+                            return position[0];
+                        case "open":
+                            return proxy;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "InMemoryCursor";
+                        default:
+                            break;
+                    }
+                    throw new UnsupportedOperationException("Cursor." + method.getName());
+                });
+    }
+}
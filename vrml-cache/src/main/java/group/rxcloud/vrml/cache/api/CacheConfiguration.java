@@ -84,8 +84,9 @@ public interface CacheConfiguration extends VrmlConfiguration {
     
     /**
      * 获取序列化器类型
+     * 存在同类型的{@link group.rxcloud.vrml.cache.spi.CacheCodec}时，远程缓存使用该编解码器直接读写原始字节
      * 
-     * @return 序列化器类型（json, jdk, kryo等）
+     * @return 序列化器类型（json, binary等）
      */
     default String getSerializerType() {
         return "json";
@@ -93,8 +94,9 @@ public interface CacheConfiguration extends VrmlConfiguration {
     
     /**
      * 获取压缩类型
+     * 远程缓存超过压缩阈值的值会被压缩，压缩值带有压缩头，可以与未压缩的值共存
      * 
-     * @return 压缩类型（none, gzip, lz4等）
+     * @return 压缩类型（none, gzip/deflate）
      */
     default String getCompressionType() {
         return "none";
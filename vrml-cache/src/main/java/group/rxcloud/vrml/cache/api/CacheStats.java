@@ -13,6 +13,11 @@ import lombok.Data;
 @Builder
 public class CacheStats {
     
+    /**
+     * 无法统计的缓存大小
+     */
+    public static final long UNKNOWN_SIZE = -1L;
+    
     /**
      * 缓存命中次数
      */
@@ -44,7 +49,7 @@ public class CacheStats {
     private final long evictionCount;
     
     /**
-     * 当前缓存大小
+     * 当前缓存大小，无法低成本统计时为{@link #UNKNOWN_SIZE}（如Redis缓存）
      */
     private final long size;
     
@@ -0,0 +1,262 @@
+package group.rxcloud.vrml.cache.codec;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import group.rxcloud.vrml.cache.spi.CacheCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 带类型头的紧凑二进制编解码器
+ * 首字节为类型头，字符串和基本类型以原始字节存储，其他对象默认以Smile二进制JSON存储并按调用方的目标类型解码，
+ * 读取时不需要在值中保存类名，也不需要反射查找类型；之前写入的JSON对象仍可读取。
+ * {@code jackson-dataformat-smile}是可选依赖，类路径上没有时其他对象以JSON存储，读取Smile对象时抛出异常
+ *
+ * <pre>
+ * S 字符串（UTF-8）  J long     I int      D double   F float
+ * Z boolean        C char     B byte[]   M Smile对象  O JSON对象
+ * </pre>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public class BinaryCacheCodec implements CacheCodec {
+
+    /**
+     * 编解码器类型
+     */
+    public static final String TYPE = "binary";
+
+    static final byte TYPE_STRING = 'S';
+    static final byte TYPE_LONG = 'J';
+    static final byte TYPE_INT = 'I';
+    static final byte TYPE_DOUBLE = 'D';
+    static final byte TYPE_FLOAT = 'F';
+    static final byte TYPE_BOOLEAN = 'Z';
+    static final byte TYPE_CHAR = 'C';
+    static final byte TYPE_BYTES = 'B';
+    static final byte TYPE_OBJECT = 'O';
+    static final byte TYPE_SMILE = 'M';
+
+    /**
+     * 类路径上是否有Smile实现
+     */
+    static final boolean SMILE_AVAILABLE = isSmileAvailable();
+
+    private final ObjectMapper objectMapper;
+    private final byte objectType;
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper jsonMapper;
+
+    /**
+     * 构造函数，复杂对象使用Smile格式，类路径上没有Smile时使用JSON格式
+     */
+    public BinaryCacheCodec() {
+        this(SMILE_AVAILABLE ? Smile.newMapper() : new ObjectMapper());
+    }
+
+    /**
+     * 构造函数，复杂对象的格式由ObjectMapper决定，基于SmileFactory时为Smile，否则为JSON
+     *
+     * @param objectMapper 复杂对象使用的ObjectMapper
+     */
+    public BinaryCacheCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        if (SMILE_AVAILABLE && Smile.isSmile(objectMapper)) {
+            this.objectType = TYPE_SMILE;
+            this.smileMapper = objectMapper;
+            this.jsonMapper = new ObjectMapper();
+        } else {
+            this.objectType = TYPE_OBJECT;
+            this.smileMapper = SMILE_AVAILABLE ? Smile.newMapper() : null;
+            this.jsonMapper = objectMapper;
+        }
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        if (value instanceof String) {
+            byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[1 + utf8.length];
+            bytes[0] = TYPE_STRING;
+            System.arraycopy(utf8, 0, bytes, 1, utf8.length);
+            return bytes;
+        }
+        if (value instanceof Long) {
+            return ByteBuffer.allocate(9).put(TYPE_LONG).putLong((Long) value).array();
+        }
+        if (value instanceof Integer) {
+            return ByteBuffer.allocate(5).put(TYPE_INT).putInt((Integer) value).array();
+        }
+        if (value instanceof Double) {
+            return ByteBuffer.allocate(9).put(TYPE_DOUBLE).putDouble((Double) value).array();
+        }
+        if (value instanceof Float) {
+            return ByteBuffer.allocate(5).put(TYPE_FLOAT).putFloat((Float) value).array();
+        }
+        if (value instanceof Boolean) {
+            return new byte[]{TYPE_BOOLEAN, (byte) ((Boolean) value ? 1 : 0)};
+        }
+        if (value instanceof Character) {
+            return ByteBuffer.allocate(3).put(TYPE_CHAR).putChar((Character) value).array();
+        }
+        if (value instanceof byte[]) {
+            byte[] raw = (byte[]) value;
+            byte[] bytes = new byte[1 + raw.length];
+            bytes[0] = TYPE_BYTES;
+            System.arraycopy(raw, 0, bytes, 1, raw.length);
+            return bytes;
+        }
+        try (ByteArrayBuilder builder = new ByteArrayBuilder()) {
+            builder.write(objectType);
+            objectMapper.writeValue(builder, value);
+            return builder.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode value of type: " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> valueType) {
+        return decode(ByteBuffer.wrap(bytes), valueType);
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer buffer, Class<T> valueType) {
+        ByteBuffer in = buffer.duplicate();
+        if (!in.hasRemaining()) {
+            throw new IllegalArgumentException("Empty cache value");
+        }
+        byte type = in.get();
+        if (type == TYPE_SMILE) {
+            if (smileMapper == null) {
+                throw new IllegalStateException("Decoding Smile cache values needs jackson-dataformat-smile on the classpath");
+            }
+            return readObject(smileMapper, in, valueType);
+        }
+        if (type == TYPE_OBJECT) {
+            return readObject(jsonMapper, in, valueType);
+        }
+        return convert(readValue(type, in), valueType);
+    }
+
+    private Object readValue(byte type, ByteBuffer in) {
+        switch (type) {
+            case TYPE_STRING:
+                if (in.hasArray()) {
+                    return new String(in.array(), in.arrayOffset() + in.position(), in.remaining(), StandardCharsets.UTF_8);
+                }
+                return StandardCharsets.UTF_8.decode(in).toString();
+            case TYPE_LONG:
+                return in.getLong();
+            case TYPE_INT:
+                return in.getInt();
+            case TYPE_DOUBLE:
+                return in.getDouble();
+            case TYPE_FLOAT:
+                return in.getFloat();
+            case TYPE_BOOLEAN:
+                return in.get() != 0;
+            case TYPE_CHAR:
+                return in.getChar();
+            case TYPE_BYTES:
+                byte[] raw = new byte[in.remaining()];
+                in.get(raw);
+                return raw;
+            default:
+                throw new IllegalArgumentException("Unknown cache value type header: " + type);
+        }
+    }
+
+    private static <T> T readObject(ObjectMapper mapper, ByteBuffer in, Class<T> valueType) {
+        try {
+            if (in.hasArray()) {
+                return mapper.readValue(in.array(), in.arrayOffset() + in.position(), in.remaining(), valueType);
+            }
+            byte[] encoded = new byte[in.remaining()];
+            in.get(encoded);
+            return mapper.readValue(encoded, valueType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode value to type: " + valueType.getName(), e);
+        }
+    }
+
+    /**
+     * 按目标类型转换基本类型，数值之间允许互相转换，其他类型必须兼容
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T convert(Object value, Class<T> valueType) {
+        if (valueType.isInstance(value) || valueType == Object.class) {
+            return (T) value;
+        }
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (valueType == Long.class || valueType == long.class) {
+                return (T) Long.valueOf(number.longValue());
+            }
+            if (valueType == Integer.class || valueType == int.class) {
+                return (T) Integer.valueOf(number.intValue());
+            }
+            if (valueType == Double.class || valueType == double.class) {
+                return (T) Double.valueOf(number.doubleValue());
+            }
+            if (valueType == Float.class || valueType == float.class) {
+                return (T) Float.valueOf(number.floatValue());
+            }
+            if (valueType == Short.class || valueType == short.class) {
+                return (T) Short.valueOf(number.shortValue());
+            }
+            if (valueType == Byte.class || valueType == byte.class) {
+                return (T) Byte.valueOf(number.byteValue());
+            }
+        }
+        if (value instanceof Boolean && valueType == boolean.class) {
+            return (T) value;
+        }
+        if (value instanceof Character && valueType == char.class) {
+            return (T) value;
+        }
+        if (valueType == String.class) {
+            return (T) String.valueOf(value);
+        }
+        throw new ClassCastException("Cannot convert cached " + value.getClass().getName() + " to " + valueType.getName());
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryCacheCodec";
+    }
+
+    private static boolean isSmileAvailable() {
+        try {
+            Class.forName("com.fasterxml.jackson.dataformat.smile.SmileFactory", false,
+                    BinaryCacheCodec.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Smile相关的引用，只在类路径上有Smile时加载
+     */
+    private static final class Smile {
+
+        private static ObjectMapper newMapper() {
+            return new ObjectMapper(new SmileFactory());
+        }
+
+        private static boolean isSmile(ObjectMapper objectMapper) {
+            return objectMapper.getFactory() instanceof SmileFactory;
+        }
+    }
+}
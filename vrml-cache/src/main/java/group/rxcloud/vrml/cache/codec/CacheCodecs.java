@@ -0,0 +1,90 @@
+package group.rxcloud.vrml.cache.codec;
+
+import group.rxcloud.vrml.cache.spi.CacheCodec;
+import io.vavr.control.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 缓存编解码器注册表
+ * 内置{@link BinaryCacheCodec}，其他实现通过SPI发现，只在首次使用时解析一次；
+ * 同一类型优先级相同时后注册的实现覆盖先注册的实现
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public final class CacheCodecs {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCodecs.class);
+
+    private static volatile Map<String, CacheCodec> codecs;
+
+    private CacheCodecs() {
+    }
+
+    /**
+     * 按类型查找编解码器
+     *
+     * @param type 编解码器类型，忽略大小写
+     * @return 编解码器，未注册时为空
+     */
+    public static Option<CacheCodec> find(String type) {
+        if (type == null) {
+            return Option.none();
+        }
+        return Option.of(getCodecs().get(type.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * 手动注册编解码器，用于无法通过SPI声明的场景
+     *
+     * @param codec 编解码器
+     */
+    public static void register(CacheCodec codec) {
+        synchronized (CacheCodecs.class) {
+            Map<String, CacheCodec> map = new HashMap<>(getCodecs());
+            put(map, codec);
+            codecs = map;
+        }
+        log.info("[VRML-Cache] Cache codec registered: {}", codec.getType());
+    }
+
+    private static Map<String, CacheCodec> getCodecs() {
+        Map<String, CacheCodec> map = codecs;
+        if (map == null) {
+            synchronized (CacheCodecs.class) {
+                map = codecs;
+                if (map == null) {
+                    map = discoverCodecs();
+                    codecs = map;
+                }
+            }
+        }
+        return map;
+    }
+
+    private static Map<String, CacheCodec> discoverCodecs() {
+        Map<String, CacheCodec> map = new HashMap<>();
+        put(map, new BinaryCacheCodec());
+        try {
+            for (CacheCodec candidate : ServiceLoader.load(CacheCodec.class)) {
+                put(map, candidate);
+            }
+        } catch (ServiceConfigurationError e) {
+            log.warn("[VRML-Cache] Failed to load cache codecs, falling back to built-in codecs", e);
+        }
+        log.debug("[VRML-Cache] Using cache codecs: {}", map.keySet());
+        return map;
+    }
+
+    private static void put(Map<String, CacheCodec> map, CacheCodec codec) {
+        map.merge(codec.getType().toLowerCase(Locale.ROOT), codec,
+                (existing, candidate) -> candidate.getPriority() <= existing.getPriority() ? candidate : existing);
+    }
+}
@@ -0,0 +1,258 @@
+package group.rxcloud.vrml.cache.codec;
+
+import group.rxcloud.vrml.cache.api.CacheConfiguration;
+import io.vavr.control.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 缓存值压缩器
+ * 超过阈值的值使用DEFLATE压缩，并在前面加上压缩头，压缩和未压缩的值可以共存，便于灰度切换
+ *
+ * <pre>
+ * 0xC5 | 算法 | 原始长度（4字节，大端） | 压缩数据
+ * </pre>
+ *
+ * <p>0xC5后跟小于0x80的字节不是合法的UTF-8序列，不会与文本、JSON或{@link BinaryCacheCodec}的值冲突。
+ * Deflater、Inflater和压缩缓冲区按线程复用，热路径上只分配最终结果数组。</p>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public final class CacheCompressor {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCompressor.class);
+
+    /**
+     * 压缩头标志
+     */
+    static final byte MAGIC = (byte) 0xC5;
+
+    /**
+     * DEFLATE算法标识
+     */
+    static final byte ALGORITHM_DEFLATE = 1;
+
+    /**
+     * 压缩头长度
+     */
+    static final int HEADER_LENGTH = 6;
+
+    /**
+     * 按线程复用的压缩缓冲区上限，超过时临时分配，避免长期占用大块内存
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * 缓存值以JSON为主，最快级别已经有很高的压缩率，CPU开销远小于默认级别
+     */
+    private static final ThreadLocal<Deflater> DEFLATERS =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED, true));
+
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+
+    private final int threshold;
+
+    private final LongAdder compressedCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder decompressedCount = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param threshold 压缩阈值（字节），小于此大小的值不压缩
+     */
+    public CacheCompressor(int threshold) {
+        this.threshold = Math.max(threshold, HEADER_LENGTH + 1);
+    }
+
+    /**
+     * 按缓存配置创建压缩器
+     *
+     * @param config 缓存配置
+     * @return 压缩器，未启用压缩或算法不支持时为空
+     */
+    public static Option<CacheCompressor> of(CacheConfiguration config) {
+        String type = config.getCompressionType();
+        if (type == null) {
+            return Option.none();
+        }
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case "none":
+            case "":
+                return Option.none();
+            case "deflate":
+            case "gzip":
+                return Option.of(new CacheCompressor(config.getCompressionThreshold()));
+            default:
+                log.warn("[VRML-Cache] Unsupported compression type: {}, compression disabled", type);
+                return Option.none();
+        }
+    }
+
+    /**
+     * 检查值是否带有压缩头
+     *
+     * @param bytes 值
+     * @return true表示已压缩
+     */
+    public static boolean isCompressed(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_LENGTH
+                && bytes[0] == MAGIC && bytes[1] == ALGORITHM_DEFLATE;
+    }
+
+    /**
+     * 压缩值，小于阈值或压缩后没有变小时原样返回
+     *
+     * @param bytes 原始值
+     * @return 压缩后的值，或原始值
+     */
+    public byte[] compress(byte[] bytes) {
+        if (bytes.length < threshold) {
+            skippedCount.increment();
+            return bytes;
+        }
+        long start = System.nanoTime();
+        Deflater deflater = DEFLATERS.get();
+        deflater.reset();
+        deflater.setInput(bytes);
+        deflater.finish();
+        // 结果不小于原始值时放弃压缩，所以缓冲区只需要原始值大小
+        byte[] buffer = borrowBuffer(bytes.length);
+        int length = HEADER_LENGTH;
+        while (!deflater.finished() && length < bytes.length) {
+            length += deflater.deflate(buffer, length, bytes.length - length);
+        }
+        boolean finished = deflater.finished();
+        compressNanos.add(System.nanoTime() - start);
+        if (!finished) {
+            skippedCount.increment();
+            return bytes;
+        }
+        buffer[0] = MAGIC;
+        buffer[1] = ALGORITHM_DEFLATE;
+        writeInt(buffer, 2, bytes.length);
+        byte[] compressed = Arrays.copyOf(buffer, length);
+        compressedCount.increment();
+        bytesIn.add(bytes.length);
+        bytesOut.add(length);
+        return compressed;
+    }
+
+    /**
+     * 解压值，没有压缩头的值原样返回
+     *
+     * @param bytes 值
+     * @return 解压后的值
+     */
+    public byte[] decompress(byte[] bytes) {
+        if (!isCompressed(bytes)) {
+            return bytes;
+        }
+        long start = System.nanoTime();
+        int length = readInt(bytes, 2);
+        if (length < 0) {
+            throw new IllegalArgumentException("Corrupted compressed cache value, length: " + length);
+        }
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        inflater.setInput(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        byte[] result = new byte[length];
+        int offset = 0;
+        try {
+            while (offset < length) {
+                int n = inflater.inflate(result, offset, length - offset);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupted compressed cache value", e);
+        }
+        if (offset != length) {
+            throw new IllegalArgumentException("Corrupted compressed cache value, expected " + length + " bytes but got " + offset);
+        }
+        decompressedCount.increment();
+        decompressNanos.add(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * 获取压缩率，压缩后字节数与原始字节数之比，只统计实际压缩的值
+     *
+     * @return 压缩率，没有压缩过任何值时为1
+     */
+    public double getCompressionRatio() {
+        long in = bytesIn.sum();
+        return in == 0 ? 1.0 : (double) bytesOut.sum() / in;
+    }
+
+    public long getCompressedCount() {
+        return compressedCount.sum();
+    }
+
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    public long getDecompressedCount() {
+        return decompressedCount.sum();
+    }
+
+    public long getCompressNanos() {
+        return compressNanos.sum();
+    }
+
+    public long getDecompressNanos() {
+        return decompressNanos.sum();
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private static byte[] borrowBuffer(int size) {
+        if (size > MAX_POOLED_BUFFER_SIZE) {
+            return new byte[size];
+        }
+        byte[] buffer = BUFFERS.get();
+        if (buffer == null || buffer.length < size) {
+            buffer = new byte[Math.min(MAX_POOLED_BUFFER_SIZE, Math.max(size, 8192))];
+            BUFFERS.set(buffer);
+        }
+        return buffer;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24)
+                | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheCompressor{threshold=" + threshold + ", ratio=" + getCompressionRatio() + "}";
+    }
+}
@@ -11,6 +11,10 @@ import io.vavr.Tuple;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 
@@ -26,6 +30,12 @@ public abstract class AbstractCacheOperations extends AbstractVrmlOperations imp
     protected final String pattern;
     protected final CacheConfiguration config;
     
+    /**
+     * 正在进行中的加载，按缓存键合并并发未命中
+     * 副本之间共享，保证withMetrics/withTrace后的实例也参与合并
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlightLoads;
+    
     /**
      * 构造函数
      * 
@@ -35,6 +45,7 @@ public abstract class AbstractCacheOperations extends AbstractVrmlOperations imp
     protected AbstractCacheOperations(String pattern, CacheConfiguration config) {
         this.pattern = pattern;
         this.config = config;
+        this.inFlightLoads = new ConcurrentHashMap<>();
     }
     
     /**
@@ -46,6 +57,7 @@ public abstract class AbstractCacheOperations extends AbstractVrmlOperations imp
         super(other);
         this.pattern = other.pattern;
         this.config = other.config;
+        this.inFlightLoads = other.inFlightLoads;
     }
     
     @Override
@@ -55,6 +67,7 @@ public abstract class AbstractCacheOperations extends AbstractVrmlOperations imp
     public CacheOperations withMetrics(String metricName) {
         AbstractCacheOperations copy = createCopy();
         copy.metricName = metricName;
+        copy.compileIntegration();
         return copy;
     }
     
@@ -62,6 +75,7 @@ public abstract class AbstractCacheOperations extends AbstractVrmlOperations imp
     public CacheOperations withTrace(String traceKey) {
         AbstractCacheOperations copy = createCopy();
         copy.traceKey = traceKey;
+        copy.compileIntegration();
         return copy;
     }
     
@@ -69,6 +83,7 @@ public abstract class AbstractCacheOperations extends AbstractVrmlOperations imp
     public CacheOperations onError(java.util.function.Consumer<Throwable> errorHandler) {
         AbstractCacheOperations copy = createCopy();
         copy.errorHandler = errorHandler;
+        copy.compileIntegration();
         return copy;
     }
     
@@ -247,6 +262,8 @@ public abstract class AbstractCacheOperations extends AbstractVrmlOperations imp
     
     /**
      * 热点key防护加载
+     * 同一个键的并发未命中只触发一次加载，其余调用方等待同一个结果；
+     * 不同键之间互不阻塞，可以并行加载
      * 
      * @param key 缓存键
      * @param valueType 值类型
@@ -257,15 +274,54 @@ public abstract class AbstractCacheOperations extends AbstractVrmlOperations imp
      */
     protected <T> Try<T> loadWithHotKeyProtection(String key, Class<T> valueType, 
                                                   Supplier<T> loader, Duration ttl) {
-        // 简单的热点key防护实现，可以根据需要扩展
-        synchronized (this) {
-            // 再次检查缓存
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightLoads.putIfAbsent(key, created);
+        if (inFlight != null) {
+            // 已有加载在进行中，等待其结果
+            recordCount("load.coalesced", true);
+            return awaitLoad(inFlight);
+        }
+        
+        try {
+            // 再次检查缓存，上一个加载者可能刚刚完成回写
+            Try<T> result;
             Try<Option<T>> cached = doGet(key, valueType);
             if (cached.isSuccess() && cached.get().isDefined()) {
-                return Try.success(cached.get().get());
+                result = Try.success(cached.get().get());
+            } else {
+                result = loadAndCache(key, valueType, loader, ttl);
             }
             
-            return loadAndCache(key, valueType, loader, ttl);
+            if (result.isSuccess()) {
+                created.complete(result.get());
+            } else {
+                created.completeExceptionally(result.getCause());
+            }
+            return result;
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, created);
+        }
+    }
+    
+    /**
+     * 等待进行中的加载完成
+     * 
+     * @param inFlight 进行中的加载
+     * @param <T> 值类型
+     * @return 加载结果
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Try<T> awaitLoad(CompletableFuture<Object> inFlight) {
+        try {
+            return Try.success((T) inFlight.get());
+        } catch (ExecutionException e) {
+            return Try.failure(e.getCause() != null ? e.getCause() : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Try.failure(e);
         }
     }
     
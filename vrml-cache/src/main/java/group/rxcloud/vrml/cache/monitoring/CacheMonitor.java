@@ -296,7 +296,9 @@ public class CacheMonitor {
                     VrmlMetricIntegration.recordGauge(prefix + ".error_rate", report.getErrorRate());
                     VrmlMetricIntegration.recordGauge(prefix + ".avg_response_time", report.getAverageResponseTime());
                     VrmlMetricIntegration.recordGauge(prefix + ".max_response_time", report.getMaxResponseTime());
-                    VrmlMetricIntegration.recordGauge(prefix + ".size", report.getCacheSize());
+                    if (report.getCacheSize() >= 0) {
+                        VrmlMetricIntegration.recordGauge(prefix + ".size", report.getCacheSize());
+                    }
                     VrmlMetricIntegration.recordGauge(prefix + ".eviction_count", report.getEvictionCount());
                     
                     log.debug("[VRML-Cache] Collected metrics for cache: {}, hit_rate: {:.2f}, error_rate: {:.2f}", 
@@ -4,6 +4,7 @@ import group.rxcloud.vrml.cache.api.CacheConfiguration;
 import group.rxcloud.vrml.cache.api.CacheOperations;
 import group.rxcloud.vrml.cache.api.CacheStats;
 import group.rxcloud.vrml.cache.core.AbstractCacheOperations;
+import group.rxcloud.vrml.core.integration.VrmlContext;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 
@@ -45,14 +46,15 @@ public class MultilevelCacheOperations extends AbstractCacheOperations {
         this.multilevelConfig = config instanceof MultilevelCacheConfiguration 
             ? (MultilevelCacheConfiguration) config 
             : new MultilevelCacheConfiguration();
-        this.asyncExecutor = Executors.newFixedThreadPool(
+        // 异步读写回填时携带调用线程的追踪和监控上下文
+        this.asyncExecutor = VrmlContext.executorService(Executors.newFixedThreadPool(
             multilevelConfig.getAsyncThreadPoolSize(),
             r -> {
                 Thread t = new Thread(r, "vrml-cache-multilevel-" + System.currentTimeMillis());
                 t.setDaemon(true);
                 return t;
             }
-        );
+        ));
     }
     
     /**
@@ -417,7 +419,9 @@ public class MultilevelCacheOperations extends AbstractCacheOperations {
                 .loadExceptionCount(l1Stats.getLoadExceptionCount() + l2Stats.getLoadExceptionCount())
                 .totalLoadTime(l1Stats.getTotalLoadTime() + l2Stats.getTotalLoadTime())
                 .evictionCount(l1Stats.getEvictionCount() + l2Stats.getEvictionCount())
-                .size(l1Stats.getSize() + l2Stats.getSize())
+                .size(l1Stats.getSize() < 0 || l2Stats.getSize() < 0
+                    ? CacheStats.UNKNOWN_SIZE
+                    : l1Stats.getSize() + l2Stats.getSize())
                 .build();
         });
     }
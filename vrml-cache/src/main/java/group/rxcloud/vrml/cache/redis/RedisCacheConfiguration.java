@@ -77,6 +77,16 @@ public class RedisCacheConfiguration extends DefaultCacheConfiguration {
      */
     private boolean keyExpirationEnabled = false;
     
+    /**
+     * SCAN命令每次迭代的COUNT提示值
+     */
+    private int scanCount = 1000;
+    
+    /**
+     * 按模式删除时每批UNLINK的键数量，决定客户端内存上限
+     */
+    private int unlinkBatchSize = 1000;
+    
     /**
      * 构造函数
      */
@@ -94,6 +104,8 @@ public class RedisCacheConfiguration extends DefaultCacheConfiguration {
         this.sslEnabled = false;
         this.keyPrefix = "vrml:cache:";
         this.keyExpirationEnabled = false;
+        this.scanCount = 1000;
+        this.unlinkBatchSize = 1000;
     }
     
     /**
@@ -151,6 +163,31 @@ public class RedisCacheConfiguration extends DefaultCacheConfiguration {
             return this;
         }
         
+        public Builder scanCount(int scanCount) {
+            config.scanCount = scanCount;
+            return this;
+        }
+        
+        public Builder unlinkBatchSize(int unlinkBatchSize) {
+            config.unlinkBatchSize = unlinkBatchSize;
+            return this;
+        }
+        
+        public Builder serializerType(String serializerType) {
+            config.setSerializerType(serializerType);
+            return this;
+        }
+        
+        public Builder compressionType(String compressionType) {
+            config.setCompressionType(compressionType);
+            return this;
+        }
+        
+        public Builder compressionThreshold(int compressionThreshold) {
+            config.setCompressionThreshold(compressionThreshold);
+            return this;
+        }
+        
         public Builder defaultTtl(Duration defaultTtl) {
             config.setDefaultTtl(defaultTtl);
             return this;
@@ -4,16 +4,25 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import group.rxcloud.vrml.cache.api.CacheConfiguration;
 import group.rxcloud.vrml.cache.api.CacheStats;
+import group.rxcloud.vrml.cache.codec.CacheCodecs;
+import group.rxcloud.vrml.cache.codec.CacheCompressor;
 import group.rxcloud.vrml.cache.core.AbstractCacheOperations;
+import group.rxcloud.vrml.cache.spi.CacheCodec;
+import group.rxcloud.vrml.core.integration.VrmlMetricIntegration;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 /**
  * Redis缓存操作实现
@@ -23,9 +32,39 @@ import java.util.stream.Collectors;
  */
 public class RedisCacheOperations extends AbstractCacheOperations {
     
+    /**
+     * 默认SCAN的COUNT提示值
+     */
+    private static final int DEFAULT_SCAN_COUNT = 1000;
+    
+    /**
+     * 默认每批UNLINK的键数量
+     */
+    private static final int DEFAULT_UNLINK_BATCH_SIZE = 1000;
+    
+    /**
+     * 管道中单条UNLINK命令的键数量
+     */
+    private static final int UNLINK_COMMAND_SIZE = 100;
+    
+    /**
+     * 未启用压缩时读取已压缩值使用的解压器
+     */
+    private static final CacheCompressor DECOMPRESSOR = new CacheCompressor(Integer.MAX_VALUE);
+    
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
     
+    /**
+     * 值编解码器，为null时使用RedisTemplate的值序列化器
+     */
+    private final CacheCodec codec;
+    
+    /**
+     * 值压缩器，为null时不压缩
+     */
+    private final CacheCompressor compressor;
+    
     // Redis Lua脚本用于原子操作
     private static final String GET_WITH_TTL_SCRIPT = 
         "local value = redis.call('GET', KEYS[1]) " +
@@ -53,9 +92,25 @@ public class RedisCacheOperations extends AbstractCacheOperations {
      */
     public RedisCacheOperations(String pattern, CacheConfiguration config, 
                                RedisTemplate<String, Object> redisTemplate) {
+        this(pattern, config, redisTemplate, CacheCodecs.find(config.getSerializerType()).getOrNull());
+    }
+    
+    /**
+     * 构造函数
+     * 指定编解码器或启用压缩时值以原始字节读写，不再经过RedisTemplate的值序列化器
+     * 
+     * @param pattern 缓存键模式
+     * @param config 缓存配置
+     * @param redisTemplate Redis模板
+     * @param codec 值编解码器，为null时使用RedisTemplate的值序列化器
+     */
+    public RedisCacheOperations(String pattern, CacheConfiguration config, 
+                               RedisTemplate<String, Object> redisTemplate, CacheCodec codec) {
         super(pattern, config);
         this.redisTemplate = redisTemplate;
         this.objectMapper = new ObjectMapper();
+        this.codec = codec;
+        this.compressor = CacheCompressor.of(config).getOrNull();
     }
     
     /**
@@ -67,6 +122,8 @@ public class RedisCacheOperations extends AbstractCacheOperations {
         super(other);
         this.redisTemplate = other.redisTemplate;
         this.objectMapper = other.objectMapper;
+        this.codec = other.codec;
+        this.compressor = other.compressor;
     }
     
     @Override
@@ -77,13 +134,9 @@ public class RedisCacheOperations extends AbstractCacheOperations {
     @Override
     protected <T> Try<Option<T>> doGet(String key, Class<T> valueType) {
         return Try.of(() -> {
-            Object value = redisTemplate.opsForValue().get(key);
-            if (value == null) {
-                return Option.<T>none();
-            }
-            
-            T deserializedValue = deserializeValue(value, valueType);
-            return Option.<T>of(deserializedValue);
+            // 始终读取原始字节，关闭压缩后仍能识别并解压之前写入的压缩值
+            byte[] bytes = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(rawKey(key)));
+            return bytes == null ? Option.<T>none() : Option.of(decodeValue(bytes, valueType));
         }).recover(throwable -> {
             log(LogLevel.ERROR, "Failed to get cache value for key: {}", key, throwable);
             return Option.<T>none();
@@ -93,6 +146,18 @@ public class RedisCacheOperations extends AbstractCacheOperations {
     @Override
     protected Try<Void> doPut(String key, Object value, Duration ttl) {
         return Try.run(() -> {
+            if (isRawBytes()) {
+                byte[] rawKey = rawKey(key);
+                byte[] rawValue = rawValue(value);
+                redisTemplate.execute((RedisCallback<Object>) connection -> {
+                    if (ttl != null && !ttl.isNegative() && !ttl.isZero()) {
+                        return connection.setEx(rawKey, ttl.getSeconds(), rawValue);
+                    }
+                    return connection.set(rawKey, rawValue);
+                });
+                return;
+            }
+            
             Object serializedValue = serializeValue(value);
             if (ttl != null && !ttl.isNegative() && !ttl.isZero()) {
                 redisTemplate.opsForValue().set(key, serializedValue, ttl.getSeconds(), TimeUnit.SECONDS);
@@ -132,17 +197,11 @@ public class RedisCacheOperations extends AbstractCacheOperations {
     
     @Override
     protected Try<Long> doEvictByPattern(String keyPattern) {
-        return Try.of(() -> {
-            Set<String> keys = redisTemplate.keys(keyPattern);
-            if (keys == null || keys.isEmpty()) {
+        return Try.of(() -> scanAndUnlink(keyPattern))
+            .recover(throwable -> {
+                log(LogLevel.ERROR, "Failed to evict cache by pattern: {}", keyPattern, throwable);
                 return 0L;
-            }
-            Long result = redisTemplate.delete(keys);
-            return result != null ? result : 0L;
-        }).recover(throwable -> {
-            log(LogLevel.ERROR, "Failed to evict cache by pattern: {}", keyPattern, throwable);
-            return 0L;
-        });
+            });
     }
     
     @Override
@@ -191,17 +250,23 @@ public class RedisCacheOperations extends AbstractCacheOperations {
                 return new HashMap<>();
             }
             
-            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            byte[][] rawKeys = new byte[keys.size()][];
+            for (int i = 0; i < rawKeys.length; i++) {
+                rawKeys[i] = rawKey(keys.get(i));
+            }
+            List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.mGet(rawKeys));
             Map<String, T> result = new HashMap<>();
-            
             for (int i = 0; i < keys.size(); i++) {
-                Object value = values != null && i < values.size() ? values.get(i) : null;
-                if (value != null) {
-                    T deserializedValue = deserializeValue(value, valueType);
-                    result.put(keys.get(i), deserializedValue);
+                byte[] bytes = values != null && i < values.size() ? values.get(i) : null;
+                if (bytes == null) {
+                    continue;
                 }
+                // 单个值解码失败只影响这个键
+                String key = keys.get(i);
+                Try.of(() -> decodeValue(bytes, valueType))
+                    .onSuccess(value -> result.put(key, value))
+                    .onFailure(throwable -> log(LogLevel.ERROR, "Failed to decode cache value for key: {}", key, throwable));
             }
-            
             return result;
         });
     }
@@ -213,33 +278,27 @@ public class RedisCacheOperations extends AbstractCacheOperations {
                 return;
             }
             
-            // 序列化所有值
-            Map<String, Object> serializedKeyValues = keyValues.entrySet().stream()
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    entry -> serializeValue(entry.getValue())
-                ));
+            boolean withTtl = ttl != null && !ttl.isNegative() && !ttl.isZero();
+            if (!isRawBytes() && !withTtl) {
+                Map<String, Object> serializedKeyValues = new HashMap<>(keyValues.size() * 4 / 3 + 1);
+                keyValues.forEach((key, value) -> serializedKeyValues.put(key, serializeValue(value)));
+                redisTemplate.opsForValue().multiSet(serializedKeyValues);
+                return;
+            }
             
-            if (ttl != null && !ttl.isNegative() && !ttl.isZero()) {
+            // 每个值只序列化一次，在进入管道之前完成，管道中只发送原始字节
+            Map<byte[], byte[]> rawKeyValues = new LinkedHashMap<>(keyValues.size() * 4 / 3 + 1);
+            keyValues.forEach((key, value) -> rawKeyValues.put(rawKey(key), rawValue(value)));
+            
+            if (withTtl) {
                 // 使用pipeline批量设置带TTL的缓存
-                redisTemplate.executePipelined((org.springframework.data.redis.core.RedisCallback<Object>) connection -> {
-                    try {
-                        serializedKeyValues.forEach((key, value) -> {
-                            try {
-                                byte[] keyBytes = key.getBytes();
-                                byte[] valueBytes = objectMapper.writeValueAsBytes(value);
-                                connection.setEx(keyBytes, ttl.getSeconds(), valueBytes);
-                            } catch (Exception e) {
-                                throw new RuntimeException("Failed to serialize value for key: " + key, e);
-                            }
-                        });
-                    } catch (Exception e) {
-                        throw new RuntimeException("Pipeline operation failed", e);
-                    }
+                long seconds = ttl.getSeconds();
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    rawKeyValues.forEach((key, value) -> connection.setEx(key, seconds, value));
                     return null;
                 });
             } else {
-                redisTemplate.opsForValue().multiSet(serializedKeyValues);
+                redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.mSet(rawKeyValues));
             }
         }).recover(throwable -> {
             log(LogLevel.ERROR, "Failed to multi-put cache values", throwable);
@@ -250,11 +309,8 @@ public class RedisCacheOperations extends AbstractCacheOperations {
     @Override
     protected Try<Void> doClear() {
         return Try.run(() -> {
-            // 注意：这会清空整个Redis数据库，在生产环境中需要谨慎使用
-            Set<String> keys = redisTemplate.keys(pattern + "*");
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-            }
+            // 只删除本缓存模式下的键，SCAN分批迭代不会阻塞Redis
+            scanAndUnlink(pattern + "*");
         }).recover(throwable -> {
             log(LogLevel.ERROR, "Failed to clear cache", throwable);
             return null;
@@ -264,12 +320,9 @@ public class RedisCacheOperations extends AbstractCacheOperations {
     @Override
     protected Try<CacheStats> doGetStats() {
         return Try.of(() -> {
-            // Redis本身不提供详细的统计信息，这里返回基本信息
-            Set<String> keys = redisTemplate.keys(pattern + "*");
-            long size = keys != null ? keys.size() : 0;
-            
+            // Redis不能按模式O(1)统计键数量，DBSIZE统计的是整个数据库，因此大小未知
             return CacheStats.builder()
-                .size(size)
+                .size(CacheStats.UNKNOWN_SIZE)
                 .hitCount(0) // Redis不跟踪命中次数
                 .missCount(0)
                 .loadCount(0)
@@ -295,6 +348,179 @@ public class RedisCacheOperations extends AbstractCacheOperations {
         });
     }
     
+    /**
+     * 获取值压缩器，用于查看压缩率和压缩耗时
+     * 
+     * @return 值压缩器，未启用压缩时为空
+     */
+    public Option<CacheCompressor> getCompressor() {
+        return Option.of(compressor);
+    }
+    
+    /**
+     * 使用SCAN游标迭代匹配的键，并按批次通过管道UNLINK删除
+     * 客户端最多只持有一批键，内存占用与键空间大小无关；UNLINK在Redis后台线程释放内存
+     * 
+     * @param keyPattern 键模式
+     * @return 删除的数量
+     */
+    private long scanAndUnlink(String keyPattern) {
+        int batchSize = unlinkBatchSize();
+        ScanOptions options = ScanOptions.scanOptions()
+            .match(keyPattern)
+            .count(scanCount())
+            .build();
+        Long deleted = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            long total = 0;
+            List<byte[]> batch = new ArrayList<>(batchSize);
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() >= batchSize) {
+                        total += unlink(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                total += unlink(batch);
+            }
+            return total;
+        });
+        return deleted != null ? deleted : 0L;
+    }
+    
+    /**
+     * 在一个管道中发送多条UNLINK命令
+     * 
+     * @param keys 待删除的键
+     * @return 删除的数量
+     */
+    private long unlink(List<byte[]> keys) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < keys.size(); from += UNLINK_COMMAND_SIZE) {
+                List<byte[]> command = keys.subList(from, Math.min(keys.size(), from + UNLINK_COMMAND_SIZE));
+                connection.unlink(command.toArray(new byte[0][]));
+            }
+            return null;
+        });
+        long total = 0;
+        if (results != null) {
+            for (Object result : results) {
+                if (result instanceof Number) {
+                    total += ((Number) result).longValue();
+                }
+            }
+        }
+        return total;
+    }
+    
+    private int scanCount() {
+        if (config instanceof RedisCacheConfiguration) {
+            int scanCount = ((RedisCacheConfiguration) config).getScanCount();
+            if (scanCount > 0) {
+                return scanCount;
+            }
+        }
+        return DEFAULT_SCAN_COUNT;
+    }
+    
+    private int unlinkBatchSize() {
+        if (config instanceof RedisCacheConfiguration) {
+            int unlinkBatchSize = ((RedisCacheConfiguration) config).getUnlinkBatchSize();
+            if (unlinkBatchSize > 0) {
+                return unlinkBatchSize;
+            }
+        }
+        return DEFAULT_UNLINK_BATCH_SIZE;
+    }
+    
+    /**
+     * 使用RedisTemplate的键序列化器编码键，保证与其他键操作一致
+     * 
+     * @param key 键
+     * @return 键的原始字节
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] rawKey(String key) {
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        return keySerializer != null ? keySerializer.serialize(key) : key.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 是否以原始字节写入值，读取始终使用原始字节
+     * 
+     * @return true表示配置了编解码器或启用了压缩
+     */
+    private boolean isRawBytes() {
+        return codec != null || compressor != null;
+    }
+    
+    /**
+     * 编码值为原始字节，未配置编解码器时与RedisTemplate的值序列化器保持一致，启用压缩时超过阈值的值会被压缩
+     * 
+     * @param value 原始值
+     * @return 值的原始字节
+     */
+    private byte[] rawValue(Object value) {
+        byte[] bytes = codec != null ? codec.encode(value) : serializeRaw(value);
+        if (compressor == null) {
+            return bytes;
+        }
+        long start = System.nanoTime();
+        byte[] compressed = compressor.compress(bytes);
+        if (metricName != null && compressed != bytes) {
+            VrmlMetricIntegration.recordTime(metricName + ".compress", Duration.ofNanos(System.nanoTime() - start));
+            VrmlMetricIntegration.recordGauge(metricName + ".compression_ratio", (double) compressed.length / bytes.length);
+        }
+        return compressed;
+    }
+    
+    /**
+     * 解码原始字节，带压缩头的值先解压，压缩关闭后仍可读取已压缩的值
+     * 
+     * @param bytes 值的原始字节
+     * @param valueType 目标类型
+     * @param <T> 目标类型
+     * @return 解码后的值
+     */
+    private <T> T decodeValue(byte[] bytes, Class<T> valueType) {
+        if (CacheCompressor.isCompressed(bytes)) {
+            long start = System.nanoTime();
+            bytes = compressor != null ? compressor.decompress(bytes) : DECOMPRESSOR.decompress(bytes);
+            if (metricName != null) {
+                VrmlMetricIntegration.recordTime(metricName + ".decompress", Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+        return codec != null ? codec.decode(bytes, valueType) : deserializeValue(deserializeRaw(bytes), valueType);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private byte[] serializeRaw(Object value) {
+        Object serializedValue = serializeValue(value);
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        if (valueSerializer != null) {
+            return valueSerializer.serialize(serializedValue);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(serializedValue);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize value: " + value, e);
+        }
+    }
+    
+    private Object deserializeRaw(byte[] bytes) {
+        RedisSerializer<?> valueSerializer = redisTemplate.getValueSerializer();
+        if (valueSerializer != null) {
+            return valueSerializer.deserialize(bytes);
+        }
+        try {
+            return objectMapper.readValue(bytes, Object.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize value", e);
+        }
+    }
+    
     /**
      * 序列化值
      * 
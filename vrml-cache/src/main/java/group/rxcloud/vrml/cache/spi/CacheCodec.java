@@ -0,0 +1,67 @@
+package group.rxcloud.vrml.cache.spi;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 缓存值编解码器SPI
+ * 值直接编码为Redis存储的原始字节，绕过RedisTemplate的值序列化器，避免重复序列化
+ *
+ * <p>实现类通过{@link group.rxcloud.vrml.cache.codec.CacheCodecs#register(CacheCodec)}手动注册，
+ * 或在{@code META-INF/services/group.rxcloud.vrml.cache.spi.CacheCodec}中声明，
+ * 按{@link group.rxcloud.vrml.cache.api.CacheConfiguration#getSerializerType()}选择，
+ * 同一类型存在多个实现时选择优先级数值最小的一个。</p>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public interface CacheCodec {
+
+    /**
+     * 获取编解码器类型
+     *
+     * @return 编解码器类型，与序列化器类型配置对应
+     */
+    String getType();
+
+    /**
+     * 编码值
+     *
+     * @param value 原始值，不为null
+     * @return 编码后的字节
+     */
+    byte[] encode(Object value);
+
+    /**
+     * 解码值
+     *
+     * @param bytes     编码后的字节
+     * @param valueType 目标类型
+     * @param <T>       目标类型
+     * @return 解码后的值
+     */
+    <T> T decode(byte[] bytes, Class<T> valueType);
+
+    /**
+     * 从缓冲区解码值，读取position到limit之间的字节
+     * 默认实现复制剩余字节，实现类可以覆盖以直接读取缓冲区
+     *
+     * @param buffer    编码后的字节缓冲区
+     * @param valueType 目标类型
+     * @param <T>       目标类型
+     * @return 解码后的值
+     */
+    default <T> T decode(ByteBuffer buffer, Class<T> valueType) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return decode(bytes, valueType);
+    }
+
+    /**
+     * 获取优先级，数值越小优先级越高
+     *
+     * @return 优先级
+     */
+    default int getPriority() {
+        return 100;
+    }
+}
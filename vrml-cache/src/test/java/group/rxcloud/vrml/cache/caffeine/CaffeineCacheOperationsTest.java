@@ -12,6 +12,13 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static org.junit.Assert.*;
 
@@ -308,4 +315,102 @@ public class CaffeineCacheOperationsTest {
         assertTrue(stringResult.get().isDefined());
         assertEquals("42", stringResult.get().get());
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testGetOrLoad_HotKeyProtection_CoalescesSameKey() throws Exception {
+        // Given
+        config.setHotKeyProtectionEnabled(true);
+        CaffeineCacheOperations protectedOps = new CaffeineCacheOperations("test:{}", config);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            loads.incrementAndGet();
+            awaitQuietly(release);
+            return "loaded";
+        };
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        // When
+        try {
+            List<Future<Try<String>>> futures = new java.util.ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> protectedOps.getOrLoad("hot", String.class, loader)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            
+            // Then
+            for (Future<Try<String>> future : futures) {
+                Try<String> result = future.get(5, TimeUnit.SECONDS);
+                assertTrue(result.isSuccess());
+                assertEquals("loaded", result.get());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testGetOrLoad_HotKeyProtection_DifferentKeysLoadInParallel() throws Exception {
+        // Given
+        config.setHotKeyProtectionEnabled(true);
+        CaffeineCacheOperations protectedOps = new CaffeineCacheOperations("test:{}", config);
+        CountDownLatch bothLoading = new CountDownLatch(2);
+        Supplier<String> loader = () -> {
+            bothLoading.countDown();
+            // 若两个键互相阻塞，则无法同时进入加载器
+            return awaitQuietly(bothLoading) ? "loaded" : "timeout";
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        
+        // When
+        try {
+            Future<Try<String>> first = executor.submit(() -> protectedOps.getOrLoad("a", String.class, loader));
+            Future<Try<String>> second = executor.submit(() -> protectedOps.getOrLoad("b", String.class, loader));
+            
+            // Then
+            assertEquals("loaded", first.get(5, TimeUnit.SECONDS).get());
+            assertEquals("loaded", second.get(5, TimeUnit.SECONDS).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testGetOrLoad_HotKeyProtection_PropagatesFailureToWaiters() throws Exception {
+        // Given
+        config.setHotKeyProtectionEnabled(true);
+        CaffeineCacheOperations protectedOps = new CaffeineCacheOperations("test:{}", config);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            awaitQuietly(release);
+            throw new IllegalStateException("load failed");
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        
+        // When
+        try {
+            Future<Try<String>> first = executor.submit(() -> protectedOps.getOrLoad("broken", String.class, loader));
+            Future<Try<String>> second = executor.submit(() -> protectedOps.getOrLoad("broken", String.class, loader));
+            Thread.sleep(200);
+            release.countDown();
+            
+            // Then
+            assertTrue(first.get(5, TimeUnit.SECONDS).isFailure());
+            assertTrue(second.get(5, TimeUnit.SECONDS).isFailure());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package group.rxcloud.vrml.cache.codec;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group.rxcloud.vrml.cache.spi.CacheCodec;
+import io.vavr.control.Option;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * 二进制编解码器测试
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public class BinaryCacheCodecTest {
+
+    private final BinaryCacheCodec codec = new BinaryCacheCodec();
+
+    @Test
+    public void testPrimitivesUseTypeHeaderAndRawBytes() {
+        // Given
+        String text = "缓存-value";
+
+        // When
+        byte[] stringBytes = codec.encode(text);
+        byte[] longBytes = codec.encode(42L);
+
+        // Then
+        assertEquals(BinaryCacheCodec.TYPE_STRING, stringBytes[0]);
+        assertEquals(1 + text.getBytes(StandardCharsets.UTF_8).length, stringBytes.length);
+        assertEquals(text, codec.decode(stringBytes, String.class));
+        assertEquals(9, longBytes.length);
+        assertEquals(Long.valueOf(42L), codec.decode(longBytes, Long.class));
+        assertEquals(Integer.valueOf(42), codec.decode(longBytes, Integer.class));
+        assertEquals(Boolean.TRUE, codec.decode(codec.encode(true), Boolean.class));
+        assertArrayEquals(new byte[]{1, 2}, codec.decode(codec.encode(new byte[]{1, 2}), byte[].class));
+    }
+
+    @Test
+    public void testObjectDecodedByCallerType() {
+        // Given
+        User user = new User();
+        user.name = "alice";
+        user.tags = Arrays.asList("a", "b");
+
+        // When
+        byte[] bytes = codec.encode(user);
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 4);
+        buffer.position(4);
+        buffer.put(bytes).position(4);
+
+        // Then
+        assertEquals(BinaryCacheCodec.TYPE_SMILE, bytes[0]);
+        User decoded = codec.decode(buffer.slice(), User.class);
+        assertEquals("alice", decoded.name);
+        assertEquals(user.tags, decoded.tags);
+        assertEquals("alice", codec.decode(bytes, Map.class).get("name"));
+    }
+
+    @Test
+    public void testJsonObjectsStayReadable() {
+        // Given: written by a JSON object mapper
+        User user = new User();
+        user.name = "bob";
+        byte[] json = new BinaryCacheCodec(new ObjectMapper()).encode(user);
+
+        // When
+        User decoded = codec.decode(json, User.class);
+
+        // Then
+        assertEquals(BinaryCacheCodec.TYPE_OBJECT, json[0]);
+        assertEquals("bob", decoded.name);
+    }
+
+    @Test
+    public void testFindCodecByType() {
+        // When
+        CacheCodec found = CacheCodecs.find("BINARY").getOrNull();
+
+        // Then
+        assertTrue(found instanceof BinaryCacheCodec);
+        assertTrue(CacheCodecs.find("json").isEmpty());
+    }
+
+    @Test
+    public void testWorksWithoutSmileOnClasspath() throws Exception {
+        // Given: the codec classes loaded without jackson-dataformat-smile
+        URL[] urls = Stream.of(BinaryCacheCodec.class, ObjectMapper.class, JsonFactory.class,
+                        JsonAutoDetect.class, Option.class, LoggerFactory.class)
+                .map(type -> type.getProtectionDomain().getCodeSource().getLocation())
+                .distinct()
+                .toArray(URL[]::new);
+        try (URLClassLoader loader = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent())) {
+            Class<?> codecType = loader.loadClass(BinaryCacheCodec.class.getName());
+            Object binary = codecType.getConstructor().newInstance();
+            Map<String, String> value = Collections.singletonMap("name", "carol");
+
+            // When
+            Object found = loader.loadClass(CacheCodecs.class.getName())
+                    .getMethod("find", String.class).invoke(null, "json");
+            byte[] bytes = (byte[]) codecType.getMethod("encode", Object.class).invoke(binary, value);
+            Object decoded = codecType.getMethod("decode", byte[].class, Class.class).invoke(binary, bytes, Map.class);
+
+            // Then: registry lookups still work and objects fall back to JSON
+            assertEquals("None", found.toString());
+            assertEquals(BinaryCacheCodec.TYPE_OBJECT, bytes[0]);
+            assertEquals(value, decoded);
+        }
+    }
+
+    public static class User {
+        public String name;
+        public List<String> tags;
+    }
+}
@@ -0,0 +1,80 @@
+package group.rxcloud.vrml.cache.codec;
+
+import group.rxcloud.vrml.cache.config.DefaultCacheConfiguration;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 缓存值压缩器测试
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public class CacheCompressorTest {
+
+    private final CacheCompressor compressor = new CacheCompressor(1024);
+
+    @Test
+    public void testCompressLargeValueRoundTrip() {
+        // Given
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\"},");
+        }
+        byte[] raw = json.append("{}]").toString().getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] compressed = compressor.compress(raw);
+
+        // Then
+        assertTrue(CacheCompressor.isCompressed(compressed));
+        assertTrue(compressed.length < raw.length / 4);
+        assertArrayEquals(raw, compressor.decompress(compressed));
+        assertEquals(1, compressor.getCompressedCount());
+        assertEquals(1, compressor.getDecompressedCount());
+        assertTrue(compressor.getCompressionRatio() < 0.25);
+        assertTrue(compressor.getCompressNanos() > 0);
+    }
+
+    @Test
+    public void testPlainValuesPassThrough() {
+        // Given
+        byte[] small = "small-value".getBytes(StandardCharsets.UTF_8);
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+        byte[] text = "Šxxxxxxxxx".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] smallResult = compressor.compress(small);
+        byte[] randomResult = compressor.compress(random);
+
+        // Then
+        assertSame(small, smallResult);
+        assertSame(random, randomResult);
+        assertEquals(2, compressor.getSkippedCount());
+        assertFalse(CacheCompressor.isCompressed(text));
+        assertSame(text, compressor.decompress(text));
+    }
+
+    @Test
+    public void testCreateFromConfiguration() {
+        // Given
+        DefaultCacheConfiguration none = DefaultCacheConfiguration.builder().build();
+        DefaultCacheConfiguration gzip = DefaultCacheConfiguration.builder()
+                .compressionType("gzip")
+                .compressionThreshold(2048)
+                .build();
+        DefaultCacheConfiguration unsupported = DefaultCacheConfiguration.builder()
+                .compressionType("unknown")
+                .build();
+
+        // When & Then
+        assertTrue(CacheCompressor.of(none).isEmpty());
+        assertEquals(2048, CacheCompressor.of(gzip).get().getThreshold());
+        assertTrue(CacheCompressor.of(unsupported).isEmpty());
+    }
+}
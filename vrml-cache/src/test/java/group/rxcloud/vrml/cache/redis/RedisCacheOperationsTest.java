@@ -1,13 +1,20 @@
 package group.rxcloud.vrml.cache.redis;
 
 import group.rxcloud.vrml.cache.api.CacheStats;
+import group.rxcloud.vrml.cache.codec.BinaryCacheCodec;
+import group.rxcloud.vrml.cache.codec.CacheCompressor;
 import group.rxcloud.vrml.cache.config.DefaultCacheConfiguration;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
 import java.util.Arrays;
@@ -28,6 +35,7 @@ public class RedisCacheOperationsTest {
     
     private RedisTemplate<String, Object> redisTemplate;
     private ValueOperations<String, Object> valueOperations;
+    private RedisConnection connection;
     private RedisCacheOperations cacheOperations;
     private DefaultCacheConfiguration config;
     
@@ -37,6 +45,10 @@ public class RedisCacheOperationsTest {
         redisTemplate = mock(RedisTemplate.class);
         valueOperations = mock(ValueOperations.class);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        doReturn(RedisSerializer.string()).when(redisTemplate).getValueSerializer();
+        connection = mock(RedisConnection.class);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+            .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
         
         config = new DefaultCacheConfiguration();
         cacheOperations = new RedisCacheOperations("test:{}", config, redisTemplate);
@@ -47,7 +59,7 @@ public class RedisCacheOperationsTest {
         // Given
         String key = "user:123";
         String value = "test-value";
-        when(valueOperations.get("test:user:123")).thenReturn(value);
+        when(connection.get("test:user:123".getBytes())).thenReturn(value.getBytes());
         
         // When
         Try<Option<String>> result = cacheOperations.get(key, String.class);
@@ -62,7 +74,7 @@ public class RedisCacheOperationsTest {
     public void testGet_NotFound() {
         // Given
         String key = "user:123";
-        when(valueOperations.get("test:user:123")).thenReturn(null);
+        when(connection.get("test:user:123".getBytes())).thenReturn(null);
         
         // When
         Try<Option<String>> result = cacheOperations.get(key, String.class);
@@ -135,8 +147,8 @@ public class RedisCacheOperationsTest {
     public void testMultiGet_Success() {
         // Given
         List<String> keys = Arrays.asList("user:123", "user:456");
-        List<Object> values = Arrays.asList("value1", "value2");
-        when(valueOperations.multiGet(Arrays.asList("test:user:123", "test:user:456")))
+        List<byte[]> values = Arrays.asList("value1".getBytes(), "value2".getBytes());
+        when(connection.mGet("test:user:123".getBytes(), "test:user:456".getBytes()))
             .thenReturn(values);
         
         // When
@@ -168,16 +180,127 @@ public class RedisCacheOperationsTest {
     
     @Test
     public void testGetStats_Success() {
-        // Given
-        when(redisTemplate.keys("test:{}*")).thenReturn(java.util.Set.of("key1", "key2"));
-        
         // When
         Try<CacheStats> result = cacheOperations.getStats();
         
         // Then
         assertTrue(result.isSuccess());
         CacheStats stats = result.get();
-        assertEquals(2, stats.getSize());
+        assertEquals(CacheStats.UNKNOWN_SIZE, stats.getSize());
+        verify(redisTemplate, never()).keys(anyString());
+        verify(connection, never()).dbSize();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEvictByPattern_ScansAndUnlinksInBatches() {
+        // Given
+        cacheOperations = new RedisCacheOperations("test:{}",
+            new RedisCacheConfiguration.Builder().scanCount(10).unlinkBatchSize(2).build(), redisTemplate);
+        Cursor<byte[]> cursor = mock(Cursor.class);
+        when(connection.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, true, false);
+        when(cursor.next()).thenReturn("k1".getBytes(), "k2".getBytes(), "k3".getBytes());
+        List<Integer> batches = new java.util.ArrayList<>();
+        RedisConnection pipeline = mock(RedisConnection.class);
+        when(pipeline.unlink(any())).thenAnswer(unlink -> {
+            batches.add(unlink.getArguments().length);
+            return null;
+        });
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(pipeline);
+            return Arrays.asList((Object) (long) batches.get(batches.size() - 1));
+        });
+        
+        // When
+        Try<Long> result = cacheOperations.evictByPattern("test:user:*");
+        
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(Long.valueOf(3), result.get());
+        assertEquals(Arrays.asList(2, 1), batches);
+        verify(redisTemplate, never()).keys(anyString());
+        verify(cursor).close();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCodec_ReadsAndWritesRawBytes() {
+        // Given
+        cacheOperations = new RedisCacheOperations("test:{}",
+            new RedisCacheConfiguration.Builder().serializerType("binary").build(), redisTemplate);
+        byte[] rawKey = "test:user:123".getBytes();
+        byte[] rawValue = new BinaryCacheCodec().encode(123L);
+        when(connection.get(rawKey)).thenReturn(rawValue);
+        
+        // When
+        Try<Void> putResult = cacheOperations.put("user:123", 123L, Duration.ofMinutes(1));
+        Try<Option<Long>> getResult = cacheOperations.get("user:123", Long.class);
+        
+        // Then
+        assertTrue(putResult.isSuccess());
+        verify(connection).setEx(rawKey, 60L, rawValue);
+        assertEquals(Long.valueOf(123L), getResult.get().get());
+        verify(redisTemplate, never()).opsForValue();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompression_LargeValuesCompressedAndReadBack() {
+        // Given
+        cacheOperations = new RedisCacheOperations("test:{}", new RedisCacheConfiguration.Builder()
+            .serializerType("binary").compressionType("gzip").compressionThreshold(1024).build(), redisTemplate);
+        Map<String, byte[]> stored = new HashMap<>();
+        when(connection.setEx(any(byte[].class), anyLong(), any(byte[].class))).thenAnswer(invocation -> {
+            stored.put(new String((byte[]) invocation.getArgument(0)), invocation.getArgument(2));
+            return true;
+        });
+        when(connection.get(any(byte[].class)))
+            .thenAnswer(invocation -> stored.get(new String((byte[]) invocation.getArgument(0))));
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            large.append("catalog-item-").append(i).append(';');
+        }
+        
+        // When
+        cacheOperations.put("large", large.toString(), Duration.ofMinutes(1));
+        cacheOperations.put("small", "plain", Duration.ofMinutes(1));
+        
+        // Then
+        assertTrue(CacheCompressor.isCompressed(stored.get("test:large")));
+        assertFalse(CacheCompressor.isCompressed(stored.get("test:small")));
+        assertTrue(stored.get("test:large").length < large.length() / 2);
+        assertEquals(large.toString(), cacheOperations.get("large", String.class).get().get());
+        assertEquals("plain", cacheOperations.get("small", String.class).get().get());
+        assertEquals(1, cacheOperations.getCompressor().get().getCompressedCount());
+    }
+    
+    @Test
+    public void testCompression_ReadableAfterCompressionDisabled() {
+        // Given
+        Map<String, byte[]> stored = new HashMap<>();
+        when(connection.setEx(any(byte[].class), anyLong(), any(byte[].class))).thenAnswer(invocation -> {
+            stored.put(new String((byte[]) invocation.getArgument(0)), invocation.getArgument(2));
+            return true;
+        });
+        when(connection.get(any(byte[].class)))
+            .thenAnswer(invocation -> stored.get(new String((byte[]) invocation.getArgument(0))));
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            large.append("catalog-item-").append(i).append(';');
+        }
+        RedisCacheOperations compressing = new RedisCacheOperations("test:{}", new RedisCacheConfiguration.Builder()
+            .compressionType("gzip").compressionThreshold(1024).build(), redisTemplate);
+        compressing.put("large", large.toString(), Duration.ofMinutes(1));
+        assertTrue(CacheCompressor.isCompressed(stored.get("test:large")));
+        
+        // When
+        Try<Option<String>> result = cacheOperations.get("large", String.class);
+        
+        // Then
+        assertTrue(result.get().isDefined());
+        assertEquals(large.toString(), result.get().get());
+        verify(redisTemplate, never()).opsForValue();
     }
     
     @Test
@@ -22,6 +22,26 @@ public abstract class Computes<T extends ComputeConfiguration> implements Comput
      */
     public static final TimeCounterComputes TC = new TimeCounterComputes();
 
+    /**
+     * The {@link KeyedCounterComputes} singleton.
+     */
+    public static final KeyedCounterComputes KC = new KeyedCounterComputes();
+
+    /**
+     * The {@link EwmaRateComputes} singleton.
+     */
+    public static final EwmaRateComputes ER = new EwmaRateComputes();
+
+    /**
+     * The {@link RollingPercentileComputes} singleton.
+     */
+    public static final RollingPercentileComputes RP = new RollingPercentileComputes();
+
+    /**
+     * The {@link RollingDistinctComputes} singleton.
+     */
+    public static final RollingDistinctComputes RD = new RollingDistinctComputes();
+
     T configuration;
 
     /**
@@ -0,0 +1,72 @@
+package group.rxcloud.vrml.compute;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Exponentially weighted moving rate in events per second.
+ * <p>
+ * Events only increment a {@link LongAdder}. Once per tick the first thread that wins the CAS on the
+ * tick time folds the pending events into the average, idle ticks decay it.
+ */
+final class EwmaRate {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder uncounted = new LongAdder();
+    private final AtomicLong lastTick;
+    private final double alpha;
+    private final LongSupplier nanoClock;
+
+    private volatile boolean initialized = false;
+    private volatile double rate = 0.0;
+
+    /**
+     * @param windowNanos the time constant of the average
+     * @param nanoClock   the monotonic clock
+     */
+    EwmaRate(long windowNanos, LongSupplier nanoClock) {
+        this.alpha = 1 - Math.exp(-(double) TICK_NANOS / Math.max(TICK_NANOS, windowNanos));
+        this.nanoClock = nanoClock;
+        this.lastTick = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Count events.
+     *
+     * @param n the number of events
+     */
+    void update(long n) {
+        // tick first so the events land in the current tick
+        tickIfNecessary();
+        uncounted.add(n);
+    }
+
+    /**
+     * Get the rate.
+     *
+     * @return the events per second
+     */
+    double rate() {
+        tickIfNecessary();
+        return rate;
+    }
+
+    private void tickIfNecessary() {
+        long last = lastTick.get();
+        long now = nanoClock.getAsLong();
+        long ticks = (now - last) / TICK_NANOS;
+        if (ticks > 0 && lastTick.compareAndSet(last, last + ticks * TICK_NANOS)) {
+            // only the CAS winner writes the rate
+            double instant = uncounted.sumThenReset() / (TICK_NANOS / 1e9);
+            double current = initialized ? rate + alpha * (instant - rate) : instant;
+            initialized = true;
+            if (ticks > 1) {
+                current *= Math.pow(1 - alpha, ticks - 1);
+            }
+            rate = current;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package group.rxcloud.vrml.compute;
+
+import group.rxcloud.vrml.compute.config.ComputeConfiguration;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The EWMA+Rate computes.
+ * <p>
+ * Tracks the exponentially weighted events per second of a compute key and runs right when the rate
+ * exceeds the trigger rate. Each key holds one adder and a few fields, recording never blocks.
+ */
+public final class EwmaRateComputes extends Computes<group.rxcloud.vrml.compute.EwmaRateComputes.EwmaRateComputeConfiguration> {
+
+    private static final Map<String, RateTrigger> RATES = new ConcurrentHashMap<>();
+
+    /**
+     * Singleton.
+     */
+    EwmaRateComputes() {
+    }
+
+    /**
+     * Compute.
+     *
+     * @param key the key
+     * @param f   the f
+     */
+    @Override
+    public void compute(String key, Runnable f) {
+        this.compute(key, null, f);
+    }
+
+    /**
+     * Compute.
+     *
+     * @param key   the key
+     * @param left  the left when compute failure
+     * @param right the right when compute success
+     */
+    @Override
+    public void compute(String key, Runnable left, Runnable right) {
+        RateTrigger trigger = getRate(key);
+        trigger.rate.update(1L);
+        if (trigger.rate.rate() <= trigger.triggerRate) {
+            if (left != null) {
+                left.run();
+            }
+        } else {
+            if (right != null) {
+                right.run();
+            }
+        }
+    }
+
+    /**
+     * Get the events per second of the key.
+     *
+     * @param key the key
+     * @return the rate
+     */
+    public double rate(String key) {
+        RateTrigger trigger = RATES.get(key);
+        return trigger == null ? 0.0 : trigger.rate.rate();
+    }
+
+    private RateTrigger getRate(String key) {
+        RateTrigger trigger = RATES.get(key);
+        if (trigger == null) {
+            EwmaRateComputeConfig computeConfiguration = getConfiguration()
+                    .getComputeConfiguration(key);
+            Objects.requireNonNull(computeConfiguration, "computeConfiguration");
+            trigger = RATES.computeIfAbsent(key, key1 -> newRate(computeConfiguration));
+        }
+        return trigger;
+    }
+
+    private static RateTrigger newRate(EwmaRateComputeConfig config) {
+        Objects.requireNonNull(config.getExpirationTime(), "expirationTime");
+        Objects.requireNonNull(config.getTriggerRate(), "triggerRate");
+        return new RateTrigger(
+                new EwmaRate(TimeUnit.SECONDS.toNanos(config.getExpirationTime()), System::nanoTime),
+                config.getTriggerRate());
+    }
+
+    private static final class RateTrigger {
+
+        private final EwmaRate rate;
+        private final double triggerRate;
+
+        private RateTrigger(EwmaRate rate, double triggerRate) {
+            this.rate = rate;
+            this.triggerRate = triggerRate;
+        }
+    }
+
+    /**
+     * The EWMA+Rate compute configuration.
+     * <p>
+     * Please impl this interface by your own class.
+     */
+    public interface EwmaRateComputeConfiguration extends ComputeConfiguration<EwmaRateComputeConfig> {
+
+        @Override
+        EwmaRateComputeConfig getComputeConfiguration(String key);
+    }
+
+    /**
+     * The EWMA+Rate compute config.
+     */
+    public static class EwmaRateComputeConfig implements ComputeConfiguration.ComputeConfig {
+
+        /**
+         * Unique key
+         */
+        private String key;
+        /**
+         * Time constant seconds of the average, e.g. 60 for a one minute rate
+         */
+        private Long expirationTime;
+        /**
+         * Trigger events per second
+         */
+        private Double triggerRate;
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public Long getExpirationTime() {
+            return expirationTime;
+        }
+
+        public void setExpirationTime(Long expirationTime) {
+            this.expirationTime = expirationTime;
+        }
+
+        public Double getTriggerRate() {
+            return triggerRate;
+        }
+
+        public void setTriggerRate(Double triggerRate) {
+            this.triggerRate = triggerRate;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package group.rxcloud.vrml.compute;
+
+import group.rxcloud.vrml.compute.config.ComputeConfiguration;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Keyed+Time+Counter computes.
+ * <p>
+ * Counts the events of each member (e.g. user id or ip) of a compute key in a sliding window, and runs
+ * right when the member exceeds the trigger count. Each compute key owns one fixed-size windowed
+ * Count-Min sketch, so memory does not grow with the number of members.
+ * <p>
+ * The {@link Compute} overloads without a member count the events of the key itself in an exact
+ * sliding window of the same config, without allocating a sketch.
+ */
+public final class KeyedCounterComputes extends Computes<group.rxcloud.vrml.compute.KeyedCounterComputes.KeyedCounterComputeConfiguration> {
+
+    private static final int DEFAULT_WINDOW_BUCKETS = 6;
+    private static final int DEFAULT_DEPTH = 4;
+    private static final int DEFAULT_WIDTH = 4096;
+
+    private static final Map<String, KeyedWindowCounter> KEYED_COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, WindowCounter> KEY_COUNTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Singleton.
+     */
+    KeyedCounterComputes() {
+    }
+
+    /**
+     * Count the event of the key itself.
+     *
+     * @param key the key
+     * @param f   the f
+     */
+    @Override
+    public void compute(String key, Runnable f) {
+        run(getKeyCounter(key).incrementAndCheck(), null, f);
+    }
+
+    /**
+     * Count the event of the key itself.
+     *
+     * @param key   the key
+     * @param left  the left when compute failure
+     * @param right the right when compute success
+     */
+    @Override
+    public void compute(String key, Runnable left, Runnable right) {
+        run(getKeyCounter(key).incrementAndCheck(), left, right);
+    }
+
+    /**
+     * Compute.
+     *
+     * @param key    the key
+     * @param member the member counted under the key
+     * @param f      the f
+     */
+    public void compute(String key, String member, Runnable f) {
+        this.compute(key, member, null, f);
+    }
+
+    /**
+     * Compute.
+     *
+     * @param key    the key
+     * @param member the member counted under the key
+     * @param left   the left when compute failure
+     * @param right  the right when compute success
+     */
+    public void compute(String key, String member, Runnable left, Runnable right) {
+        Objects.requireNonNull(member, "member");
+        run(getKeyedCounter(key).incrementAndCheck(member), left, right);
+    }
+
+    /**
+     * The events of the key itself in the window.
+     *
+     * @param key the key
+     * @return the count
+     */
+    public long count(String key) {
+        WindowCounter counter = KEY_COUNTERS.get(key);
+        return counter == null ? 0L : counter.count();
+    }
+
+    /**
+     * Estimate the events of the member in the window, never less than the real count.
+     *
+     * @param key    the key
+     * @param member the member
+     * @return the estimated count
+     */
+    public long count(String key, String member) {
+        KeyedWindowCounter counter = KEYED_COUNTERS.get(key);
+        return counter == null ? 0L : counter.count(member);
+    }
+
+    private static void run(boolean triggered, Runnable left, Runnable right) {
+        if (!triggered) {
+            if (left != null) {
+                left.run();
+            }
+        } else {
+            if (right != null) {
+                right.run();
+            }
+        }
+    }
+
+    private WindowCounter getKeyCounter(String key) {
+        WindowCounter counter = KEY_COUNTERS.get(key);
+        if (counter == null) {
+            KeyedCounterComputeConfig computeConfiguration = getConfiguration()
+                    .getComputeConfiguration(key);
+            Objects.requireNonNull(computeConfiguration, "computeConfiguration");
+            counter = KEY_COUNTERS.computeIfAbsent(key, key1 -> newKeyCounter(computeConfiguration));
+        }
+        return counter;
+    }
+
+    private KeyedWindowCounter getKeyedCounter(String key) {
+        KeyedWindowCounter counter = KEYED_COUNTERS.get(key);
+        if (counter == null) {
+            KeyedCounterComputeConfig computeConfiguration = getConfiguration()
+                    .getComputeConfiguration(key);
+            Objects.requireNonNull(computeConfiguration, "computeConfiguration");
+            counter = KEYED_COUNTERS.computeIfAbsent(key, key1 -> newKeyedCounter(computeConfiguration));
+        }
+        return counter;
+    }
+
+    private static KeyedWindowCounter newKeyedCounter(KeyedCounterComputeConfig config) {
+        Objects.requireNonNull(config.getExpirationTime(), "expirationTime");
+        Objects.requireNonNull(config.getTriggerCount(), "triggerCount");
+        return new KeyedWindowCounter(
+                TimeUnit.SECONDS.toNanos(config.getExpirationTime()),
+                config.getWindowBuckets() != null ? config.getWindowBuckets() : DEFAULT_WINDOW_BUCKETS,
+                config.getDepth() != null ? config.getDepth() : DEFAULT_DEPTH,
+                config.getWidth() != null ? config.getWidth() : DEFAULT_WIDTH,
+                config.getTriggerCount(),
+                System::nanoTime);
+    }
+
+    private static WindowCounter newKeyCounter(KeyedCounterComputeConfig config) {
+        Objects.requireNonNull(config.getExpirationTime(), "expirationTime");
+        Objects.requireNonNull(config.getTriggerCount(), "triggerCount");
+        return new SlidingWindowCounter(
+                TimeUnit.SECONDS.toNanos(config.getExpirationTime()),
+                config.getWindowBuckets() != null ? config.getWindowBuckets() : DEFAULT_WINDOW_BUCKETS,
+                config.getTriggerCount(),
+                System::nanoTime);
+    }
+
+    /**
+     * The Keyed+Time+Counter compute configuration.
+     * <p>
+     * Please impl this interface by your own class.
+     */
+    public interface KeyedCounterComputeConfiguration extends ComputeConfiguration<KeyedCounterComputeConfig> {
+
+        @Override
+        KeyedCounterComputeConfig getComputeConfiguration(String key);
+    }
+
+    /**
+     * The Keyed+Time+Counter compute config.
+     * <p>
+     * The memory of a key counted by member is {@code windowBuckets * depth * width * 4} bytes, about 384KB
+     * by default, a key counted only by itself uses {@code windowBuckets * 8} bytes.
+     */
+    public static class KeyedCounterComputeConfig implements ComputeConfiguration.ComputeConfig {
+
+        /**
+         * Unique key
+         */
+        private String key;
+        /**
+         * Sliding window seconds
+         */
+        private Long expirationTime;
+        /**
+         * Member trigger count
+         */
+        private Long triggerCount;
+        /**
+         * Number of time buckets of the window, default 6
+         */
+        private Integer windowBuckets;
+        /**
+         * Number of sketch rows, more rows lower the chance of overcounting, default 4
+         */
+        private Integer depth;
+        /**
+         * Number of counters per row, wider rows lower the overcount, default 4096
+         */
+        private Integer width;
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public Long getExpirationTime() {
+            return expirationTime;
+        }
+
+        public void setExpirationTime(Long expirationTime) {
+            this.expirationTime = expirationTime;
+        }
+
+        public Long getTriggerCount() {
+            return triggerCount;
+        }
+
+        public void setTriggerCount(Long triggerCount) {
+            this.triggerCount = triggerCount;
+        }
+
+        public Integer getWindowBuckets() {
+            return windowBuckets;
+        }
+
+        public void setWindowBuckets(Integer windowBuckets) {
+            this.windowBuckets = windowBuckets;
+        }
+
+        public Integer getDepth() {
+            return depth;
+        }
+
+        public void setDepth(Integer depth) {
+            this.depth = depth;
+        }
+
+        public Integer getWidth() {
+            return width;
+        }
+
+        public void setWidth(Integer width) {
+            this.width = width;
+        }
+    }
+}
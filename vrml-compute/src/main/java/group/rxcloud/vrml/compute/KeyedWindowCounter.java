@@ -0,0 +1,136 @@
+package group.rxcloud.vrml.compute;
+
+import group.rxcloud.vrml.core.stats.TimeBuckets;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding window event counter of an unbounded number of members in fixed memory.
+ * <p>
+ * The window is a ring of time buckets, each bucket is a Count-Min sketch of {@code depth} rows of
+ * {@code width} int counters. A member is counted in one column per row, and its estimate is the
+ * minimum over the rows of the counts in the window. The estimate never undercounts, collisions may
+ * overcount by about {@code e / width} of all events in the window with probability {@code 1 - e^-depth}.
+ * <p>
+ * Memory is {@code buckets * depth * width * 4} bytes, allocated once, stale buckets are reset by
+ * {@link TimeBuckets}.
+ */
+final class KeyedWindowCounter {
+
+    private final TimeBuckets buckets;
+    private final AtomicIntegerArray counters;
+    private final int depth;
+    private final int width;
+    private final int widthMask;
+    private final long triggerCount;
+    private final IntConsumer clearBucket = this::clear;
+
+    /**
+     * @param windowNanos  the window length
+     * @param bucketCount  the number of time buckets
+     * @param depth        the number of sketch rows
+     * @param width        the number of counters per row, rounded up to a power of two
+     * @param triggerCount the estimate beyond which events trigger
+     * @param nanoClock    the monotonic clock
+     */
+    KeyedWindowCounter(long windowNanos, int bucketCount, int depth, int width, long triggerCount,
+                       LongSupplier nanoClock) {
+        if (bucketCount <= 0 || depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Keyed counter buckets, depth and width must be positive!");
+        }
+        int columns = Integer.highestOneBit(width);
+        if (columns < width) {
+            columns <<= 1;
+        }
+        this.depth = depth;
+        this.width = columns;
+        this.widthMask = columns - 1;
+        this.buckets = new TimeBuckets(windowNanos, bucketCount, nanoClock);
+        this.counters = new AtomicIntegerArray(Math.multiplyExact(Math.multiplyExact(bucketCount, depth), columns));
+        this.triggerCount = Math.max(1L, triggerCount);
+    }
+
+    /**
+     * Count one event of the member.
+     *
+     * @param member the member
+     * @return {@code true} if the estimate of the member exceeds the trigger count
+     */
+    boolean incrementAndCheck(String member) {
+        long hash = hash(member);
+        long epoch = buckets.epoch();
+        int bucket = buckets.acquire(epoch, clearBucket);
+        int offset = bucket * depth * width;
+        for (int row = 0; row < depth; row++) {
+            counters.incrementAndGet(offset + row * width + column(hash, row));
+        }
+        return estimate(hash, epoch) > triggerCount;
+    }
+
+    /**
+     * Estimate the events of the member in the window.
+     *
+     * @param member the member
+     * @return the estimate, never less than the real count
+     */
+    long count(String member) {
+        return estimate(hash(member), buckets.epoch());
+    }
+
+    /**
+     * The allocated counter memory.
+     *
+     * @return the memory in bytes
+     */
+    long memoryBytes() {
+        return counters.length() * 4L + buckets.memoryBytes();
+    }
+
+    private void clear(int bucket) {
+        int offset = bucket * depth * width;
+        for (int i = offset; i < offset + depth * width; i++) {
+            counters.lazySet(i, 0);
+        }
+    }
+
+    private long estimate(long hash, long epoch) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = column(hash, row);
+            long sum = 0;
+            for (int bucket = 0; bucket < buckets.size(); bucket++) {
+                if (!buckets.isLive(bucket, epoch)) {
+                    continue;
+                }
+                sum += counters.get(bucket * depth * width + row * width + column);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    private int column(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & widthMask;
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars, finalized with the MurmurHash3 mixer.
+     */
+    static long hash(String member) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < member.length(); i++) {
+            h ^= member.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,220 @@
+package group.rxcloud.vrml.compute;
+
+import group.rxcloud.vrml.compute.config.ComputeConfiguration;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Rolling+Distinct computes.
+ * <p>
+ * Counts the distinct members (e.g. user ids per ip) of a compute key in a sliding window and runs
+ * right when the estimate exceeds the trigger count. Each key owns a fixed-size HyperLogLog per time
+ * bucket, so memory does not grow with the number of members.
+ */
+public final class RollingDistinctComputes extends Computes<group.rxcloud.vrml.compute.RollingDistinctComputes.RollingDistinctComputeConfiguration> {
+
+    private static final int DEFAULT_WINDOW_BUCKETS = 6;
+    private static final int DEFAULT_PRECISION = 10;
+    private static final long MAX_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Map<String, DistinctTrigger> SKETCHES = new ConcurrentHashMap<>();
+
+    /**
+     * Singleton.
+     */
+    RollingDistinctComputes() {
+    }
+
+    /**
+     * Check the distinct count without adding.
+     *
+     * @param key the key
+     * @param f   the f
+     */
+    @Override
+    public void compute(String key, Runnable f) {
+        check(getSketch(key), null, f);
+    }
+
+    /**
+     * Check the distinct count without adding.
+     *
+     * @param key   the key
+     * @param left  the left when compute failure
+     * @param right the right when compute success
+     */
+    @Override
+    public void compute(String key, Runnable left, Runnable right) {
+        check(getSketch(key), left, right);
+    }
+
+    /**
+     * Compute.
+     *
+     * @param key    the key
+     * @param member the member added under the key
+     * @param f      the f
+     */
+    public void compute(String key, String member, Runnable f) {
+        this.compute(key, member, null, f);
+    }
+
+    /**
+     * Compute.
+     *
+     * @param key    the key
+     * @param member the member added under the key
+     * @param left   the left when compute failure
+     * @param right  the right when compute success
+     */
+    public void compute(String key, String member, Runnable left, Runnable right) {
+        Objects.requireNonNull(member, "member");
+        DistinctTrigger trigger = getSketch(key);
+        trigger.sketch.add(member);
+        check(trigger, left, right);
+    }
+
+    /**
+     * Estimate the distinct members of the key in the window.
+     *
+     * @param key the key
+     * @return the estimated count
+     */
+    public long count(String key) {
+        DistinctTrigger trigger = SKETCHES.get(key);
+        return trigger == null ? 0L : trigger.sketch.count();
+    }
+
+    private static void check(DistinctTrigger trigger, Runnable left, Runnable right) {
+        if (trigger.sketch.cachedCount() <= trigger.triggerCount) {
+            if (left != null) {
+                left.run();
+            }
+        } else {
+            if (right != null) {
+                right.run();
+            }
+        }
+    }
+
+    private DistinctTrigger getSketch(String key) {
+        DistinctTrigger trigger = SKETCHES.get(key);
+        if (trigger == null) {
+            RollingDistinctComputeConfig computeConfiguration = getConfiguration()
+                    .getComputeConfiguration(key);
+            Objects.requireNonNull(computeConfiguration, "computeConfiguration");
+            trigger = SKETCHES.computeIfAbsent(key, key1 -> newSketch(computeConfiguration));
+        }
+        return trigger;
+    }
+
+    private static DistinctTrigger newSketch(RollingDistinctComputeConfig config) {
+        Objects.requireNonNull(config.getExpirationTime(), "expirationTime");
+        Objects.requireNonNull(config.getTriggerCount(), "triggerCount");
+        long windowNanos = TimeUnit.SECONDS.toNanos(config.getExpirationTime());
+        int windowBuckets = config.getWindowBuckets() != null ? config.getWindowBuckets() : DEFAULT_WINDOW_BUCKETS;
+        return new DistinctTrigger(
+                new RollingHyperLogLog(
+                        windowNanos,
+                        windowBuckets,
+                        config.getPrecision() != null ? config.getPrecision() : DEFAULT_PRECISION,
+                        Math.min(MAX_REFRESH_NANOS, windowNanos / windowBuckets),
+                        System::nanoTime),
+                config.getTriggerCount());
+    }
+
+    private static final class DistinctTrigger {
+
+        private final RollingHyperLogLog sketch;
+        private final long triggerCount;
+
+        private DistinctTrigger(RollingHyperLogLog sketch, long triggerCount) {
+            this.sketch = sketch;
+            this.triggerCount = triggerCount;
+        }
+    }
+
+    /**
+     * The Rolling+Distinct compute configuration.
+     * <p>
+     * Please impl this interface by your own class.
+     */
+    public interface RollingDistinctComputeConfiguration extends ComputeConfiguration<RollingDistinctComputeConfig> {
+
+        @Override
+        RollingDistinctComputeConfig getComputeConfiguration(String key);
+    }
+
+    /**
+     * The Rolling+Distinct compute config.
+     * <p>
+     * The memory of a key is {@code windowBuckets * 2^precision * 4} bytes, about 24KB by default.
+     */
+    public static class RollingDistinctComputeConfig implements ComputeConfiguration.ComputeConfig {
+
+        /**
+         * Unique key
+         */
+        private String key;
+        /**
+         * Sliding window seconds
+         */
+        private Long expirationTime;
+        /**
+         * Number of time buckets of the window, default 6
+         */
+        private Integer windowBuckets;
+        /**
+         * HyperLogLog register bits in [4, 16], default 10 for about 3% error
+         */
+        private Integer precision;
+        /**
+         * Distinct trigger count
+         */
+        private Long triggerCount;
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public Long getExpirationTime() {
+            return expirationTime;
+        }
+
+        public void setExpirationTime(Long expirationTime) {
+            this.expirationTime = expirationTime;
+        }
+
+        public Integer getWindowBuckets() {
+            return windowBuckets;
+        }
+
+        public void setWindowBuckets(Integer windowBuckets) {
+            this.windowBuckets = windowBuckets;
+        }
+
+        public Integer getPrecision() {
+            return precision;
+        }
+
+        public void setPrecision(Integer precision) {
+            this.precision = precision;
+        }
+
+        public Long getTriggerCount() {
+            return triggerCount;
+        }
+
+        public void setTriggerCount(Long triggerCount) {
+            this.triggerCount = triggerCount;
+        }
+    }
+}
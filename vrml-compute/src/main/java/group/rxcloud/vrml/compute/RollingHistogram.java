@@ -0,0 +1,117 @@
+package group.rxcloud.vrml.compute;
+
+import group.rxcloud.vrml.core.stats.LogLinearBuckets;
+import group.rxcloud.vrml.core.stats.TimeBuckets;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling window quantile of non-negative values, e.g. latencies.
+ * <p>
+ * Each time bucket is a {@link LogLinearBuckets} histogram, so the relative error is below 6.25%.
+ * Recording is one counter increment. Reading merges the live buckets, {@link #cachedQuantile()} does
+ * that at most once per refresh interval for the request path.
+ */
+final class RollingHistogram {
+
+    private static final int BUCKET_COUNT = LogLinearBuckets.BUCKET_COUNT;
+
+    private final TimeBuckets buckets;
+    private final AtomicLongArray counts;
+    private final double quantile;
+    private final long refreshNanos;
+    private final IntConsumer clearBucket = this::clear;
+
+    private final AtomicLong nextRefresh;
+    private volatile long cached;
+
+    /**
+     * @param windowNanos  the window length
+     * @param bucketCount  the number of time buckets
+     * @param quantile     the quantile in {@code [0, 1]}
+     * @param refreshNanos the max age of {@link #cachedQuantile()}
+     * @param nanoClock    the monotonic clock
+     */
+    RollingHistogram(long windowNanos, int bucketCount, double quantile, long refreshNanos, LongSupplier nanoClock) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]!");
+        }
+        this.buckets = new TimeBuckets(windowNanos, bucketCount, nanoClock);
+        this.counts = new AtomicLongArray(Math.multiplyExact(bucketCount, BUCKET_COUNT));
+        this.quantile = quantile;
+        this.refreshNanos = refreshNanos;
+        this.nextRefresh = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Record a value, negative values are recorded as zero.
+     *
+     * @param value the value
+     */
+    void record(long value) {
+        int bucket = buckets.acquire(buckets.epoch(), clearBucket);
+        counts.incrementAndGet(bucket * BUCKET_COUNT + LogLinearBuckets.indexOf(value));
+    }
+
+    /**
+     * The quantile of the window, at most {@code refreshNanos} old.
+     *
+     * @return the upper bound of the quantile bucket
+     */
+    long cachedQuantile() {
+        long now = buckets.nanoTime();
+        long next = nextRefresh.get();
+        if (now - next >= 0 && nextRefresh.compareAndSet(next, now + refreshNanos)) {
+            cached = quantile();
+        }
+        return cached;
+    }
+
+    /**
+     * The quantile of the window.
+     *
+     * @return the upper bound of the quantile bucket, {@code 0} if empty
+     */
+    long quantile() {
+        long epoch = buckets.epoch();
+        long total = 0;
+        for (int bucket = 0; bucket < buckets.size(); bucket++) {
+            if (buckets.isLive(bucket, epoch)) {
+                int offset = bucket * BUCKET_COUNT;
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    total += counts.get(offset + i);
+                }
+            }
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            for (int bucket = 0; bucket < buckets.size(); bucket++) {
+                if (buckets.isLive(bucket, epoch)) {
+                    seen += counts.get(bucket * BUCKET_COUNT + i);
+                }
+            }
+            if (seen >= rank) {
+                return LogLinearBuckets.upperBoundOf(i);
+            }
+        }
+        return LogLinearBuckets.upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    long memoryBytes() {
+        return counts.length() * 8L + buckets.memoryBytes();
+    }
+
+    private void clear(int bucket) {
+        int offset = bucket * BUCKET_COUNT;
+        for (int i = offset; i < offset + BUCKET_COUNT; i++) {
+            counts.lazySet(i, 0L);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package group.rxcloud.vrml.compute;
+
+import group.rxcloud.vrml.compute.config.ComputeConfiguration;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Rolling+Percentile computes.
+ * <p>
+ * Records values (e.g. latency millis) of a compute key in a sliding window and runs right when the
+ * configured quantile exceeds the trigger value. Each key owns a fixed-size log-linear histogram per
+ * time bucket, the quantile is re-read at most once per bucket and second.
+ */
+public final class RollingPercentileComputes extends Computes<group.rxcloud.vrml.compute.RollingPercentileComputes.RollingPercentileComputeConfiguration> {
+
+    private static final int DEFAULT_WINDOW_BUCKETS = 6;
+    private static final double DEFAULT_QUANTILE = 0.99;
+    private static final long MAX_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Map<String, PercentileTrigger> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    /**
+     * Singleton.
+     */
+    RollingPercentileComputes() {
+    }
+
+    /**
+     * Check the quantile without recording.
+     *
+     * @param key the key
+     * @param f   the f
+     */
+    @Override
+    public void compute(String key, Runnable f) {
+        this.compute(key, null, f);
+    }
+
+    /**
+     * Check the quantile without recording.
+     *
+     * @param key   the key
+     * @param left  the left when compute failure
+     * @param right the right when compute success
+     */
+    @Override
+    public void compute(String key, Runnable left, Runnable right) {
+        PercentileTrigger trigger = getHistogram(key);
+        check(trigger, left, right);
+    }
+
+    /**
+     * Compute.
+     *
+     * @param key   the key
+     * @param value the recorded value
+     * @param f     the f
+     */
+    public void compute(String key, long value, Runnable f) {
+        this.compute(key, value, null, f);
+    }
+
+    /**
+     * Compute.
+     *
+     * @param key   the key
+     * @param value the recorded value
+     * @param left  the left when compute failure
+     * @param right the right when compute success
+     */
+    public void compute(String key, long value, Runnable left, Runnable right) {
+        PercentileTrigger trigger = getHistogram(key);
+        trigger.histogram.record(value);
+        check(trigger, left, right);
+    }
+
+    /**
+     * Record a value without checking.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void record(String key, long value) {
+        getHistogram(key).histogram.record(value);
+    }
+
+    /**
+     * Get the configured quantile of the key in the window.
+     *
+     * @param key the key
+     * @return the quantile, within 6.25% above the real value
+     */
+    public long quantile(String key) {
+        PercentileTrigger trigger = HISTOGRAMS.get(key);
+        return trigger == null ? 0L : trigger.histogram.quantile();
+    }
+
+    private static void check(PercentileTrigger trigger, Runnable left, Runnable right) {
+        if (trigger.histogram.cachedQuantile() <= trigger.triggerValue) {
+            if (left != null) {
+                left.run();
+            }
+        } else {
+            if (right != null) {
+                right.run();
+            }
+        }
+    }
+
+    private PercentileTrigger getHistogram(String key) {
+        PercentileTrigger trigger = HISTOGRAMS.get(key);
+        if (trigger == null) {
+            RollingPercentileComputeConfig computeConfiguration = getConfiguration()
+                    .getComputeConfiguration(key);
+            Objects.requireNonNull(computeConfiguration, "computeConfiguration");
+            trigger = HISTOGRAMS.computeIfAbsent(key, key1 -> newHistogram(computeConfiguration));
+        }
+        return trigger;
+    }
+
+    private static PercentileTrigger newHistogram(RollingPercentileComputeConfig config) {
+        Objects.requireNonNull(config.getExpirationTime(), "expirationTime");
+        Objects.requireNonNull(config.getTriggerValue(), "triggerValue");
+        long windowNanos = TimeUnit.SECONDS.toNanos(config.getExpirationTime());
+        int windowBuckets = config.getWindowBuckets() != null ? config.getWindowBuckets() : DEFAULT_WINDOW_BUCKETS;
+        return new PercentileTrigger(
+                new RollingHistogram(
+                        windowNanos,
+                        windowBuckets,
+                        config.getQuantile() != null ? config.getQuantile() : DEFAULT_QUANTILE,
+                        Math.min(MAX_REFRESH_NANOS, windowNanos / windowBuckets),
+                        System::nanoTime),
+                config.getTriggerValue());
+    }
+
+    private static final class PercentileTrigger {
+
+        private final RollingHistogram histogram;
+        private final long triggerValue;
+
+        private PercentileTrigger(RollingHistogram histogram, long triggerValue) {
+            this.histogram = histogram;
+            this.triggerValue = triggerValue;
+        }
+    }
+
+    /**
+     * The Rolling+Percentile compute configuration.
+     * <p>
+     * Please impl this interface by your own class.
+     */
+    public interface RollingPercentileComputeConfiguration extends ComputeConfiguration<RollingPercentileComputeConfig> {
+
+        @Override
+        RollingPercentileComputeConfig getComputeConfiguration(String key);
+    }
+
+    /**
+     * The Rolling+Percentile compute config.
+     * <p>
+     * The memory of a key is {@code windowBuckets * 7680} bytes, about 45KB by default.
+     */
+    public static class RollingPercentileComputeConfig implements ComputeConfiguration.ComputeConfig {
+
+        /**
+         * Unique key
+         */
+        private String key;
+        /**
+         * Sliding window seconds
+         */
+        private Long expirationTime;
+        /**
+         * Number of time buckets of the window, default 6
+         */
+        private Integer windowBuckets;
+        /**
+         * Quantile in [0, 1], default 0.99
+         */
+        private Double quantile;
+        /**
+         * Trigger value of the quantile
+         */
+        private Long triggerValue;
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public Long getExpirationTime() {
+            return expirationTime;
+        }
+
+        public void setExpirationTime(Long expirationTime) {
+            this.expirationTime = expirationTime;
+        }
+
+        public Integer getWindowBuckets() {
+            return windowBuckets;
+        }
+
+        public void setWindowBuckets(Integer windowBuckets) {
+            this.windowBuckets = windowBuckets;
+        }
+
+        public Double getQuantile() {
+            return quantile;
+        }
+
+        public void setQuantile(Double quantile) {
+            this.quantile = quantile;
+        }
+
+        public Long getTriggerValue() {
+            return triggerValue;
+        }
+
+        public void setTriggerValue(Long triggerValue) {
+            this.triggerValue = triggerValue;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package group.rxcloud.vrml.compute;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts the events of the last {@code window}, every event beyond {@code triggerCount} triggers.
+ * <p>
+ * The window is a ring of time buckets, each packing its epoch and count in one {@code long}.
+ * The first event of a new epoch resets the stale bucket with CAS, so no count is lost.
+ * The event increments its own bucket before summing the others, so concurrent events see
+ * distinct totals and the trigger threshold is crossed exactly once.
+ * The window covers between {@code window - window / buckets} and {@code window}.
+ */
+final class SlidingWindowCounter implements WindowCounter {
+
+    private static final long MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLongArray buckets;
+    private final long bucketNanos;
+    private final long triggerCount;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param windowNanos  the window length
+     * @param bucketCount  the number of buckets
+     * @param triggerCount the count beyond which events trigger
+     * @param nanoClock    the monotonic clock
+     */
+    SlidingWindowCounter(long windowNanos, int bucketCount, long triggerCount, LongSupplier nanoClock) {
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("Sliding window buckets must be positive!");
+        }
+        this.buckets = new AtomicLongArray(bucketCount);
+        this.bucketNanos = Math.max(1L, windowNanos / bucketCount);
+        this.triggerCount = Math.max(1L, triggerCount);
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public boolean incrementAndCheck() {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        int index = (int) Math.floorMod(epoch, (long) buckets.length());
+        long tag = epoch & MASK;
+        long own;
+        for (; ; ) {
+            long bucket = buckets.get(index);
+            long next = (bucket >>> 32) == tag ? bucket + 1 : (tag << 32) | 1L;
+            if (buckets.compareAndSet(index, bucket, next)) {
+                own = next & MASK;
+                break;
+            }
+        }
+        return own + sum(tag, index) > triggerCount;
+    }
+
+    @Override
+    public long count() {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        long tag = epoch & MASK;
+        int index = (int) Math.floorMod(epoch, (long) buckets.length());
+        long bucket = buckets.get(index);
+        long own = (bucket >>> 32) == tag ? bucket & MASK : 0L;
+        return own + sum(tag, index);
+    }
+
+    /**
+     * Sum the buckets of the previous epochs still in the window.
+     */
+    private long sum(long tag, int skipIndex) {
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            if (i == skipIndex) {
+                continue;
+            }
+            long bucket = buckets.get(i);
+            long age = (tag - (bucket >>> 32)) & MASK;
+            if (age > 0 && age < buckets.length()) {
+                total += bucket & MASK;
+            }
+        }
+        return total;
+    }
+}
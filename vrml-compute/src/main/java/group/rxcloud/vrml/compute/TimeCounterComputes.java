@@ -1,10 +1,6 @@
 package group.rxcloud.vrml.compute;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import group.rxcloud.vrml.compute.config.ComputeConfiguration;
-import group.rxcloud.vrml.core.tags.Fixme;
-import io.vavr.control.Either;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +16,9 @@ public final class TimeCounterComputes extends Computes<group.rxcloud.vrml.compu
 
     private static final Logger log = LoggerFactory.getLogger(TimeCounterComputes.class);
 
-    private static final Map<String, TimeCounterCache> TIME_COUNTER_CACHE_CONCURRENT_HASH_MAP = new ConcurrentHashMap<>();
+    private static final int DEFAULT_WINDOW_BUCKETS = 10;
+
+    private static final Map<String, WindowCounter> WINDOW_COUNTERS = new ConcurrentHashMap<>();
 
     /**
      * Singleton.
@@ -35,13 +33,15 @@ public final class TimeCounterComputes extends Computes<group.rxcloud.vrml.compu
 
     @Override
     public void compute(String key, Runnable left, Runnable right) {
-        TimeCounterComputeConfig computeConfiguration = getConfiguration()
-                .getComputeConfiguration(key);
-        Objects.requireNonNull(computeConfiguration, "computeConfiguration");
-        Either<Integer, Integer> checkCount = TIME_COUNTER_CACHE_CONCURRENT_HASH_MAP
-                .computeIfAbsent(key, key1 -> new TimeCounterCache(key1, computeConfiguration))
-                .putAndCheckCount();
-        if (checkCount.isLeft()) {
+        WindowCounter counter = WINDOW_COUNTERS.get(key);
+        if (counter == null) {
+            // the configuration is only read for the first event of the key
+            TimeCounterComputeConfig computeConfiguration = getConfiguration()
+                    .getComputeConfiguration(key);
+            Objects.requireNonNull(computeConfiguration, "computeConfiguration");
+            counter = WINDOW_COUNTERS.computeIfAbsent(key, key1 -> newWindowCounter(computeConfiguration));
+        }
+        if (!counter.incrementAndCheck()) {
             if (left != null) {
                 left.run();
             }
@@ -52,6 +52,24 @@ public final class TimeCounterComputes extends Computes<group.rxcloud.vrml.compu
         }
     }
 
+    /**
+     * The Time+Counter window type.
+     */
+    public enum WindowType {
+
+        /**
+         * The window starts with the first event and restarts when triggered or after no event for
+         * {@code expirationTime} seconds. The event after {@code triggerCount} events triggers.
+         */
+        TUMBLING,
+
+        /**
+         * The window holds the events of the last {@code expirationTime} seconds.
+         * Every event beyond {@code triggerCount} events in the window triggers.
+         */
+        SLIDING
+    }
+
     /**
      * The Time+Counter compute configuration.
      * <p>
@@ -80,6 +98,14 @@ public final class TimeCounterComputes extends Computes<group.rxcloud.vrml.compu
          * Counter trigger count
          */
         private Long triggerCount;
+        /**
+         * Window type, default {@link WindowType#TUMBLING}
+         */
+        private WindowType windowType;
+        /**
+         * Number of time buckets of the {@link WindowType#SLIDING} window, default 10
+         */
+        private Integer windowBuckets;
 
         @Override
         public String getKey() {
@@ -105,64 +131,32 @@ public final class TimeCounterComputes extends Computes<group.rxcloud.vrml.compu
         public void setTriggerCount(Long triggerCount) {
             this.triggerCount = triggerCount;
         }
-    }
-
-    private static final class TimeCounterCache {
-
-        private final Object lock = new Object();
 
-        private final String key;
-        private final TimeCounterComputeConfig timeCounterComputeConfig;
+        public WindowType getWindowType() {
+            return windowType;
+        }
 
-        private Cache<String, Integer> cache;
+        public void setWindowType(WindowType windowType) {
+            this.windowType = windowType;
+        }
 
-        /**
-         * Instantiates a new Time counter cache.
-         *
-         * @param key                      the key
-         * @param timeCounterComputeConfig the time counter compute config
-         */
-        TimeCounterCache(String key, TimeCounterComputeConfig timeCounterComputeConfig) {
-            this.key = key;
-            this.timeCounterComputeConfig = timeCounterComputeConfig;
-            this.initCache();
+        public Integer getWindowBuckets() {
+            return windowBuckets;
         }
 
-        /**
-         * Use {@link Caffeine} cache to value
-         */
-        private void initCache() {
-            cache = Caffeine.newBuilder()
-                    .expireAfterWrite(timeCounterComputeConfig.getExpirationTime(), TimeUnit.SECONDS)
-                    .build();
+        public void setWindowBuckets(Integer windowBuckets) {
+            this.windowBuckets = windowBuckets;
         }
+    }
 
-        /**
-         * Put the value to statistic pool
-         *
-         * @return the either
-         */
-        @Fixme(fixme = "optimize synchronized key")
-        Either<Integer, Integer> putAndCheckCount() {
-            synchronized (lock) {
-                Integer count = cache.getIfPresent(key);
-                if (count == null) {
-                    // init
-                    cache.put(key, 1);
-                    return Either.left(1);
-                } else {
-                    if (count >= timeCounterComputeConfig.getTriggerCount()) {
-                        // clear
-                        cache.put(key, 1);
-                        return Either.right(count);
-                    } else {
-                        // addition
-                        Integer newV = ++count;
-                        cache.put(key, newV);
-                        return Either.left(newV);
-                    }
-                }
-            }
+    private static WindowCounter newWindowCounter(TimeCounterComputeConfig config) {
+        Objects.requireNonNull(config.getExpirationTime(), "expirationTime");
+        Objects.requireNonNull(config.getTriggerCount(), "triggerCount");
+        long windowNanos = TimeUnit.SECONDS.toNanos(config.getExpirationTime());
+        if (config.getWindowType() == WindowType.SLIDING) {
+            int buckets = config.getWindowBuckets() != null ? config.getWindowBuckets() : DEFAULT_WINDOW_BUCKETS;
+            return new SlidingWindowCounter(windowNanos, buckets, config.getTriggerCount(), System::nanoTime);
         }
+        return new TumblingWindowCounter(windowNanos, config.getTriggerCount(), System::nanoTime);
     }
 }
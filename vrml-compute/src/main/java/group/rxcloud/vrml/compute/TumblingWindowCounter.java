@@ -0,0 +1,59 @@
+package group.rxcloud.vrml.compute;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The window starts with the first event, restarts when triggered, and expires
+ * {@code expiration} after the last event.
+ * <p>
+ * The last event tick and the count are packed in one {@link AtomicLong}, so the expiry check, the
+ * trigger and the rollover are a single CAS and exactly one event triggers per window.
+ * A tick is {@code 2^24} nanoseconds (about 16.8ms) and 32 bits of ticks cover about two years.
+ */
+final class TumblingWindowCounter implements WindowCounter {
+
+    static final int TICK_SHIFT = 24;
+
+    private static final long MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLong state = new AtomicLong();
+    private final long expirationTicks;
+    private final long triggerCount;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param expirationNanos the idle time after which the window expires
+     * @param triggerCount    the count at which the next event triggers, capped at {@code 2^32 - 1}
+     * @param nanoClock       the monotonic clock
+     */
+    TumblingWindowCounter(long expirationNanos, long triggerCount, LongSupplier nanoClock) {
+        this.expirationTicks = Math.max(1L, (expirationNanos + (1L << TICK_SHIFT) - 1) >> TICK_SHIFT);
+        this.triggerCount = Math.min(Math.max(1L, triggerCount), MASK);
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public boolean incrementAndCheck() {
+        final long nowTick = (nanoClock.getAsLong() >> TICK_SHIFT) & MASK;
+        for (; ; ) {
+            long current = state.get();
+            long count = current & MASK;
+            long lastTick = current >>> 32;
+            boolean expired = count == 0 || ((nowTick - lastTick) & MASK) >= expirationTicks;
+            boolean triggered = !expired && count >= triggerCount;
+            long nextCount = expired || triggered ? 1L : count + 1;
+            if (state.compareAndSet(current, (nowTick << 32) | nextCount)) {
+                return triggered;
+            }
+        }
+    }
+
+    @Override
+    public long count() {
+        long current = state.get();
+        long count = current & MASK;
+        long nowTick = (nanoClock.getAsLong() >> TICK_SHIFT) & MASK;
+        return count == 0 || ((nowTick - (current >>> 32)) & MASK) >= expirationTicks ? 0 : count;
+    }
+}
@@ -0,0 +1,21 @@
+package group.rxcloud.vrml.compute;
+
+/**
+ * The lock-free event counter of one compute key, shared by all counting threads.
+ */
+interface WindowCounter {
+
+    /**
+     * Count one event.
+     *
+     * @return {@code true} if the event triggers
+     */
+    boolean incrementAndCheck();
+
+    /**
+     * The number of events in the current window.
+     *
+     * @return the count
+     */
+    long count();
+}
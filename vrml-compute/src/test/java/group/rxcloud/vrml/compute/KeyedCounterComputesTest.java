@@ -0,0 +1,52 @@
+package group.rxcloud.vrml.compute;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class KeyedCounterComputesTest {
+
+    @Test
+    public void compute_PerMember() {
+        Computes.KC.configuration = key -> {
+            KeyedCounterComputes.KeyedCounterComputeConfig keyedCounterComputeConfig = new KeyedCounterComputes.KeyedCounterComputeConfig();
+            keyedCounterComputeConfig.setKey("login");
+            keyedCounterComputeConfig.setExpirationTime(60L);
+            keyedCounterComputeConfig.setTriggerCount(2L);
+            keyedCounterComputeConfig.setWidth(256);
+            return keyedCounterComputeConfig;
+        };
+        AtomicInteger left = new AtomicInteger();
+        AtomicInteger right = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            Computes.KC.compute("login", "10.0.0.1", left::getAndIncrement, right::getAndIncrement);
+        }
+        Computes.KC.compute("login", "10.0.0.2", left::getAndIncrement, right::getAndIncrement);
+        assertEquals(3, left.get());
+        assertEquals(3, right.get());
+        assertEquals(5, Computes.KC.count("login", "10.0.0.1"));
+    }
+
+    @Test
+    public void compute_KeyItself() {
+        Computes.KC.configuration = key -> {
+            KeyedCounterComputes.KeyedCounterComputeConfig keyedCounterComputeConfig = new KeyedCounterComputes.KeyedCounterComputeConfig();
+            keyedCounterComputeConfig.setKey("signup");
+            keyedCounterComputeConfig.setExpirationTime(60L);
+            keyedCounterComputeConfig.setTriggerCount(2L);
+            return keyedCounterComputeConfig;
+        };
+        AtomicInteger left = new AtomicInteger();
+        AtomicInteger right = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            Computes.KC.compute("signup", left::getAndIncrement, right::getAndIncrement);
+        }
+        Computes.KC.compute("signup", right::getAndIncrement);
+        assertEquals(2, left.get());
+        assertEquals(3, right.get());
+        assertEquals(5, Computes.KC.count("signup"));
+        assertEquals(0, Computes.KC.count("signup", "signup"));
+    }
+}
@@ -0,0 +1,73 @@
+package group.rxcloud.vrml.compute;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class KeyedWindowCounterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testMembersAreCountedSeparately() {
+        // Given
+        KeyedWindowCounter counter = new KeyedWindowCounter(TimeUnit.SECONDS.toNanos(60), 6, 4, 1024, 3, clock::get);
+
+        // When
+        boolean[] results = new boolean[5];
+        for (int i = 0; i < 5; i++) {
+            results[i] = counter.incrementAndCheck("user-1");
+        }
+        boolean other = counter.incrementAndCheck("user-2");
+
+        // Then
+        assertArrayEquals(new boolean[]{false, false, false, true, true}, results);
+        assertFalse(other);
+        assertEquals(5, counter.count("user-1"));
+        assertEquals(1, counter.count("user-2"));
+        assertEquals(0, counter.count("user-3"));
+    }
+
+    @Test
+    public void testEventsLeaveTheWindow() {
+        // Given
+        KeyedWindowCounter counter = new KeyedWindowCounter(TimeUnit.SECONDS.toNanos(60), 6, 4, 1024, 100, clock::get);
+        counter.incrementAndCheck("ip-1");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        counter.incrementAndCheck("ip-1");
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+
+        // Then
+        assertEquals(1, counter.count("ip-1"));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(0, counter.count("ip-1"));
+        counter.incrementAndCheck("ip-1");
+        assertEquals(1, counter.count("ip-1"));
+    }
+
+    @Test
+    public void testMemoryIsBoundedForManyMembers() {
+        // Given
+        KeyedWindowCounter counter = new KeyedWindowCounter(TimeUnit.SECONDS.toNanos(60), 6, 4, 4096, 1000, clock::get);
+        long memory = counter.memoryBytes();
+
+        // When
+        for (int i = 0; i < 200_000; i++) {
+            counter.incrementAndCheck("user-" + i);
+        }
+        for (int i = 0; i < 500; i++) {
+            counter.incrementAndCheck("abuser");
+        }
+
+        // Then: the estimate never undercounts and overcounts by about e / width of the window events
+        assertEquals(memory, counter.memoryBytes());
+        long estimate = counter.count("abuser");
+        assertTrue(estimate >= 500);
+        assertTrue(estimate < 500 + 200_000 * 3 / 4096);
+    }
+}
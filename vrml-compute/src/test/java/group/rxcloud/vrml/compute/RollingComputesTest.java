@@ -0,0 +1,69 @@
+package group.rxcloud.vrml.compute;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RollingComputesTest {
+
+    @Test
+    public void compute_EwmaRate() {
+        Computes.ER.configuration = key -> {
+            EwmaRateComputes.EwmaRateComputeConfig ewmaRateComputeConfig = new EwmaRateComputes.EwmaRateComputeConfig();
+            ewmaRateComputeConfig.setKey("order");
+            ewmaRateComputeConfig.setExpirationTime(60L);
+            ewmaRateComputeConfig.setTriggerRate(100.0);
+            return ewmaRateComputeConfig;
+        };
+        AtomicInteger left = new AtomicInteger();
+        AtomicInteger right = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            Computes.ER.compute("order", left::getAndIncrement, right::getAndIncrement);
+        }
+        assertEquals(5, left.get());
+        assertEquals(0, right.get());
+    }
+
+    @Test
+    public void compute_RollingPercentile() {
+        Computes.RP.configuration = key -> {
+            RollingPercentileComputes.RollingPercentileComputeConfig rollingPercentileComputeConfig = new RollingPercentileComputes.RollingPercentileComputeConfig();
+            rollingPercentileComputeConfig.setKey("latency");
+            rollingPercentileComputeConfig.setExpirationTime(60L);
+            rollingPercentileComputeConfig.setQuantile(0.5);
+            rollingPercentileComputeConfig.setTriggerValue(500L);
+            return rollingPercentileComputeConfig;
+        };
+        AtomicInteger left = new AtomicInteger();
+        AtomicInteger right = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            Computes.RP.record("latency", 1000L);
+        }
+        Computes.RP.compute("latency", 1000L, left::getAndIncrement, right::getAndIncrement);
+        assertEquals(0, left.get());
+        assertEquals(1, right.get());
+        assertTrue(Computes.RP.quantile("latency") >= 1000L);
+    }
+
+    @Test
+    public void compute_RollingDistinct() {
+        Computes.RD.configuration = key -> {
+            RollingDistinctComputes.RollingDistinctComputeConfig rollingDistinctComputeConfig = new RollingDistinctComputes.RollingDistinctComputeConfig();
+            rollingDistinctComputeConfig.setKey("ip");
+            rollingDistinctComputeConfig.setExpirationTime(60L);
+            rollingDistinctComputeConfig.setTriggerCount(50L);
+            return rollingDistinctComputeConfig;
+        };
+        AtomicInteger left = new AtomicInteger();
+        AtomicInteger right = new AtomicInteger();
+        Computes.RD.compute("ip", "user-0", left::getAndIncrement, right::getAndIncrement);
+        for (int i = 1; i < 100; i++) {
+            Computes.RD.compute("ip", "user-" + i, null, null);
+        }
+        assertEquals(1, left.get());
+        assertEquals(0, right.get());
+        assertTrue(Math.abs(Computes.RD.count("ip") - 100) < 10);
+    }
+}
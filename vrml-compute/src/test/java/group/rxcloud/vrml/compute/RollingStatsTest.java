@@ -0,0 +1,92 @@
+package group.rxcloud.vrml.compute;
+
+import group.rxcloud.vrml.core.stats.LogLinearBuckets;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class RollingStatsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testEwmaRateFoldsTicksAndDecays() {
+        // Given
+        EwmaRate rate = new EwmaRate(TimeUnit.SECONDS.toNanos(60), clock::get);
+
+        // When
+        rate.update(10);
+        clock.addAndGet(SECOND);
+        double first = rate.rate();
+        for (int i = 0; i < 5; i++) {
+            rate.update(10);
+            clock.addAndGet(SECOND);
+        }
+        double steady = rate.rate();
+        clock.addAndGet(60 * SECOND);
+        double idle = rate.rate();
+
+        // Then
+        assertEquals(10.0, first, 0.001);
+        assertEquals(10.0, steady, 0.001);
+        assertEquals(10.0 * Math.exp(-1), idle, 0.2);
+    }
+
+    @Test
+    public void testHistogramQuantileWithinBucketError() {
+        // Given
+        RollingHistogram histogram = new RollingHistogram(TimeUnit.SECONDS.toNanos(60), 6, 0.99, SECOND, clock::get);
+
+        // When
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        // Then
+        long p99 = histogram.quantile();
+        assertTrue(p99 >= 990);
+        assertTrue(p99 <= 990 * 1.0625);
+        assertEquals(p99, histogram.cachedQuantile());
+        histogram.record(1_000_000);
+        assertEquals(p99, histogram.cachedQuantile());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(70));
+        assertEquals(0, histogram.quantile());
+    }
+
+    @Test
+    public void testHistogramBucketBounds() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            int index = LogLinearBuckets.indexOf(value);
+            assertTrue(index < LogLinearBuckets.BUCKET_COUNT);
+            assertTrue(LogLinearBuckets.upperBoundOf(index) >= value);
+            assertTrue(index == 0 || LogLinearBuckets.upperBoundOf(index - 1) < value);
+        }
+    }
+
+    @Test
+    public void testHyperLogLogEstimateAndExpiry() {
+        // Given
+        RollingHyperLogLog sketch = new RollingHyperLogLog(TimeUnit.SECONDS.toNanos(60), 6, 10, SECOND, clock::get);
+        long memory = sketch.memoryBytes();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("user-" + i);
+            sketch.add("user-" + i);
+        }
+
+        // Then: the standard error is about 3.25% for precision 10
+        long estimate = sketch.count();
+        assertTrue(Math.abs(estimate - 10_000) < 1_000);
+        assertEquals(memory, sketch.memoryBytes());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(70));
+        assertEquals(0, sketch.count());
+        sketch.add("user-1");
+        assertEquals(1, sketch.count());
+    }
+}
@@ -162,4 +162,27 @@ public class TimeCounterComputesTest {
         }
         assertEquals(10, j.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void compute_Sliding() {
+        Computes.TC.configuration = new TimeCounterComputes.TimeCounterComputeConfiguration() {
+            @Override
+            public TimeCounterComputes.TimeCounterComputeConfig getComputeConfiguration(String key) {
+                TimeCounterComputes.TimeCounterComputeConfig timeCounterComputeConfig = new TimeCounterComputes.TimeCounterComputeConfig();
+                timeCounterComputeConfig.setKey("test5");
+                timeCounterComputeConfig.setExpirationTime(10L);
+                timeCounterComputeConfig.setTriggerCount(3L);
+                timeCounterComputeConfig.setWindowType(TimeCounterComputes.WindowType.SLIDING);
+                return timeCounterComputeConfig;
+            }
+        };
+        // every event beyond the third triggers
+        AtomicInteger left = new AtomicInteger();
+        AtomicInteger right = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            Computes.TC.compute("test5", left::getAndIncrement, right::getAndIncrement);
+        }
+        assertEquals(3, left.get());
+        assertEquals(7, right.get());
+    }
+}
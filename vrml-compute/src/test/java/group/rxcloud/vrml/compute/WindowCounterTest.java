@@ -0,0 +1,107 @@
+package group.rxcloud.vrml.compute;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class WindowCounterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testTumblingTriggersExactlyOncePerWindowUnderContention() throws InterruptedException {
+        // Given
+        WindowCounter counter = new TumblingWindowCounter(TimeUnit.SECONDS.toNanos(10), 100, clock::get);
+        int threads = 8;
+        int perThread = 10_000;
+        AtomicLong triggered = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (counter.incrementAndCheck()) {
+                        triggered.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+
+        // Then: the window restarts with the triggering event, so every 100th event after the first triggers
+        long events = (long) threads * perThread;
+        assertEquals((events - 1) / 100, triggered.get());
+        assertEquals((events - 1) % 100 + 1, counter.count());
+    }
+
+    @Test
+    public void testTumblingExpiresAfterIdle() {
+        // Given
+        WindowCounter counter = new TumblingWindowCounter(TimeUnit.SECONDS.toNanos(1), 2, clock::get);
+        counter.incrementAndCheck();
+        counter.incrementAndCheck();
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1100));
+
+        // Then
+        assertEquals(0, counter.count());
+        assertFalse(counter.incrementAndCheck());
+        assertEquals(1, counter.count());
+    }
+
+    @Test
+    public void testSlidingCountsOnlyRecentBuckets() {
+        // Given
+        WindowCounter counter = new SlidingWindowCounter(TimeUnit.SECONDS.toNanos(10), 10, 3, clock::get);
+
+        // When
+        boolean[] results = new boolean[5];
+        for (int i = 0; i < 5; i++) {
+            results[i] = counter.incrementAndCheck();
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        }
+
+        // Then
+        assertArrayEquals(new boolean[]{false, false, false, true, true}, results);
+        assertEquals(5, counter.count());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(7));
+        assertEquals(2, counter.count());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(0, counter.count());
+        assertFalse(counter.incrementAndCheck());
+    }
+
+    @Test
+    public void testSlidingIsExactUnderContention() throws InterruptedException {
+        // Given
+        WindowCounter counter = new SlidingWindowCounter(TimeUnit.SECONDS.toNanos(10), 10, 1000, clock::get);
+        int threads = 8;
+        int perThread = 5_000;
+        AtomicLong triggered = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (counter.incrementAndCheck()) {
+                        triggered.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(threads * perThread, counter.count());
+        assertEquals(threads * perThread - 1000, triggered.get());
+    }
+}
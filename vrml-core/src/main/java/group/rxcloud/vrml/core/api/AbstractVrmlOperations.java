@@ -1,9 +1,7 @@
 package group.rxcloud.vrml.core.api;
 
-import group.rxcloud.vrml.core.integration.VrmlAlertIntegration;
 import group.rxcloud.vrml.core.integration.VrmlLogIntegration;
 import group.rxcloud.vrml.core.integration.VrmlMetricIntegration;
-import group.rxcloud.vrml.core.integration.VrmlTraceIntegration;
 import io.vavr.control.Try;
 
 import java.util.function.Consumer;
@@ -22,6 +20,11 @@ public abstract class AbstractVrmlOperations implements VrmlOperations {
     protected String traceKey;
     protected Consumer<Throwable> errorHandler;
     
+    /**
+     * 预编译的集成拦截链，未启用任何集成时为null
+     */
+    private volatile IntegrationChain integrationChain;
+    
     /**
      * 构造函数
      */
@@ -38,12 +41,14 @@ public abstract class AbstractVrmlOperations implements VrmlOperations {
         this.metricName = other.metricName;
         this.traceKey = other.traceKey;
         this.errorHandler = other.errorHandler;
+        this.integrationChain = other.integrationChain;
     }
     
     @Override
     public VrmlOperations withMetrics(String metricName) {
         AbstractVrmlOperations copy = createCopy();
         copy.metricName = metricName;
+        copy.compileIntegration();
         return copy;
     }
     
@@ -51,6 +56,7 @@ public abstract class AbstractVrmlOperations implements VrmlOperations {
     public VrmlOperations withTrace(String traceKey) {
         AbstractVrmlOperations copy = createCopy();
         copy.traceKey = traceKey;
+        copy.compileIntegration();
         return copy;
     }
     
@@ -58,6 +64,7 @@ public abstract class AbstractVrmlOperations implements VrmlOperations {
     public VrmlOperations onError(Consumer<Throwable> errorHandler) {
         AbstractVrmlOperations copy = createCopy();
         copy.errorHandler = errorHandler;
+        copy.compileIntegration();
         return copy;
     }
     
@@ -69,8 +76,30 @@ public abstract class AbstractVrmlOperations implements VrmlOperations {
      */
     protected abstract AbstractVrmlOperations createCopy();
     
+    /**
+     * 根据当前的指标、追踪和错误处理配置构建集成拦截链
+     * 子类在修改这些配置后调用，保证每个副本只构建一次
+     */
+    protected final void compileIntegration() {
+        if (metricName == null && traceKey == null && errorHandler == null) {
+            integrationChain = null;
+        } else {
+            integrationChain = new IntegrationChain(metricName, traceKey, errorHandler);
+        }
+    }
+    
+    /**
+     * 是否启用了任何集成功能
+     * 
+     * @return true表示启用了指标、追踪或错误处理
+     */
+    protected final boolean isIntegrationEnabled() {
+        return metricName != null || traceKey != null || errorHandler != null;
+    }
+    
     /**
      * 执行操作并集成监控、日志、告警、链路追踪
+     * 未配置指标、追踪和错误处理时直接执行操作，不产生任何额外开销
      * 
      * @param operationName 操作名称
      * @param operation 操作逻辑
@@ -78,64 +107,25 @@ public abstract class AbstractVrmlOperations implements VrmlOperations {
      * @return 操作结果
      */
     protected <T> Try<T> executeWithIntegration(String operationName, Supplier<Try<T>> operation) {
-        // 在追踪上下文中执行操作
-        return VrmlTraceIntegration.withTrace(traceKey != null ? traceKey + "." + operationName : operationName, () -> {
-            // 记录开始日志
-            if (traceKey != null) {
-                VrmlLogIntegration.debug(traceKey, "Starting operation: {}", operationName);
-            }
-            
-            // 设置追踪标签
-            if (traceKey != null) {
-                VrmlTraceIntegration.setTag("operation", operationName);
-                if (metricName != null) {
-                    VrmlTraceIntegration.setTag("metric", metricName);
-                }
-            }
-            
-            // 执行操作并记录指标
-            Try<T> result;
-            if (metricName != null) {
-                result = VrmlMetricIntegration.recordTime(metricName + "." + operationName, operation);
-            } else {
-                result = operation.get();
-            }
-            
-            // 处理结果
-            if (result.isSuccess()) {
-                // 记录成功日志
-                if (traceKey != null) {
-                    VrmlLogIntegration.debug(traceKey, "Operation completed successfully: {}", operationName);
-                    VrmlTraceIntegration.setTag("result", "success");
-                }
-            } else {
-                // 记录失败日志
-                Throwable throwable = result.getCause();
-                if (traceKey != null) {
-                    VrmlLogIntegration.error(traceKey, "Operation failed: " + operationName, throwable);
-                    VrmlTraceIntegration.setTag("result", "failure");
-                    VrmlTraceIntegration.setTag("error", throwable.getMessage());
-                }
-                
-                // 触发告警
-                if (metricName != null) {
-                    VrmlAlertIntegration.alert(metricName + ".error", 
-                        "Operation failed: " + operationName, throwable);
-                }
-                
-                // 调用错误处理器
-                if (errorHandler != null) {
-                    try {
-                        errorHandler.accept(throwable);
-                    } catch (Exception e) {
-                        VrmlLogIntegration.error("vrml.error.handler", 
-                            "Error handler failed for operation: " + operationName, e);
-                    }
-                }
-            }
-            
-            return result;
-        });
+        if (!isIntegrationEnabled()) {
+            return operation.get();
+        }
+        return integrationChain().execute(operationName, operation);
+    }
+    
+    /**
+     * 获取与当前配置一致的集成拦截链
+     * 
+     * @return 集成拦截链
+     */
+    private IntegrationChain integrationChain() {
+        IntegrationChain chain = integrationChain;
+        if (chain == null || !chain.matches(metricName, traceKey, errorHandler)) {
+            // 子类直接修改了配置字段而未调用compileIntegration
+            chain = new IntegrationChain(metricName, traceKey, errorHandler);
+            integrationChain = chain;
+        }
+        return chain;
     }
     
     /**
@@ -146,7 +136,7 @@ public abstract class AbstractVrmlOperations implements VrmlOperations {
      */
     protected void recordCount(String operationName, boolean success) {
         if (metricName != null) {
-            VrmlMetricIntegration.recordCount(metricName + "." + operationName, success);
+            VrmlMetricIntegration.recordCount(integrationChain().metricName(operationName), success);
         }
     }
     
@@ -0,0 +1,239 @@
+package group.rxcloud.vrml.core.api;
+
+import group.rxcloud.vrml.core.integration.VrmlAlertIntegration;
+import group.rxcloud.vrml.core.integration.VrmlLogIntegration;
+import group.rxcloud.vrml.core.integration.VrmlMetricIntegration;
+import group.rxcloud.vrml.core.integration.VrmlTraceIntegration;
+import io.vavr.control.Try;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 预编译的集成拦截链
+ * 每个withMetrics/withTrace/onError副本只构建一次，只包含实际启用的拦截器，
+ * 并缓存按操作名称拼接的追踪键、指标名和告警键，调用时不再拼接字符串
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+final class IntegrationChain {
+
+    private final String metricName;
+    private final String traceKey;
+    private final Consumer<Throwable> errorHandler;
+
+    /**
+     * 拦截链头部
+     */
+    private final Interceptor head;
+
+    /**
+     * 按操作名称缓存的派生名称，操作名称是有限的常量集合
+     */
+    private final ConcurrentMap<String, Names> names = new ConcurrentHashMap<>();
+
+    IntegrationChain(String metricName, String traceKey, Consumer<Throwable> errorHandler) {
+        this.metricName = metricName;
+        this.traceKey = traceKey;
+        this.errorHandler = errorHandler;
+
+        Interceptor chain = Terminal.INSTANCE;
+        if (metricName != null) {
+            chain = new MetricInterceptor(chain);
+        }
+        if (metricName != null || errorHandler != null) {
+            chain = new FailureInterceptor(chain, metricName != null, errorHandler);
+        }
+        if (traceKey != null) {
+            chain = new TraceInterceptor(chain, traceKey, metricName);
+        }
+        this.head = chain;
+    }
+
+    /**
+     * 是否由给定的配置构建
+     *
+     * @param metricName   指标名称
+     * @param traceKey     追踪键
+     * @param errorHandler 错误处理器
+     * @return true表示可以复用
+     */
+    boolean matches(String metricName, String traceKey, Consumer<Throwable> errorHandler) {
+        return Objects.equals(this.metricName, metricName)
+                && Objects.equals(this.traceKey, traceKey)
+                && this.errorHandler == errorHandler;
+    }
+
+    /**
+     * 在拦截链中执行操作
+     *
+     * @param operationName 操作名称
+     * @param operation     操作逻辑
+     * @param <T>           返回类型
+     * @return 操作结果
+     */
+    <T> Try<T> execute(String operationName, Supplier<Try<T>> operation) {
+        return head.invoke(names(operationName), operation);
+    }
+
+    /**
+     * 获取操作的指标名称
+     *
+     * @param operationName 操作名称
+     * @return 指标名称，未启用指标时返回null
+     */
+    String metricName(String operationName) {
+        return names(operationName).metric;
+    }
+
+    private Names names(String operationName) {
+        Names cached = names.get(operationName);
+        if (cached == null) {
+            cached = names.computeIfAbsent(operationName, this::newNames);
+        }
+        return cached;
+    }
+
+    private Names newNames(String operationName) {
+        return new Names(operationName,
+                traceKey != null ? traceKey + "." + operationName : null,
+                metricName != null ? metricName + "." + operationName : null,
+                metricName != null ? metricName + ".error" : null);
+    }
+
+    /**
+     * 按操作名称派生的名称
+     */
+    private static final class Names {
+        private final String operation;
+        private final String trace;
+        private final String metric;
+        private final String alert;
+
+        private Names(String operation, String trace, String metric, String alert) {
+            this.operation = operation;
+            this.trace = trace;
+            this.metric = metric;
+            this.alert = alert;
+        }
+    }
+
+    /**
+     * 拦截器
+     */
+    private abstract static class Interceptor {
+
+        abstract <T> Try<T> invoke(Names names, Supplier<Try<T>> operation);
+    }
+
+    /**
+     * 链尾，直接执行操作
+     */
+    private static final class Terminal extends Interceptor {
+
+        private static final Terminal INSTANCE = new Terminal();
+
+        @Override
+        <T> Try<T> invoke(Names names, Supplier<Try<T>> operation) {
+            return operation.get();
+        }
+    }
+
+    /**
+     * 链路追踪与追踪日志
+     */
+    private static final class TraceInterceptor extends Interceptor {
+
+        private final Interceptor next;
+        private final String traceKey;
+        private final String metricName;
+
+        private TraceInterceptor(Interceptor next, String traceKey, String metricName) {
+            this.next = next;
+            this.traceKey = traceKey;
+            this.metricName = metricName;
+        }
+
+        @Override
+        <T> Try<T> invoke(Names names, Supplier<Try<T>> operation) {
+            return VrmlTraceIntegration.withTrace(names.trace, () -> {
+                VrmlLogIntegration.debug(traceKey, "Starting operation: {}", names.operation);
+                VrmlTraceIntegration.setTag("operation", names.operation);
+                if (metricName != null) {
+                    VrmlTraceIntegration.setTag("metric", metricName);
+                }
+
+                Try<T> result = next.invoke(names, operation);
+
+                if (result.isSuccess()) {
+                    VrmlLogIntegration.debug(traceKey, "Operation completed successfully: {}", names.operation);
+                    VrmlTraceIntegration.setTag("result", "success");
+                } else {
+                    Throwable throwable = result.getCause();
+                    VrmlLogIntegration.error(traceKey, "Operation failed: " + names.operation, throwable);
+                    VrmlTraceIntegration.setTag("result", "failure");
+                    VrmlTraceIntegration.setTag("error", throwable.getMessage());
+                }
+                return result;
+            });
+        }
+    }
+
+    /**
+     * 失败告警与错误处理器
+     */
+    private static final class FailureInterceptor extends Interceptor {
+
+        private final Interceptor next;
+        private final boolean alertEnabled;
+        private final Consumer<Throwable> errorHandler;
+
+        private FailureInterceptor(Interceptor next, boolean alertEnabled, Consumer<Throwable> errorHandler) {
+            this.next = next;
+            this.alertEnabled = alertEnabled;
+            this.errorHandler = errorHandler;
+        }
+
+        @Override
+        <T> Try<T> invoke(Names names, Supplier<Try<T>> operation) {
+            Try<T> result = next.invoke(names, operation);
+            if (result.isFailure()) {
+                Throwable throwable = result.getCause();
+                if (alertEnabled) {
+                    VrmlAlertIntegration.alert(names.alert,
+                            "Operation failed: " + names.operation, throwable);
+                }
+                if (errorHandler != null) {
+                    try {
+                        errorHandler.accept(throwable);
+                    } catch (Exception e) {
+                        VrmlLogIntegration.error("vrml.error.handler",
+                                "Error handler failed for operation: " + names.operation, e);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 执行耗时指标
+     */
+    private static final class MetricInterceptor extends Interceptor {
+
+        private final Interceptor next;
+
+        private MetricInterceptor(Interceptor next) {
+            this.next = next;
+        }
+
+        @Override
+        <T> Try<T> invoke(Names names, Supplier<Try<T>> operation) {
+            return VrmlMetricIntegration.recordTime(names.metric, () -> next.invoke(names, operation));
+        }
+    }
+}
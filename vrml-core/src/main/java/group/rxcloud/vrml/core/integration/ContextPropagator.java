@@ -0,0 +1,47 @@
+package group.rxcloud.vrml.core.integration;
+
+/**
+ * VRML线程上下文传播SPI
+ * 描述一种线程本地状态如何被捕获、绑定到其他线程以及恢复
+ *
+ * <p>实现类需要在{@code META-INF/services/group.rxcloud.vrml.core.integration.ContextPropagator}中声明，
+ * 所有实现只在首次使用时解析一次，并按优先级顺序参与{@link VrmlContext}的捕获和绑定。</p>
+ *
+ * <p>捕获的状态必须是不可变的或只被引用共享，同一份状态可能同时绑定到多个线程。</p>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public interface ContextPropagator {
+
+    /**
+     * 捕获当前线程的状态
+     *
+     * @return 状态，null表示当前线程没有状态
+     */
+    Object capture();
+
+    /**
+     * 将状态绑定到当前线程
+     *
+     * @param captured 捕获的状态，null表示清空当前线程的状态
+     * @return 当前线程之前的状态，用于{@link #restore(Object)}
+     */
+    Object attach(Object captured);
+
+    /**
+     * 恢复当前线程之前的状态
+     *
+     * @param previous {@link #attach(Object)}返回的状态
+     */
+    void restore(Object previous);
+
+    /**
+     * 获取优先级，数值越小越先绑定、越后恢复
+     *
+     * @return 优先级
+     */
+    default int getPriority() {
+        return 100;
+    }
+}
@@ -0,0 +1,49 @@
+package group.rxcloud.vrml.core.integration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 未发现任何{@link MetricsSink}实现时的降级输出，以调试日志记录指标
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+final class LoggingMetricsSink implements MetricsSink {
+
+    static final LoggingMetricsSink INSTANCE = new LoggingMetricsSink();
+
+    private static final Logger log = LoggerFactory.getLogger(VrmlMetricIntegration.class);
+
+    private LoggingMetricsSink() {
+    }
+
+    @Override
+    public void recordTime(String metricName, long durationNanos, boolean success) {
+        if (log.isDebugEnabled()) {
+            log.debug("[VRML] Metric: {} = {}ms, success = {}",
+                    metricName, TimeUnit.NANOSECONDS.toMillis(durationNanos), success);
+        }
+    }
+
+    @Override
+    public void recordCount(String metricName, boolean success) {
+        if (log.isDebugEnabled()) {
+            log.debug("[VRML] Metric: {} count, success = {}", metricName, success);
+        }
+    }
+
+    @Override
+    public void recordGauge(String metricName, double value) {
+        if (log.isDebugEnabled()) {
+            log.debug("[VRML] Gauge: {} = {}", metricName, value);
+        }
+    }
+
+    @Override
+    public int getPriority() {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,99 @@
+package group.rxcloud.vrml.core.integration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+
+/**
+ * MDC上下文传播，始终启用
+ * logback的MDC是写时复制的，捕获和保存工作线程之前的状态时直接引用其只读Map，不复制；
+ * 其他MDC实现每次捕获复制一次。绑定时{@link MDC#setContextMap(Map)}仍会复制一次，
+ * 工作线程原本没有MDC时恢复只需清空
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+final class MdcContextPropagator implements ContextPropagator {
+
+    private static final Logger log = LoggerFactory.getLogger(MdcContextPropagator.class);
+
+    private static final String LOGBACK_MDC_ADAPTER = "ch.qos.logback.classic.util.LogbackMDCAdapter";
+
+    static final MdcContextPropagator INSTANCE = new MdcContextPropagator();
+
+    /**
+     * logback的只读MDC视图，其他MDC实现为null
+     */
+    private static final MethodHandle PROPERTY_MAP = resolvePropertyMap();
+
+    private MdcContextPropagator() {
+    }
+
+    @Override
+    public Object capture() {
+        Map<String, String> state = readOnlyContextMap();
+        return state == null || state.isEmpty() ? null : state;
+    }
+
+    @Override
+    public Object attach(Object captured) {
+        Object previous = capture();
+        set(captured);
+        return previous;
+    }
+
+    @Override
+    public void restore(Object previous) {
+        set(previous);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void set(Object state) {
+        if (state == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap((Map<String, String>) state);
+        }
+    }
+
+    /**
+     * 获取当前线程的MDC，返回的Map不会再被修改
+     *
+     * @return MDC，可能为null
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> readOnlyContextMap() {
+        if (PROPERTY_MAP != null) {
+            try {
+                return (Map<String, String>) PROPERTY_MAP.invoke();
+            } catch (Throwable e) {
+                log.debug("[VRML] Failed to read logback MDC, falling back to a copy", e);
+            }
+        }
+        return MDC.getCopyOfContextMap();
+    }
+
+    private static MethodHandle resolvePropertyMap() {
+        try {
+            MDCAdapter adapter = MDC.getMDCAdapter();
+            if (adapter != null && LOGBACK_MDC_ADAPTER.equals(adapter.getClass().getName())) {
+                return MethodHandles.publicLookup()
+                        .unreflect(adapter.getClass().getMethod("getPropertyMap"))
+                        .bindTo(adapter);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("[VRML] Logback MDC view unavailable, MDC is copied per capture", e);
+        }
+        return null;
+    }
+
+    @Override
+    public int getPriority() {
+        return 0;
+    }
+}
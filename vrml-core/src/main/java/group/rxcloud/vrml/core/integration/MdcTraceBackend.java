@@ -0,0 +1,32 @@
+package group.rxcloud.vrml.core.integration;
+
+import org.slf4j.MDC;
+
+/**
+ * 基于MDC的默认追踪后端，未发现其他{@link TraceBackend}实现时使用
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+final class MdcTraceBackend implements TraceBackend {
+
+    static final MdcTraceBackend INSTANCE = new MdcTraceBackend();
+
+    private MdcTraceBackend() {
+    }
+
+    @Override
+    public void tag(String key, String value) {
+        MDC.put(key, value);
+    }
+
+    @Override
+    public void remove(String key) {
+        MDC.remove(key);
+    }
+
+    @Override
+    public int getPriority() {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,49 @@
+package group.rxcloud.vrml.core.integration;
+
+/**
+ * VRML监控指标输出SPI
+ * 通过{@link java.util.ServiceLoader}发现，只在首次使用时解析一次，
+ * 之后每次记录指标都是一次直接的虚方法调用
+ *
+ * <p>实现类需要在{@code META-INF/services/group.rxcloud.vrml.core.integration.MetricsSink}中声明，
+ * 存在多个实现时选择优先级数值最小的一个。</p>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public interface MetricsSink {
+
+    /**
+     * 记录耗时指标
+     *
+     * @param metricName    指标名称
+     * @param durationNanos 耗时（纳秒）
+     * @param success       是否成功
+     */
+    void recordTime(String metricName, long durationNanos, boolean success);
+
+    /**
+     * 记录计数指标
+     *
+     * @param metricName 指标名称
+     * @param success    是否成功
+     */
+    void recordCount(String metricName, boolean success);
+
+    /**
+     * 记录仪表盘指标
+     *
+     * @param metricName 指标名称
+     * @param value      指标值
+     */
+    void recordGauge(String metricName, double value);
+
+    /**
+     * 获取优先级，数值越小优先级越高
+     *
+     * @return 优先级
+     */
+    default int getPriority() {
+        return 100;
+    }
+}
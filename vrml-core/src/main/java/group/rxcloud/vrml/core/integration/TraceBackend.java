@@ -0,0 +1,39 @@
+package group.rxcloud.vrml.core.integration;
+
+/**
+ * VRML链路追踪后端SPI
+ * 通过{@link java.util.ServiceLoader}发现，只在首次使用时解析一次，
+ * 未发现任何实现时使用MDC作为后端
+ *
+ * <p>实现类需要在{@code META-INF/services/group.rxcloud.vrml.core.integration.TraceBackend}中声明，
+ * 存在多个实现时选择优先级数值最小的一个。</p>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public interface TraceBackend {
+
+    /**
+     * 设置追踪标签
+     *
+     * @param key   标签键
+     * @param value 标签值
+     */
+    void tag(String key, String value);
+
+    /**
+     * 移除追踪标签
+     *
+     * @param key 标签键
+     */
+    void remove(String key);
+
+    /**
+     * 获取优先级，数值越小优先级越高
+     *
+     * @return 优先级
+     */
+    default int getPriority() {
+        return 100;
+    }
+}
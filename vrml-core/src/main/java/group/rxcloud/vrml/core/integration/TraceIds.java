@@ -0,0 +1,70 @@
+package group.rxcloud.vrml.core.integration;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C Trace Context兼容的追踪ID生成工具
+ * 追踪ID为128位、跨度ID为64位的小写十六进制字符串，随机数来自{@link ThreadLocalRandom}，
+ * 线程之间没有竞争，也不经过UUID格式化
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public final class TraceIds {
+
+    /**
+     * 追踪ID长度
+     */
+    public static final int TRACE_ID_LENGTH = 32;
+
+    /**
+     * 跨度ID长度
+     */
+    public static final int SPAN_ID_LENGTH = 16;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceIds() {
+    }
+
+    /**
+     * 生成128位追踪ID，W3C规范不允许全零
+     *
+     * @return 32位十六进制追踪ID
+     */
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        while (high == 0 && low == 0) {
+            low = random.nextLong();
+        }
+        char[] chars = new char[TRACE_ID_LENGTH];
+        writeHex(high, chars, 0);
+        writeHex(low, chars, SPAN_ID_LENGTH);
+        return new String(chars);
+    }
+
+    /**
+     * 生成64位跨度ID，W3C规范不允许全零
+     *
+     * @return 16位十六进制跨度ID
+     */
+    public static String newSpanId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong();
+        while (id == 0) {
+            id = random.nextLong();
+        }
+        char[] chars = new char[SPAN_ID_LENGTH];
+        writeHex(id, chars, 0);
+        return new String(chars);
+    }
+
+    private static void writeHex(long value, char[] chars, int offset) {
+        for (int i = SPAN_ID_LENGTH - 1; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package group.rxcloud.vrml.core.integration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * VRML线程上下文快照
+ * 在提交任务的线程上捕获MDC、链路追踪和监控标签等线程本地状态，在执行任务的线程上绑定，任务结束后恢复
+ *
+ * <p>快照是不可变的：每个{@link ContextPropagator}的状态只在捕获时取一次，
+ * 之后由同一快照包装的所有任务共享，绑定时不再复制。没有任何状态的快照包装任务时直接返回原任务。</p>
+ *
+ * <pre>{@code
+ * ExecutorService executor = VrmlContext.executorService(Executors.newFixedThreadPool(4));
+ *
+ * VrmlContext.supplyAsync(() -> load(key), executor)
+ *         .thenAcceptAsync(VrmlContext.capture().wrapConsumer(value -> log.info("loaded {}", value)), executor);
+ * }</pre>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public final class VrmlContext {
+
+    private static final Logger log = LoggerFactory.getLogger(VrmlContext.class);
+
+    private static final VrmlContext EMPTY = new VrmlContext(null, null);
+
+    private static volatile ContextPropagator[] propagators = null;
+
+    private final ContextPropagator[] owners;
+    private final Object[] states;
+
+    private VrmlContext(ContextPropagator[] owners, Object[] states) {
+        this.owners = owners;
+        this.states = states;
+    }
+
+    // -- Capture
+
+    /**
+     * 捕获当前线程的上下文
+     *
+     * @return 上下文快照
+     */
+    public static VrmlContext capture() {
+        ContextPropagator[] current = getPropagators();
+        Object[] states = null;
+        for (int i = 0; i < current.length; i++) {
+            Object state;
+            try {
+                state = current[i].capture();
+            } catch (RuntimeException e) {
+                log.debug("[VRML] Failed to capture context: {}", current[i].getClass().getName(), e);
+                state = null;
+            }
+            if (state != null) {
+                if (states == null) {
+                    states = new Object[current.length];
+                }
+                states[i] = state;
+            }
+        }
+        return states == null ? EMPTY : new VrmlContext(current, states);
+    }
+
+    /**
+     * 是否为空快照
+     *
+     * @return true表示捕获时没有任何上下文
+     */
+    public boolean isEmpty() {
+        return states == null;
+    }
+
+    /**
+     * 将快照绑定到当前线程，关闭返回的作用域时恢复之前的上下文
+     *
+     * @return 作用域
+     */
+    public Scope attach() {
+        if (states == null) {
+            return Scope.NOOP;
+        }
+        Object[] previous = new Object[owners.length];
+        for (int i = 0; i < owners.length; i++) {
+            try {
+                previous[i] = owners[i].attach(states[i]);
+            } catch (RuntimeException e) {
+                log.debug("[VRML] Failed to attach context: {}", owners[i].getClass().getName(), e);
+            }
+        }
+        return new Scope(owners, previous);
+    }
+
+    // -- Wrap
+
+    /**
+     * 包装任务，在执行线程上绑定此快照
+     *
+     * @param runnable 任务
+     * @return 包装后的任务
+     */
+    public Runnable wrap(Runnable runnable) {
+        if (states == null) {
+            return runnable;
+        }
+        return () -> {
+            try (Scope ignored = attach()) {
+                runnable.run();
+            }
+        };
+    }
+
+    /**
+     * 包装任务，在执行线程上绑定此快照
+     *
+     * @param callable 任务
+     * @param <V> 返回类型
+     * @return 包装后的任务
+     */
+    public <V> Callable<V> wrap(Callable<V> callable) {
+        if (states == null) {
+            return callable;
+        }
+        return () -> {
+            try (Scope ignored = attach()) {
+                return callable.call();
+            }
+        };
+    }
+
+    /**
+     * 包装任务，在执行线程上绑定此快照
+     *
+     * @param supplier 任务
+     * @param <T> 返回类型
+     * @return 包装后的任务
+     */
+    public <T> Supplier<T> wrapSupplier(Supplier<T> supplier) {
+        if (states == null) {
+            return supplier;
+        }
+        return () -> {
+            try (Scope ignored = attach()) {
+                return supplier.get();
+            }
+        };
+    }
+
+    /**
+     * 包装回调，用于{@link CompletableFuture}的{@code thenApply}系列方法
+     *
+     * @param function 回调
+     * @param <T> 参数类型
+     * @param <R> 返回类型
+     * @return 包装后的回调
+     */
+    public <T, R> Function<T, R> wrapFunction(Function<T, R> function) {
+        if (states == null) {
+            return function;
+        }
+        return t -> {
+            try (Scope ignored = attach()) {
+                return function.apply(t);
+            }
+        };
+    }
+
+    /**
+     * 包装回调，用于{@link CompletableFuture}的{@code thenAccept}系列方法
+     *
+     * @param consumer 回调
+     * @param <T> 参数类型
+     * @return 包装后的回调
+     */
+    public <T> Consumer<T> wrapConsumer(Consumer<T> consumer) {
+        if (states == null) {
+            return consumer;
+        }
+        return t -> {
+            try (Scope ignored = attach()) {
+                consumer.accept(t);
+            }
+        };
+    }
+
+    /**
+     * 包装回调，用于{@link CompletableFuture}的{@code whenComplete}系列方法
+     *
+     * @param consumer 回调
+     * @param <T> 结果类型
+     * @param <U> 异常类型
+     * @return 包装后的回调
+     */
+    public <T, U> BiConsumer<T, U> wrapBiConsumer(BiConsumer<T, U> consumer) {
+        if (states == null) {
+            return consumer;
+        }
+        return (t, u) -> {
+            try (Scope ignored = attach()) {
+                consumer.accept(t, u);
+            }
+        };
+    }
+
+    /**
+     * 包装回调，用于{@link CompletableFuture}的{@code handle}系列方法
+     *
+     * @param function 回调
+     * @param <T> 结果类型
+     * @param <U> 异常类型
+     * @param <R> 返回类型
+     * @return 包装后的回调
+     */
+    public <T, U, R> BiFunction<T, U, R> wrapBiFunction(BiFunction<T, U, R> function) {
+        if (states == null) {
+            return function;
+        }
+        return (t, u) -> {
+            try (Scope ignored = attach()) {
+                return function.apply(t, u);
+            }
+        };
+    }
+
+    // -- Helpers
+
+    /**
+     * 捕获当前上下文并包装任务
+     *
+     * @param runnable 任务
+     * @return 包装后的任务
+     */
+    public static Runnable propagate(Runnable runnable) {
+        return capture().wrap(runnable);
+    }
+
+    /**
+     * 捕获当前上下文并包装任务
+     *
+     * @param callable 任务
+     * @param <V> 返回类型
+     * @return 包装后的任务
+     */
+    public static <V> Callable<V> propagate(Callable<V> callable) {
+        return capture().wrap(callable);
+    }
+
+    /**
+     * 包装执行器，每次提交任务时捕获提交线程的上下文
+     *
+     * @param executor 执行器
+     * @return 包装后的执行器
+     */
+    public static Executor executor(Executor executor) {
+        if (executor instanceof ContextExecutorService) {
+            return executor;
+        }
+        if (executor instanceof ExecutorService) {
+            return executorService((ExecutorService) executor);
+        }
+        return command -> executor.execute(propagate(command));
+    }
+
+    /**
+     * 包装线程池，每次提交任务时捕获提交线程的上下文
+     *
+     * @param executorService 线程池
+     * @return 包装后的线程池
+     */
+    public static ExecutorService executorService(ExecutorService executorService) {
+        if (executorService instanceof ContextExecutorService) {
+            return executorService;
+        }
+        return new ContextExecutorService(executorService);
+    }
+
+    /**
+     * 携带当前上下文异步执行
+     *
+     * @param supplier 任务
+     * @param executor 执行器
+     * @param <T> 返回类型
+     * @return 异步结果
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        return CompletableFuture.supplyAsync(capture().wrapSupplier(supplier), executor);
+    }
+
+    /**
+     * 携带当前上下文异步执行
+     *
+     * @param runnable 任务
+     * @param executor 执行器
+     * @return 异步结果
+     */
+    public static CompletableFuture<Void> runAsync(Runnable runnable, Executor executor) {
+        return CompletableFuture.runAsync(capture().wrap(runnable), executor);
+    }
+
+    // -- Propagators
+
+    /**
+     * 获取所有上下文传播实现，按优先级排序
+     *
+     * @return 上下文传播实现
+     */
+    static ContextPropagator[] getPropagators() {
+        ContextPropagator[] current = propagators;
+        if (current == null) {
+            synchronized (VrmlContext.class) {
+                current = propagators;
+                if (current == null) {
+                    current = discoverPropagators();
+                    propagators = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 手动注册上下文传播实现，用于无法通过SPI声明的场景
+     *
+     * @param propagator 上下文传播实现
+     */
+    public static void register(ContextPropagator propagator) {
+        synchronized (VrmlContext.class) {
+            List<ContextPropagator> list = new ArrayList<>(Arrays.asList(getPropagators()));
+            list.add(propagator);
+            list.sort(Comparator.comparingInt(ContextPropagator::getPriority));
+            propagators = list.toArray(new ContextPropagator[0]);
+        }
+        log.info("[VRML] Context propagator registered: {}", propagator.getClass().getName());
+    }
+
+    private static ContextPropagator[] discoverPropagators() {
+        List<ContextPropagator> list = new ArrayList<>();
+        list.add(MdcContextPropagator.INSTANCE);
+        try {
+            for (ContextPropagator candidate : ServiceLoader.load(ContextPropagator.class)) {
+                list.add(candidate);
+            }
+        } catch (ServiceConfigurationError e) {
+            log.warn("[VRML] Failed to load context propagators, falling back to MDC only", e);
+        }
+        list.sort(Comparator.comparingInt(ContextPropagator::getPriority));
+        log.debug("[VRML] Using context propagators: {}", list);
+        return list.toArray(new ContextPropagator[0]);
+    }
+
+    /**
+     * 上下文作用域，关闭时按绑定的相反顺序恢复之前的上下文
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private static final Scope NOOP = new Scope(null, null);
+
+        private final ContextPropagator[] owners;
+        private final Object[] previous;
+        private boolean closed;
+
+        private Scope(ContextPropagator[] owners, Object[] previous) {
+            this.owners = owners;
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (owners == null || closed) {
+                return;
+            }
+            closed = true;
+            for (int i = owners.length - 1; i >= 0; i--) {
+                try {
+                    owners[i].restore(previous[i]);
+                } catch (RuntimeException e) {
+                    log.debug("[VRML] Failed to restore context: {}", owners[i].getClass().getName(), e);
+                }
+            }
+        }
+    }
+}
@@ -1,167 +1,184 @@
 package group.rxcloud.vrml.core.integration;
 
-import group.rxcloud.vrml.core.beans.SpringContextConfigurator;
 import io.vavr.control.Try;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
-import java.time.Instant;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.function.Supplier;
 
 /**
  * VRML监控集成工具
  * 提供统一的监控指标收集接口
- * 
+ *
+ * <p>指标通过{@link MetricsSink}输出，输出实现只在首次使用时通过SPI解析一次，
+ * 未发现任何实现时降级为调试日志。</p>
+ *
  * @author VRML Team
  * @since 1.2.0
  */
 public final class VrmlMetricIntegration {
-    
+
     private static final Logger log = LoggerFactory.getLogger(VrmlMetricIntegration.class);
-    
-    private static volatile Boolean metricsAvailable = null;
-    
+
+    private static volatile MetricsSink sink = null;
+
     /**
      * 记录操作执行时间
-     * 
+     *
      * @param metricName 指标名称
      * @param operation 操作
      * @param <T> 返回类型
      * @return 操作结果
      */
     public static <T> Try<T> recordTime(String metricName, Supplier<Try<T>> operation) {
-        if (metricName == null || metricName.trim().isEmpty()) {
+        if (metricName == null || metricName.isEmpty()) {
             return operation.get();
         }
-        
-        Instant start = Instant.now();
-        Try<T> result = Try.success(null);
-        
+
+        long start = System.nanoTime();
+        boolean success = false;
+
         try {
-            result = operation.get();
+            Try<T> result = operation.get();
+            success = result.isSuccess();
             return result;
         } finally {
-            Duration duration = Duration.between(start, Instant.now());
-            recordMetric(metricName, duration, result.isSuccess());
+            recordTime(metricName, System.nanoTime() - start, success);
         }
     }
-    
+
     /**
      * 记录操作计数
-     * 
+     *
      * @param metricName 指标名称
      * @param success 是否成功
      */
     public static void recordCount(String metricName, boolean success) {
-        recordMetric(metricName + ".count", null, success);
+        try {
+            getSink().recordCount(metricName, success);
+        } catch (RuntimeException e) {
+            log.debug("[VRML] Failed to record count metric: {}", metricName, e);
+        }
     }
-    
+
     /**
      * 记录时间指标
-     * 
+     *
      * @param metricName 指标名称
      * @param duration 时间
      */
     public static void recordTime(String metricName, Duration duration) {
-        recordMetric(metricName, duration, true);
+        recordTime(metricName, duration.toNanos(), true);
     }
-    
+
     /**
      * 记录仪表盘指标
-     * 
+     *
      * @param metricName 指标名称
      * @param value 指标值
      */
     public static void recordGauge(String metricName, double value) {
-        if (!isMetricsAvailable()) {
-            log.debug("[VRML] Gauge: {} = {}", metricName, value);
-            return;
-        }
-        
         try {
-            Class<?> metricsClass = Class.forName("group.rxcloud.vrml.metric.Metrics");
-            metricsClass.getMethod("gauge", String.class, double.class)
-                .invoke(null, metricName, value);
-        } catch (Exception e) {
+            getSink().recordGauge(metricName, value);
+        } catch (RuntimeException e) {
             log.debug("[VRML] Failed to record gauge metric: {}", metricName, e);
-            log.debug("[VRML] Gauge: {} = {}", metricName, value);
         }
     }
-    
+
     /**
-     * 记录指标
-     * 
+     * 记录时间指标
+     *
      * @param metricName 指标名称
-     * @param duration 执行时间（可为null）
+     * @param durationNanos 执行时间（纳秒）
      * @param success 是否成功
      */
-    private static void recordMetric(String metricName, Duration duration, boolean success) {
-        if (!isMetricsAvailable()) {
-            // 如果vrml-metric不可用，使用日志记录
-            if (duration != null) {
-                log.debug("[VRML] Metric: {} = {}ms, success = {}", metricName, duration.toMillis(), success);
-            } else {
-                log.debug("[VRML] Metric: {} count, success = {}", metricName, success);
-            }
-            return;
-        }
-        
+    private static void recordTime(String metricName, long durationNanos, boolean success) {
         try {
-            // 使用反射调用vrml-metric模块
-            Class<?> metricsClass = Class.forName("group.rxcloud.vrml.metric.Metrics");
-            
-            // 简化的指标记录，只记录基本信息
-            if (duration != null) {
-                // 记录时间指标
-                metricsClass.getMethod("time", String.class, long.class)
-                    .invoke(null, metricName, duration.toMillis());
-            } else {
-                // 记录计数指标
-                metricsClass.getMethod("count", String.class, boolean.class)
-                    .invoke(null, metricName, success);
-            }
-            
-        } catch (Exception e) {
-            log.debug("[VRML] Failed to record metric via reflection: {}", metricName, e);
-            // 降级到日志记录
-            if (duration != null) {
-                log.debug("[VRML] Metric: {} = {}ms, success = {}", metricName, duration.toMillis(), success);
-            } else {
-                log.debug("[VRML] Metric: {} count, success = {}", metricName, success);
-            }
+            getSink().recordTime(metricName, durationNanos, success);
+        } catch (RuntimeException e) {
+            log.debug("[VRML] Failed to record time metric: {}", metricName, e);
         }
     }
-    
+
     /**
-     * 检查vrml-metric模块是否可用
-     * 
-     * @return true表示可用，false表示不可用
+     * 获取当前的指标输出
+     *
+     * @return 指标输出
      */
-    private static boolean isMetricsAvailable() {
-        if (metricsAvailable == null) {
+    public static MetricsSink getSink() {
+        MetricsSink current = sink;
+        if (current == null) {
             synchronized (VrmlMetricIntegration.class) {
-                if (metricsAvailable == null) {
-                    try {
-                        Class.forName("group.rxcloud.vrml.metric.Metrics");
-                        metricsAvailable = true;
-                        log.debug("[VRML] vrml-metric module is available");
-                    } catch (ClassNotFoundException e) {
-                        metricsAvailable = false;
-                        log.debug("[VRML] vrml-metric module is not available");
-                    }
+                current = sink;
+                if (current == null) {
+                    current = discoverSink();
+                    sink = current;
                 }
             }
         }
-        return metricsAvailable;
+        return current;
     }
-    
+
+    /**
+     * 手动设置指标输出，覆盖SPI发现的结果
+     *
+     * @param metricsSink 指标输出，为null时重新通过SPI发现
+     */
+    public static void setSink(MetricsSink metricsSink) {
+        sink = metricsSink;
+        log.info("[VRML] Metrics sink set to: {}",
+                metricsSink != null ? metricsSink.getClass().getName() : "<discover>");
+    }
+
+    /**
+     * 通过SPI发现优先级最高的指标输出
+     *
+     * @return 指标输出，未发现时返回日志降级实现
+     */
+    private static MetricsSink discoverSink() {
+        MetricsSink selected = selectSink(ServiceLoader.load(MetricsSink.class));
+        log.debug("[VRML] Using metrics sink: {}", selected.getClass().getName());
+        return selected;
+    }
+
+    /**
+     * 从候选实现中选择优先级最高的指标输出
+     *
+     * @param candidates 候选实现
+     * @return 指标输出，无候选或加载失败时返回日志降级实现
+     */
+    static MetricsSink selectSink(Iterable<MetricsSink> candidates) {
+        MetricsSink selected = LoggingMetricsSink.INSTANCE;
+        try {
+            for (MetricsSink candidate : candidates) {
+                if (candidate.getPriority() < selected.getPriority()) {
+                    selected = candidate;
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            log.warn("[VRML] Failed to load metrics sink, falling back to logging", e);
+        }
+        return selected;
+    }
+
+    /**
+     * 检查是否存在可用的指标输出
+     *
+     * @return true表示可用，false表示只能降级为日志
+     */
+    private static boolean isMetricsAvailable() {
+        return getSink() != LoggingMetricsSink.INSTANCE;
+    }
+
     /**
      * 检查是否启用监控
-     * 
+     *
      * @return true表示启用，false表示禁用
      */
     public static boolean isMetricsEnabled() {
         return VrmlIntegrationManager.getConfig().isMetricsEnabled() && isMetricsAvailable();
     }
-}
\ No newline at end of file
+}
@@ -4,27 +4,33 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
-import java.util.UUID;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.function.Supplier;
 
 /**
  * VRML链路追踪集成工具
  * 提供统一的链路追踪接口
- * 
+ *
+ * <p>追踪标签通过{@link TraceBackend}输出，后端只在首次使用时通过SPI解析一次，
+ * 未发现任何实现时直接写入MDC。追踪ID由{@link TraceIds}生成。</p>
+ *
  * @author VRML Team
  * @since 1.2.0
  */
 public final class VrmlTraceIntegration {
-    
+
     private static final Logger log = LoggerFactory.getLogger(VrmlTraceIntegration.class);
-    
+
     private static final String TRACE_ID_KEY = "traceId";
     private static final String SPAN_ID_KEY = "spanId";
     private static final String OPERATION_KEY = "operation";
-    
+
+    private static volatile TraceBackend backend = null;
+
     /**
      * 在追踪上下文中执行操作
-     * 
+     *
      * @param traceKey 追踪键
      * @param operation 操作
      * @param <T> 返回类型
@@ -34,85 +40,95 @@ public final class VrmlTraceIntegration {
         if (traceKey == null || traceKey.trim().isEmpty()) {
             return operation.get();
         }
-        
+
         String traceId = generateTraceId();
         String spanId = generateSpanId();
-        
+        TraceBackend traceBackend = getBackend();
+
         // 设置MDC
         String oldTraceId = MDC.get(TRACE_ID_KEY);
         String oldSpanId = MDC.get(SPAN_ID_KEY);
         String oldOperation = MDC.get(OPERATION_KEY);
-        
+
         try {
             MDC.put(TRACE_ID_KEY, traceId);
             MDC.put(SPAN_ID_KEY, spanId);
             MDC.put(OPERATION_KEY, traceKey);
-            
-            // 尝试使用vrml-trace模块
-            try {
-                Class<?> tracesClass = Class.forName("group.rxcloud.vrml.trace.Traces");
-                tracesClass.getMethod("tag", String.class, String.class).invoke(null, TRACE_ID_KEY, traceId);
-                tracesClass.getMethod("tag", String.class, String.class).invoke(null, SPAN_ID_KEY, spanId);
-                tracesClass.getMethod("tag", String.class, String.class).invoke(null, OPERATION_KEY, traceKey);
-            } catch (Exception e) {
-                // vrml-trace不可用，使用MDC即可
-                log.debug("[VRML] vrml-trace module not available, using MDC only");
+
+            // MDC后端已经写入，无需重复设置
+            if (traceBackend != MdcTraceBackend.INSTANCE) {
+                traceBackend.tag(TRACE_ID_KEY, traceId);
+                traceBackend.tag(SPAN_ID_KEY, spanId);
+                traceBackend.tag(OPERATION_KEY, traceKey);
             }
-            
+
             return operation.get();
-            
+
         } finally {
             // 恢复MDC
-            if (oldTraceId != null) {
-                MDC.put(TRACE_ID_KEY, oldTraceId);
-            } else {
-                MDC.remove(TRACE_ID_KEY);
-            }
-            
-            if (oldSpanId != null) {
-                MDC.put(SPAN_ID_KEY, oldSpanId);
-            } else {
-                MDC.remove(SPAN_ID_KEY);
+            restore(TRACE_ID_KEY, oldTraceId);
+            restore(SPAN_ID_KEY, oldSpanId);
+            restore(OPERATION_KEY, oldOperation);
+
+            // 非MDC后端按MDC中保存的外层值恢复，没有外层值时移除
+            if (traceBackend != MdcTraceBackend.INSTANCE) {
+                restore(traceBackend, TRACE_ID_KEY, oldTraceId);
+                restore(traceBackend, SPAN_ID_KEY, oldSpanId);
+                restore(traceBackend, OPERATION_KEY, oldOperation);
             }
-            
-            if (oldOperation != null) {
-                MDC.put(OPERATION_KEY, oldOperation);
+        }
+    }
+
+    private static void restore(String key, String oldValue) {
+        if (oldValue != null) {
+            MDC.put(key, oldValue);
+        } else {
+            MDC.remove(key);
+        }
+    }
+
+    private static void restore(TraceBackend traceBackend, String key, String oldValue) {
+        try {
+            if (oldValue != null) {
+                traceBackend.tag(key, oldValue);
             } else {
-                MDC.remove(OPERATION_KEY);
+                traceBackend.remove(key);
             }
+        } catch (RuntimeException e) {
+            log.debug("[VRML] Failed to restore trace tag: {}", key, e);
         }
     }
-    
+
     /**
      * 获取当前追踪ID
-     * 
+     *
      * @return 追踪ID，如果不存在返回null
      */
     public static String getCurrentTraceId() {
         return MDC.get(TRACE_ID_KEY);
     }
-    
+
     /**
      * 获取当前跨度ID
-     * 
+     *
      * @return 跨度ID，如果不存在返回null
      */
     public static String getCurrentSpanId() {
         return MDC.get(SPAN_ID_KEY);
     }
-    
+
     /**
      * 获取当前操作名称
-     * 
+     *
      * @return 操作名称，如果不存在返回null
      */
     public static String getCurrentOperation() {
         return MDC.get(OPERATION_KEY);
     }
-    
+
     /**
      * 设置追踪标签
-     * 
+     *
      * @param key 标签键
      * @param value 标签值
      */
@@ -120,61 +136,105 @@ public final class VrmlTraceIntegration {
         if (key == null || value == null) {
             return;
         }
-        
+
         try {
-            // 尝试使用vrml-trace模块
-            Class<?> tracesClass = Class.forName("group.rxcloud.vrml.trace.Traces");
-            tracesClass.getMethod("tag", String.class, String.class).invoke(null, key, value);
-        } catch (Exception e) {
-            // vrml-trace不可用，使用MDC
-            MDC.put(key, value);
+            getBackend().tag(key, value);
+        } catch (RuntimeException e) {
+            log.debug("[VRML] Failed to set trace tag: {}", key, e);
         }
     }
-    
+
     /**
      * 移除追踪标签
-     * 
+     *
      * @param key 标签键
      */
     public static void removeTag(String key) {
         if (key == null) {
             return;
         }
-        
+
         try {
-            // 尝试使用vrml-trace模块
-            Class<?> tracesClass = Class.forName("group.rxcloud.vrml.trace.Traces");
-            tracesClass.getMethod("remove", String.class).invoke(null, key);
-        } catch (Exception e) {
-            // vrml-trace不可用，使用MDC
-            MDC.remove(key);
+            getBackend().remove(key);
+        } catch (RuntimeException e) {
+            log.debug("[VRML] Failed to remove trace tag: {}", key, e);
         }
     }
-    
+
+    /**
+     * 获取当前的追踪后端
+     *
+     * @return 追踪后端
+     */
+    public static TraceBackend getBackend() {
+        TraceBackend current = backend;
+        if (current == null) {
+            synchronized (VrmlTraceIntegration.class) {
+                current = backend;
+                if (current == null) {
+                    current = discoverBackend();
+                    backend = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 手动设置追踪后端，覆盖SPI发现的结果
+     *
+     * @param traceBackend 追踪后端，为null时重新通过SPI发现
+     */
+    public static void setBackend(TraceBackend traceBackend) {
+        backend = traceBackend;
+        log.info("[VRML] Trace backend set to: {}",
+                traceBackend != null ? traceBackend.getClass().getName() : "<discover>");
+    }
+
+    /**
+     * 通过SPI发现优先级最高的追踪后端
+     *
+     * @return 追踪后端，未发现时返回MDC实现
+     */
+    private static TraceBackend discoverBackend() {
+        TraceBackend selected = MdcTraceBackend.INSTANCE;
+        try {
+            for (TraceBackend candidate : ServiceLoader.load(TraceBackend.class)) {
+                if (candidate.getPriority() < selected.getPriority()) {
+                    selected = candidate;
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            log.warn("[VRML] Failed to load trace backend, falling back to MDC", e);
+        }
+        log.debug("[VRML] Using trace backend: {}", selected.getClass().getName());
+        return selected;
+    }
+
     /**
      * 生成追踪ID
-     * 
-     * @return 追踪ID
+     *
+     * @return 32位十六进制追踪ID
      */
     private static String generateTraceId() {
-        return UUID.randomUUID().toString().replace("-", "");
+        return TraceIds.newTraceId();
     }
-    
+
     /**
      * 生成跨度ID
-     * 
-     * @return 跨度ID
+     *
+     * @return 16位十六进制跨度ID
      */
     private static String generateSpanId() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        return TraceIds.newSpanId();
     }
-    
+
     /**
      * 检查是否启用追踪
-     * 
+     *
      * @return true表示启用，false表示禁用
      */
     public static boolean isTraceEnabled() {
         return VrmlIntegrationManager.getConfig().isTraceEnabled();
     }
-}
\ No newline at end of file
+}
@@ -6,9 +6,13 @@
  * <ul>
  *   <li>{@link group.rxcloud.vrml.core.integration.VrmlIntegrationManager} - 集成管理器</li>
  *   <li>{@link group.rxcloud.vrml.core.integration.VrmlMetricIntegration} - 监控指标集成</li>
+ *   <li>{@link group.rxcloud.vrml.core.integration.MetricsSink} - 监控指标输出SPI</li>
  *   <li>{@link group.rxcloud.vrml.core.integration.VrmlLogIntegration} - 日志集成</li>
  *   <li>{@link group.rxcloud.vrml.core.integration.VrmlAlertIntegration} - 告警集成</li>
  *   <li>{@link group.rxcloud.vrml.core.integration.VrmlTraceIntegration} - 链路追踪集成</li>
+ *   <li>{@link group.rxcloud.vrml.core.integration.TraceBackend} - 链路追踪后端SPI</li>
+ *   <li>{@link group.rxcloud.vrml.core.integration.VrmlContext} - 跨线程上下文传播</li>
+ *   <li>{@link group.rxcloud.vrml.core.integration.ContextPropagator} - 上下文传播SPI</li>
  * </ul>
  * 
  * <p>这些集成类提供了与VRML其他模块的统一集成接口，支持：</p>
@@ -0,0 +1,53 @@
+package group.rxcloud.vrml.core.stats;
+
+/**
+ * 非负long值的对数线性分桶
+ * 小于16的值一一对应，更大的值每个2的幂划分16个线性子桶，
+ * 因此在整个long范围内桶上界的相对误差低于1/16，共{@value #BUCKET_COUNT}个桶
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public final class LogLinearBuckets {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int SUB_MASK = SUB_COUNT - 1;
+
+    /**
+     * 桶数量
+     */
+    public static final int BUCKET_COUNT = (Long.SIZE - SUB_BITS) * SUB_COUNT;
+
+    private LogLinearBuckets() {
+    }
+
+    /**
+     * 获取值所在的桶
+     *
+     * @param value 值，负数按0处理
+     * @return 桶下标
+     */
+    public static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) Math.max(0L, value);
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & SUB_MASK);
+    }
+
+    /**
+     * 获取桶内的最大值
+     *
+     * @param index 桶下标
+     * @return 包含的上界
+     */
+    public static long upperBoundOf(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index >> SUB_BITS) - 1;
+        long lower = (long) (SUB_COUNT + (index & SUB_MASK)) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,102 @@
+package group.rxcloud.vrml.core.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * 按时间轮转的桶环，只维护每个桶的时间段，桶内数据由使用方持有
+ * 新时间段的第一个写入者通过CAS将过期桶标记为清理中，重置数据后发布新的时间段；
+ * 清理期间写入者等待，读取者跳过该桶
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public final class TimeBuckets {
+
+    private static final long CLEARING = -1L;
+
+    private final AtomicLongArray epochs;
+    private final long bucketNanos;
+    private final long baseNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param windowNanos 窗口长度
+     * @param bucketCount 桶数量
+     * @param nanoClock   单调时钟
+     */
+    public TimeBuckets(long windowNanos, int bucketCount, LongSupplier nanoClock) {
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("Window buckets must be positive!");
+        }
+        this.epochs = new AtomicLongArray(bucketCount);
+        this.bucketNanos = Math.max(1L, windowNanos / bucketCount);
+        this.nanoClock = nanoClock;
+        this.baseNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * 当前时间段
+     *
+     * @return 时间段
+     */
+    public long epoch() {
+        return (nanoClock.getAsLong() - baseNanos) / bucketNanos;
+    }
+
+    /**
+     * 获取写入该时间段的桶，桶中是更早的时间段时先重置
+     *
+     * @param epoch 时间段
+     * @param clear 重置桶下标对应的数据
+     * @return 桶下标
+     */
+    public int acquire(long epoch, IntConsumer clear) {
+        int bucket = (int) (epoch % epochs.length());
+        for (; ; ) {
+            long tag = epochs.get(bucket);
+            if (tag >= epoch) {
+                // 读取时钟较晚的写入者写入更新的时间段
+                return bucket;
+            }
+            if (tag == CLEARING) {
+                Thread.yield();
+                continue;
+            }
+            if (epochs.compareAndSet(bucket, tag, CLEARING)) {
+                clear.accept(bucket);
+                epochs.set(bucket, epoch);
+                return bucket;
+            }
+        }
+    }
+
+    /**
+     * 桶是否属于截止到该时间段的窗口
+     *
+     * @param bucket 桶下标
+     * @param epoch  当前时间段
+     * @return true表示应读取该桶
+     */
+    public boolean isLive(int bucket, long epoch) {
+        long tag = epochs.get(bucket);
+        return tag != CLEARING && epoch - tag < epochs.length();
+    }
+
+    public int size() {
+        return epochs.length();
+    }
+
+    public long bucketNanos() {
+        return bucketNanos;
+    }
+
+    public long nanoTime() {
+        return nanoClock.getAsLong();
+    }
+
+    public long memoryBytes() {
+        return epochs.length() * 8L;
+    }
+}
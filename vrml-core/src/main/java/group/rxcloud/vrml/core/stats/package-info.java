@@ -0,0 +1,14 @@
+/**
+ * VRML统计基础结构包
+ *
+ * <p>供各模块的直方图和滑动窗口共用的无锁结构：</p>
+ *
+ * <ul>
+ *   <li>{@link group.rxcloud.vrml.core.stats.LogLinearBuckets} - 对数线性分桶</li>
+ *   <li>{@link group.rxcloud.vrml.core.stats.TimeBuckets} - 按时间轮转的桶环</li>
+ * </ul>
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+package group.rxcloud.vrml.core.stats;
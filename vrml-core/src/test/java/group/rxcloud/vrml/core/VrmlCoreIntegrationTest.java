@@ -3,6 +3,7 @@ package group.rxcloud.vrml.core;
 import group.rxcloud.vrml.core.api.AbstractVrmlOperations;
 import group.rxcloud.vrml.core.api.VrmlConfigurationManager;
 import group.rxcloud.vrml.core.integration.VrmlIntegrationManager;
+import group.rxcloud.vrml.core.spi.VrmlProvider;
 import group.rxcloud.vrml.core.spi.VrmlProviderRegistry;
 import io.vavr.control.Try;
 import org.junit.Before;
@@ -50,7 +51,7 @@ public class VrmlCoreIntegrationTest {
     
     @Test
     public void testAbstractOperationsWithConfiguration() {
-        TestOperations ops = new TestOperations()
+        TestOperations ops = (TestOperations) new TestOperations()
             .withMetrics("test.metric")
             .withTrace("test.trace");
         
@@ -88,7 +89,7 @@ public class VrmlCoreIntegrationTest {
         
         assertEquals(1, VrmlProviderRegistry.getProviders(TestProvider.class).size());
         
-        TestProvider found = VrmlProviderRegistry.getProvider(TestProvider.class, "test");
+        VrmlProvider<TestOperations, TestConfiguration> found = VrmlProviderRegistry.getProvider(TestProvider.class, "test");
         assertNotNull(found);
         assertEquals("test-provider", found.getName());
     }
@@ -117,7 +118,7 @@ public class VrmlCoreIntegrationTest {
     }
     
     // 测试用的提供者类
-    static class TestProvider implements group.rxcloud.vrml.core.spi.VrmlProvider<TestOperations, TestConfiguration> {
+    static class TestProvider implements VrmlProvider<TestOperations, TestConfiguration> {
         
         @Override
         public String getName() {
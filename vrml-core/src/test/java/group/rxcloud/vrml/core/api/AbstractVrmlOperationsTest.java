@@ -0,0 +1,144 @@
+package group.rxcloud.vrml.core.api;
+
+import group.rxcloud.vrml.core.integration.MetricsSink;
+import group.rxcloud.vrml.core.integration.VrmlMetricIntegration;
+import group.rxcloud.vrml.core.integration.VrmlTraceIntegration;
+import io.vavr.control.Try;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * AbstractVrmlOperations集成拦截链测试
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public class AbstractVrmlOperationsTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        VrmlMetricIntegration.setSink(null);
+        MDC.clear();
+    }
+
+    @Test
+    public void testFastPathWithoutIntegration() {
+        // Given: 未配置指标、追踪和错误处理
+        VrmlMetricIntegration.setSink(new RecordingSink());
+        TestOperations ops = new TestOperations();
+
+        // When
+        Try<String> result = ops.execute("get", () -> {
+            events.add("operation:" + VrmlTraceIntegration.getCurrentTraceId());
+            return Try.success("value");
+        });
+
+        // Then: 直接执行操作，不进入追踪也不记录指标
+        assertEquals("value", result.get());
+        assertEquals(1, events.size());
+        assertEquals("operation:null", events.get(0));
+    }
+
+    @Test
+    public void testErrorHandler() {
+        // Given
+        AtomicInteger handled = new AtomicInteger();
+        TestOperations ops = (TestOperations) new TestOperations()
+                .onError(throwable -> handled.incrementAndGet());
+
+        // When
+        Try<String> failure = ops.execute("get", () -> Try.failure(new IllegalStateException("failed")));
+        Try<String> success = ops.execute("get", () -> Try.success("value"));
+
+        // Then: 只有失败时调用错误处理器
+        assertTrue(failure.isFailure());
+        assertTrue(success.isSuccess());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    public void testChainOrder() {
+        // Given: 同时启用追踪、指标和错误处理
+        VrmlMetricIntegration.setSink(new RecordingSink());
+        TestOperations ops = (TestOperations) new TestOperations()
+                .withTrace("test")
+                .withMetrics("test")
+                .onError(throwable -> events.add("handler:" + (VrmlTraceIntegration.getCurrentTraceId() != null)));
+
+        // When
+        Try<String> result = ops.execute("get", () -> {
+            events.add("operation:" + VrmlTraceIntegration.getCurrentOperation());
+            return Try.failure(new IllegalStateException("failed"));
+        });
+
+        // Then: 追踪在最外层，指标包裹操作，错误处理器在指标之后、追踪之内执行
+        assertTrue(result.isFailure());
+        assertEquals(3, events.size());
+        assertEquals("operation:get", events.get(0));
+        assertEquals("time:test.get:false", events.get(1));
+        assertEquals("handler:true", events.get(2));
+        assertNull(VrmlTraceIntegration.getCurrentTraceId());
+    }
+
+    @Test
+    public void testDirectFieldChangeRebuildsChain() {
+        // Given: 子类直接修改配置字段而未调用compileIntegration
+        TestOperations ops = (TestOperations) new TestOperations().withMetrics("test");
+        VrmlMetricIntegration.setSink(new RecordingSink());
+        ops.metricName = "other";
+
+        // When
+        ops.execute("get", () -> Try.success("value"));
+
+        // Then: 使用新的指标名称
+        assertEquals(1, events.size());
+        assertEquals("time:other.get:true", events.get(0));
+    }
+
+    private static class TestOperations extends AbstractVrmlOperations {
+
+        TestOperations() {
+        }
+
+        TestOperations(TestOperations other) {
+            super(other);
+        }
+
+        @Override
+        protected AbstractVrmlOperations createCopy() {
+            return new TestOperations(this);
+        }
+
+        <T> Try<T> execute(String operationName, Supplier<Try<T>> operation) {
+            return executeWithIntegration(operationName, operation);
+        }
+    }
+
+    private class RecordingSink implements MetricsSink {
+
+        @Override
+        public void recordTime(String metricName, long durationNanos, boolean success) {
+            events.add("time:" + metricName + ":" + success);
+        }
+
+        @Override
+        public void recordCount(String metricName, boolean success) {
+            events.add("count:" + metricName + ":" + success);
+        }
+
+        @Override
+        public void recordGauge(String metricName, double value) {
+            events.add("gauge:" + metricName + ":" + value);
+        }
+    }
+}
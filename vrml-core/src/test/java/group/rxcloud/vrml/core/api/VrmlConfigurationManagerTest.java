@@ -33,6 +33,7 @@ public class VrmlConfigurationManagerTest {
         
         // 测试系统属性
         System.setProperty("test.key", "system.value");
+        VrmlConfigurationManager.clearCache();
         result = VrmlConfigurationManager.getString("test.key", "default");
         assertEquals("system.value", result);
         
@@ -47,11 +48,13 @@ public class VrmlConfigurationManagerTest {
         
         // 测试有效值
         System.setProperty("test.int", "200");
+        VrmlConfigurationManager.clearCache();
         result = VrmlConfigurationManager.getInt("test.int", 100);
         assertEquals(200, result);
         
         // 测试无效值
         System.setProperty("test.int", "invalid");
+        VrmlConfigurationManager.clearCache();
         result = VrmlConfigurationManager.getInt("test.int", 100);
         assertEquals(100, result);
         
@@ -66,16 +69,19 @@ public class VrmlConfigurationManagerTest {
         
         // 测试true值
         System.setProperty("test.bool", "true");
+        VrmlConfigurationManager.clearCache();
         result = VrmlConfigurationManager.getBoolean("test.bool", false);
         assertTrue(result);
         
         // 测试1值
         System.setProperty("test.bool", "1");
+        VrmlConfigurationManager.clearCache();
         result = VrmlConfigurationManager.getBoolean("test.bool", false);
         assertTrue(result);
         
         // 测试false值
         System.setProperty("test.bool", "false");
+        VrmlConfigurationManager.clearCache();
         result = VrmlConfigurationManager.getBoolean("test.bool", true);
         assertFalse(result);
         
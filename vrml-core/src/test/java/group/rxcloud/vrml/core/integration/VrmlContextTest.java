@@ -0,0 +1,97 @@
+package group.rxcloud.vrml.core.integration;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * VRML上下文传播测试
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public class VrmlContextTest {
+
+    private static ExecutorService executor;
+
+    @BeforeClass
+    public static void setUpClass() {
+        executor = VrmlContext.executorService(Executors.newSingleThreadExecutor());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Before
+    public void setUp() {
+        MDC.clear();
+    }
+
+    @After
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void testEmptyContextReturnsTaskAsIs() {
+        Runnable runnable = () -> {
+        };
+
+        VrmlContext context = VrmlContext.capture();
+
+        assertTrue(context.isEmpty());
+        assertSame(runnable, context.wrap(runnable));
+    }
+
+    @Test
+    public void testExecutorPropagatesAndRestoresMdc() throws Exception {
+        executor.submit(() -> MDC.put("leftover", "true")).get();
+        MDC.put("traceId", "t-1");
+
+        String seen = executor.submit(() -> MDC.get("traceId") + "," + MDC.get("leftover")).get();
+        MDC.clear();
+        String after = executor.submit(() -> MDC.get("leftover")).get();
+
+        assertEquals("t-1,null", seen);
+        assertEquals("true", after);
+    }
+
+    @Test
+    public void testCompletableFutureCallbacks() {
+        MDC.put("traceId", "t-2");
+        VrmlContext context = VrmlContext.capture();
+        MDC.clear();
+
+        String result = VrmlContext.supplyAsync(() -> MDC.get("traceId"), executor)
+                .thenApplyAsync(context.wrapFunction(value -> value + "," + MDC.get("traceId")), executor)
+                .join();
+
+        assertEquals("null,t-2", result);
+    }
+
+    @Test
+    public void testScopeRestoresInReverseOrder() {
+        MDC.put("traceId", "outer");
+        VrmlContext outer = VrmlContext.capture();
+        MDC.put("traceId", "inner");
+
+        try (VrmlContext.Scope ignored = outer.attach()) {
+            assertEquals("outer", MDC.get("traceId"));
+        }
+
+        assertEquals("inner", MDC.get("traceId"));
+        assertFalse(outer.isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package group.rxcloud.vrml.core.integration;
+
+import io.vavr.control.Try;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * VRML监控集成测试
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public class VrmlMetricIntegrationTest {
+
+    private final RecordingSink recordingSink = new RecordingSink();
+
+    @After
+    public void tearDown() {
+        VrmlMetricIntegration.setSink(null);
+    }
+
+    @Test
+    public void testFallbackToLoggingSink() {
+        // 不依赖测试类路径上实际注册的实现
+        assertSame(LoggingMetricsSink.INSTANCE, VrmlMetricIntegration.selectSink(Collections.emptyList()));
+
+        // 降级实现不应抛出异常
+        LoggingMetricsSink.INSTANCE.recordCount("test.count", true);
+        LoggingMetricsSink.INSTANCE.recordGauge("test.gauge", 1.0);
+    }
+
+    @Test
+    public void testSelectHighestPrioritySink() {
+        RecordingSink preferred = new RecordingSink() {
+            @Override
+            public int getPriority() {
+                return 1;
+            }
+        };
+
+        MetricsSink selected = VrmlMetricIntegration.selectSink(Arrays.asList(recordingSink, preferred));
+
+        assertSame(preferred, selected);
+    }
+
+    @Test
+    public void testSetSinkNullRediscovers() {
+        VrmlMetricIntegration.setSink(recordingSink);
+        VrmlMetricIntegration.setSink(null);
+
+        assertNotSame(recordingSink, VrmlMetricIntegration.getSink());
+        assertNotNull(VrmlMetricIntegration.getSink());
+    }
+
+    @Test
+    public void testRecordTimeWithSink() {
+        VrmlMetricIntegration.setSink(recordingSink);
+
+        Try<String> success = VrmlMetricIntegration.recordTime("test.time", () -> Try.success("ok"));
+        Try<String> failure = VrmlMetricIntegration.recordTime("test.time",
+            () -> Try.failure(new IllegalStateException("failed")));
+        VrmlMetricIntegration.recordTime("test.duration", Duration.ofMillis(5));
+
+        assertEquals("ok", success.get());
+        assertTrue(failure.isFailure());
+        assertEquals(3, recordingSink.events.size());
+        assertEquals("time:test.time:true", recordingSink.events.get(0));
+        assertEquals("time:test.time:false", recordingSink.events.get(1));
+        assertEquals("time:test.duration:true", recordingSink.events.get(2));
+    }
+
+    @Test
+    public void testRecordCountAndGaugeWithSink() {
+        VrmlMetricIntegration.setSink(recordingSink);
+
+        VrmlMetricIntegration.recordCount("test.count", false);
+        VrmlMetricIntegration.recordGauge("test.gauge", 2.5);
+
+        assertEquals("count:test.count:false", recordingSink.events.get(0));
+        assertEquals("gauge:test.gauge:2.5", recordingSink.events.get(1));
+    }
+
+    @Test
+    public void testSinkFailureDoesNotBreakOperation() {
+        VrmlMetricIntegration.setSink(new RecordingSink() {
+            @Override
+            public void recordTime(String metricName, long durationNanos, boolean success) {
+                throw new IllegalStateException("sink failed");
+            }
+        });
+
+        Try<String> result = VrmlMetricIntegration.recordTime("test.time", () -> Try.success("ok"));
+
+        assertEquals("ok", result.get());
+    }
+
+    private static class RecordingSink implements MetricsSink {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void recordTime(String metricName, long durationNanos, boolean success) {
+            events.add("time:" + metricName + ":" + success);
+        }
+
+        @Override
+        public void recordCount(String metricName, boolean success) {
+            events.add("count:" + metricName + ":" + success);
+        }
+
+        @Override
+        public void recordGauge(String metricName, double value) {
+            events.add("gauge:" + metricName + ":" + value);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package group.rxcloud.vrml.core.integration;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * VRML链路追踪集成测试
+ *
+ * @author VRML Team
+ * @since 1.2.0
+ */
+public class VrmlTraceIntegrationTest {
+
+    @After
+    public void tearDown() {
+        VrmlTraceIntegration.setBackend(null);
+        MDC.clear();
+    }
+
+    @Test
+    public void testGeneratedIdsAreLowerHex() {
+        String traceId = TraceIds.newTraceId();
+        String spanId = TraceIds.newSpanId();
+
+        assertEquals(TraceIds.TRACE_ID_LENGTH, traceId.length());
+        assertEquals(TraceIds.SPAN_ID_LENGTH, spanId.length());
+        assertTrue(traceId.matches("[0-9a-f]{32}"));
+        assertTrue(spanId.matches("[0-9a-f]{16}"));
+        assertNotEquals(traceId, TraceIds.newTraceId());
+    }
+
+    @Test
+    public void testWithTraceRestoresMdc() {
+        MDC.put("traceId", "outer");
+
+        String inner = VrmlTraceIntegration.withTrace("cache.get", VrmlTraceIntegration::getCurrentTraceId);
+
+        assertEquals(TraceIds.TRACE_ID_LENGTH, inner.length());
+        assertEquals("outer", VrmlTraceIntegration.getCurrentTraceId());
+        assertNull(VrmlTraceIntegration.getCurrentSpanId());
+        assertNull(VrmlTraceIntegration.getCurrentOperation());
+    }
+
+    @Test
+    public void testFallbackToMdcBackend() {
+        assertSame(MdcTraceBackend.INSTANCE, VrmlTraceIntegration.getBackend());
+
+        VrmlTraceIntegration.setTag("orderId", "o-1");
+        assertEquals("o-1", MDC.get("orderId"));
+
+        VrmlTraceIntegration.removeTag("orderId");
+        assertNull(MDC.get("orderId"));
+    }
+
+    @Test
+    public void testCustomBackendReceivesTags() {
+        List<String> events = new ArrayList<>();
+        VrmlTraceIntegration.setBackend(new TraceBackend() {
+            @Override
+            public void tag(String key, String value) {
+                events.add(key);
+            }
+
+            @Override
+            public void remove(String key) {
+                events.add("-" + key);
+            }
+        });
+
+        VrmlTraceIntegration.withTrace("cache.put", () -> null);
+
+        assertEquals(6, events.size());
+        assertEquals("traceId", events.get(0));
+        assertEquals("spanId", events.get(1));
+        assertEquals("operation", events.get(2));
+        assertEquals("-traceId", events.get(3));
+        assertEquals("-spanId", events.get(4));
+        assertEquals("-operation", events.get(5));
+    }
+
+    @Test
+    public void testCustomBackendRestoredAfterNestedTrace() {
+        Map<String, String> tags = new HashMap<>();
+        VrmlTraceIntegration.setBackend(new TraceBackend() {
+            @Override
+            public void tag(String key, String value) {
+                tags.put(key, value);
+            }
+
+            @Override
+            public void remove(String key) {
+                tags.remove(key);
+            }
+        });
+
+        String outer = VrmlTraceIntegration.withTrace("outer", () -> {
+            VrmlTraceIntegration.withTrace("inner", () -> null);
+            return tags.get("operation");
+        });
+
+        assertEquals("outer", outer);
+        assertTrue(tags.isEmpty());
+    }
+}
@@ -35,7 +35,7 @@ public class VrmlProviderRegistryTest {
         TestProvider provider = new TestProvider("test", "test-type", 50);
         VrmlProviderRegistry.registerProvider(TestProvider.class, provider);
         
-        List<TestProvider> providers = VrmlProviderRegistry.getProviders(TestProvider.class);
+        List<VrmlProvider<TestOperations, TestConfiguration>> providers = VrmlProviderRegistry.getProviders(TestProvider.class);
         assertEquals(1, providers.size());
         assertEquals("test", providers.get(0).getName());
     }
@@ -48,7 +48,7 @@ public class VrmlProviderRegistryTest {
         VrmlProviderRegistry.registerProvider(TestProvider.class, provider1);
         VrmlProviderRegistry.registerProvider(TestProvider.class, provider2);
         
-        TestProvider found = VrmlProviderRegistry.getProvider(TestProvider.class, "type1");
+        VrmlProvider<TestOperations, TestConfiguration> found = VrmlProviderRegistry.getProvider(TestProvider.class, "type1");
         assertNotNull(found);
         assertEquals("provider1", found.getName());
         
@@ -65,7 +65,7 @@ public class VrmlProviderRegistryTest {
         VrmlProviderRegistry.registerProvider(TestProvider.class, provider2);
         
         // 默认应该返回优先级最高的（数值最小）
-        TestProvider defaultProvider = VrmlProviderRegistry.getDefaultProvider(TestProvider.class);
+        VrmlProvider<TestOperations, TestConfiguration> defaultProvider = VrmlProviderRegistry.getDefaultProvider(TestProvider.class);
         assertNotNull(defaultProvider);
         assertEquals("provider2", defaultProvider.getName());
         
@@ -83,7 +83,7 @@ public class VrmlProviderRegistryTest {
         VrmlProviderRegistry.registerProvider(TestProvider.class, healthyProvider);
         VrmlProviderRegistry.registerProvider(TestProvider.class, unhealthyProvider);
         
-        List<TestProvider> healthyProviders = VrmlProviderRegistry.getHealthyProviders(TestProvider.class);
+        List<VrmlProvider<TestOperations, TestConfiguration>> healthyProviders = VrmlProviderRegistry.getHealthyProviders(TestProvider.class);
         assertEquals(1, healthyProviders.size());
         assertEquals("healthy", healthyProviders.get(0).getName());
     }
@@ -1,5 +1,6 @@
 package group.rxcloud.vrml.eventbus.publisher;
 
+import group.rxcloud.vrml.core.integration.VrmlContext;
 import group.rxcloud.vrml.core.serialization.Serialization;
 import group.rxcloud.vrml.eventbus.event.AsyncEventBusEvent;
 import org.slf4j.Logger;
@@ -73,7 +74,7 @@ public abstract class AbstractAsyncEventPublisher<Type extends AsyncEventBusEven
     public void publishEventAsync(Type event) {
         Optional<Type> cloneEventOp = this.tryCloneEvent(event);
         cloneEventOp.ifPresent(cloneEvent ->
-                getExecutorService().submit(wrapRunnable(cloneEvent)));
+                getExecutorService().submit(VrmlContext.propagate(wrapRunnable(cloneEvent))));
     }
 
     protected Runnable wrapRunnable(Type cloneEvent) {
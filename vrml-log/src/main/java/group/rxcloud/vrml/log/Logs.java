@@ -6,14 +6,9 @@ import io.vavr.Lazy;
 import io.vavr.control.Try;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.slf4j.Marker;
-import org.springframework.util.CollectionUtils;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * Logs module.
@@ -22,6 +17,15 @@ public final class Logs implements Logger {
 
     private static final String KEY_TAG = "key";
 
+    /**
+     * Level bits of {@link LevelMask}
+     */
+    private static final int TRACE = 1;
+    private static final int DEBUG = 1 << 1;
+    private static final int INFO = 1 << 2;
+    private static final int WARN = 1 << 3;
+    private static final int ERROR = 1 << 4;
+
     /**
      * Logs factory
      */
@@ -60,6 +64,11 @@ public final class Logs implements Logger {
      * Logs level configuration by key
      */
     private Lazy<LogsConfiguration> configuration;
+    /**
+     * Enabled levels of the key, recomputed when {@link LogsConfiguration#configVersion()} changes.
+     * Immutable, so racy publication is safe and no volatile is needed.
+     */
+    private LevelMask levelMask;
 
     /**
      * Create delegate {@link Logger}
@@ -108,6 +117,7 @@ public final class Logs implements Logger {
         if (this.key == null) {
             // init
             this.key = key;
+            this.levelMask = null;
             logs = this;
         } else {
             if (this.key.equalsIgnoreCase(key)) {
@@ -165,6 +175,59 @@ public final class Logs implements Logger {
         });
     }
 
+    // -- Level
+
+    /**
+     * Check the level against the cached mask, one volatile read and one bit test when the config is unchanged.
+     *
+     * @param level the level bit
+     * @return {@code true} if enabled by {@link #configuration}
+     */
+    private boolean isLevelEnabled(int level) {
+        final long version = LogsConfiguration.configVersion();
+        LevelMask mask = this.levelMask;
+        if (mask == null || mask.version != version) {
+            mask = this.computeLevelMask(version);
+        }
+        return (mask.mask & level) != 0;
+    }
+
+    private LevelMask computeLevelMask(long version) {
+        final LogsConfiguration config = configuration.get();
+        int mask = 0;
+        if (config.isTraceEnabled(key)) {
+            mask |= TRACE;
+        }
+        if (config.isDebugEnabled(key)) {
+            mask |= DEBUG;
+        }
+        if (config.isInfoEnabled(key)) {
+            mask |= INFO;
+        }
+        if (config.isWarnEnabled(key)) {
+            mask |= WARN;
+        }
+        if (config.isErrorEnabled(key)) {
+            mask |= ERROR;
+        }
+        final LevelMask levelMask = new LevelMask(version, mask);
+        this.levelMask = levelMask;
+        return levelMask;
+    }
+
+    /**
+     * Enabled levels at a config version.
+     */
+    private static final class LevelMask {
+        private final long version;
+        private final int mask;
+
+        private LevelMask(long version, int mask) {
+            this.version = version;
+            this.mask = mask;
+        }
+    }
+
     // -- Tag
 
     /**
@@ -209,17 +272,22 @@ public final class Logs implements Logger {
     /**
      * The Logs tag helper.
      * <p>
-     * use {@code MDC} in {@code ThreadLocal}
+     * use {@code MDC} in {@code ThreadLocal}, the previous values are restored by {@link #close()} or after
+     * {@link #build(Consumer)}. Use with try-with-resources:
+     * <pre>
+     * try (LogsTagHelper tags = logs.tag("orderId", orderId)) {
+     *     logs.info("...");
+     * }
+     * </pre>
      */
-    public static final class LogsTagHelper {
+    public static final class LogsTagHelper implements AutoCloseable {
 
         private final Logs logs;
-        private final Map<String, String> tags;
-        private boolean clear = false;
+        private final MdcScope scope;
 
         private LogsTagHelper(Logs logs) {
             this.logs = logs;
-            this.tags = new HashMap<>(2);
+            this.scope = MdcScope.open();
         }
 
         /**
@@ -230,35 +298,26 @@ public final class Logs implements Logger {
          * @return the logs tag helper
          */
         public LogsTagHelper tag(String key, String value) {
-            MDC.put(key, value);
-            tags.put(key, value);
+            scope.put(key, value);
             return this;
         }
 
         /**
-         * Do log process, andThen remove tag keys from {@code MDC}.
+         * Do log process, andThen restore tag keys in {@code MDC}.
          *
          * @param logsConsumer the logs consumer
          */
         public void build(Consumer<Logs> logsConsumer) {
             Try.run(() -> logsConsumer.accept(logs))
-                    .andFinally(this::removeTempTags);
-        }
-
-        private void removeTempTags() {
-            tags.forEach((tagKey, value) -> MDC.remove(tagKey));
-            clear = true;
+                    .andFinally(scope::close);
         }
 
         /**
-         * When you forget to remove MDC, take error to notify
+         * Restore tag keys in {@code MDC}.
          */
         @Override
-        protected void finalize() throws Throwable {
-            if (!clear && !CollectionUtils.isEmpty(tags)) {
-                String tagsInfo = tags.entrySet().stream().map(entry -> entry.getKey() + "=" + entry.getValue()).collect(Collectors.joining(","));
-                logs.error("[LogsTagHelper.finalize] you haven't remove tags[{}] from MDC.", tagsInfo);
-            }
+        public void close() {
+            scope.close();
         }
     }
 
@@ -274,7 +333,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isTraceEnabled() {
-        return log.isTraceEnabled() && configuration.get().isTraceEnabled(key);
+        return isLevelEnabled(TRACE) && log.isTraceEnabled();
     }
 
     @Override
@@ -317,7 +376,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isTraceEnabled(Marker marker) {
-        return log.isTraceEnabled(marker) && configuration.get().isTraceEnabled(key);
+        return isLevelEnabled(TRACE) && log.isTraceEnabled(marker);
     }
 
     @Override
@@ -360,7 +419,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isDebugEnabled() {
-        return log.isDebugEnabled() && configuration.get().isDebugEnabled(key);
+        return isLevelEnabled(DEBUG) && log.isDebugEnabled();
     }
 
     @Override
@@ -403,7 +462,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isDebugEnabled(Marker marker) {
-        return log.isDebugEnabled(marker) && configuration.get().isDebugEnabled(key);
+        return isLevelEnabled(DEBUG) && log.isDebugEnabled(marker);
     }
 
     @Override
@@ -446,7 +505,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isInfoEnabled() {
-        return log.isInfoEnabled() && configuration.get().isInfoEnabled(key);
+        return isLevelEnabled(INFO) && log.isInfoEnabled();
     }
 
     @Override
@@ -489,7 +548,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isInfoEnabled(Marker marker) {
-        return log.isInfoEnabled(marker) && configuration.get().isInfoEnabled(key);
+        return isLevelEnabled(INFO) && log.isInfoEnabled(marker);
     }
 
     @Override
@@ -532,7 +591,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isWarnEnabled() {
-        return log.isWarnEnabled() && configuration.get().isWarnEnabled(key);
+        return isLevelEnabled(WARN) && log.isWarnEnabled();
     }
 
     @Override
@@ -575,7 +634,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isWarnEnabled(Marker marker) {
-        return log.isWarnEnabled(marker) && configuration.get().isWarnEnabled(key);
+        return isLevelEnabled(WARN) && log.isWarnEnabled(marker);
     }
 
     @Override
@@ -618,7 +677,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isErrorEnabled() {
-        return log.isErrorEnabled() && configuration.get().isErrorEnabled(key);
+        return isLevelEnabled(ERROR) && log.isErrorEnabled();
     }
 
     @Override
@@ -661,7 +720,7 @@ public final class Logs implements Logger {
      */
     @Override
     public boolean isErrorEnabled(Marker marker) {
-        return log.isErrorEnabled(marker) && configuration.get().isErrorEnabled(key);
+        return isLevelEnabled(ERROR) && log.isErrorEnabled(marker);
     }
 
     @Override
@@ -0,0 +1,257 @@
+package group.rxcloud.vrml.log;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code MDC} tags scope, restores the previous {@code MDC} values on {@link #close()}.
+ * <p>
+ * The tagged keys and their previous values are kept in a small per-thread array stack instead of a map per scope,
+ * so a scope costs one small object without finalizer. Scopes of a thread must be closed in reverse order of opening,
+ * closing an outer scope also unwinds the inner ones that were left open.
+ * Scopes never closed, like a legacy {@code logs.tag(...)} without close or build, cannot grow the stack without
+ * bound: past {@value Stack#MAX_DEPTH} entries the oldest half is dropped and their keys are no longer restored.
+ * <p>
+ * Leak detection is optional and sampled: one of every {@link #setLeakDetectionInterval(int) interval} scopes is
+ * tracked by a phantom reference, and a tracked scope collected without close is reported as an error.
+ * Default interval comes from system property {@code vrml.logs.mdc.leakDetectionInterval}, {@code 0} disables it.
+ */
+public final class MdcScope implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MdcScope.class);
+
+    private static final ThreadLocal<Stack> STACK = ThreadLocal.withInitial(Stack::new);
+
+    private static volatile int leakDetectionInterval = Integer.getInteger("vrml.logs.mdc.leakDetectionInterval", 0);
+
+    private final Stack stack;
+    private final long start;
+    private final LeakDetector.Tracker tracker;
+    private boolean closed;
+
+    private MdcScope(Stack stack) {
+        this.stack = stack;
+        this.start = stack.depth();
+        this.tracker = LeakDetector.track(this);
+    }
+
+    /**
+     * Open an empty scope on the current thread.
+     *
+     * @return the scope
+     */
+    public static MdcScope open() {
+        return new MdcScope(STACK.get());
+    }
+
+    /**
+     * Open a scope with one tag.
+     *
+     * @param key   the tag key
+     * @param value the tag value
+     * @return the scope
+     */
+    public static MdcScope open(String key, String value) {
+        return open().put(key, value);
+    }
+
+    /**
+     * Put the tag into {@code MDC}, remembering the previous value.
+     *
+     * @param key   the tag key
+     * @param value the tag value
+     * @return this scope
+     */
+    public MdcScope put(String key, String value) {
+        if (closed || !stack.isOwner()) {
+            return this;
+        }
+        stack.push(key, MDC.get(key));
+        MDC.put(key, value);
+        if (tracker != null) {
+            tracker.tagged(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Restore the previous {@code MDC} values of all keys tagged since this scope was opened.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (tracker != null) {
+            tracker.closed();
+        }
+        if (!stack.isOwner()) {
+            log.warn("[Vrml]MdcScope closed by another thread, MDC of the owner thread is left unchanged.");
+            return;
+        }
+        stack.restoreTo(start);
+    }
+
+    /**
+     * Leak detection sampling interval.
+     *
+     * @param interval track one of every {@code interval} scopes, {@code 0} disables leak detection
+     */
+    public static void setLeakDetectionInterval(int interval) {
+        leakDetectionInterval = Math.max(0, interval);
+    }
+
+    /**
+     * Number of tracked scopes detected as never closed.
+     *
+     * @return the leak count
+     */
+    public static long getLeakCount() {
+        return LeakDetector.LEAKS.sum();
+    }
+
+    /**
+     * Number of previous values held for the current thread.
+     *
+     * @return the held entries
+     */
+    static int heldEntries() {
+        return STACK.get().size;
+    }
+
+    /**
+     * Per-thread stack of tagged keys and their previous values.
+     */
+    private static final class Stack {
+
+        private static final int INITIAL_CAPACITY = 8;
+        private static final int MAX_DEPTH = 256;
+
+        private final Thread owner = Thread.currentThread();
+        private String[] keys = new String[INITIAL_CAPACITY];
+        private String[] previous = new String[INITIAL_CAPACITY];
+        private int size;
+
+        /**
+         * Entries dropped from the bottom, scopes keep their start as {@code dropped + size}
+         */
+        private long dropped;
+
+        private boolean isOwner() {
+            return owner == Thread.currentThread();
+        }
+
+        private long depth() {
+            return dropped + size;
+        }
+
+        private void push(String key, String previousValue) {
+            if (size == MAX_DEPTH) {
+                this.dropOldest();
+            } else if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size << 1);
+                previous = Arrays.copyOf(previous, size << 1);
+            }
+            keys[size] = key;
+            previous[size] = previousValue;
+            size++;
+        }
+
+        private void dropOldest() {
+            int drop = size >> 1;
+            if (dropped == 0) {
+                log.warn("[Vrml]MdcScope over {} tags on thread[{}], scopes are left open, the oldest {} tags "
+                        + "will not be restored.", MAX_DEPTH, owner.getName(), drop);
+            }
+            System.arraycopy(keys, drop, keys, 0, size - drop);
+            System.arraycopy(previous, drop, previous, 0, size - drop);
+            Arrays.fill(keys, size - drop, size, null);
+            Arrays.fill(previous, size - drop, size, null);
+            size -= drop;
+            dropped += drop;
+        }
+
+        private void restoreTo(long start) {
+            long target = Math.max(0L, start - dropped);
+            while (size > target) {
+                size--;
+                if (previous[size] == null) {
+                    MDC.remove(keys[size]);
+                } else {
+                    MDC.put(keys[size], previous[size]);
+                }
+                keys[size] = null;
+                previous[size] = null;
+            }
+        }
+    }
+
+    /**
+     * Sampled leak detection by phantom references, polled when scopes are opened.
+     */
+    private static final class LeakDetector {
+
+        private static final ReferenceQueue<MdcScope> QUEUE = new ReferenceQueue<>();
+
+        /**
+         * Keep trackers reachable until their scope is closed or collected
+         */
+        private static final Set<Tracker> TRACKED = ConcurrentHashMap.newKeySet();
+
+        private static final LongAdder LEAKS = new LongAdder();
+
+        private static Tracker track(MdcScope scope) {
+            final int interval = leakDetectionInterval;
+            if (interval <= 0 || ThreadLocalRandom.current().nextInt(interval) != 0) {
+                return null;
+            }
+            report();
+            Tracker tracker = new Tracker(scope);
+            TRACKED.add(tracker);
+            return tracker;
+        }
+
+        private static void report() {
+            Reference<? extends MdcScope> reference;
+            while ((reference = QUEUE.poll()) != null) {
+                Tracker tracker = (Tracker) reference;
+                if (TRACKED.remove(tracker)) {
+                    LEAKS.increment();
+                    log.error("[Vrml]MdcScope was never closed, tags[{}] were not removed from MDC.", tracker.tags);
+                }
+            }
+        }
+
+        private static final class Tracker extends PhantomReference<MdcScope> {
+
+            private final StringBuilder tags = new StringBuilder();
+
+            private Tracker(MdcScope scope) {
+                super(scope, QUEUE);
+            }
+
+            private void tagged(String key, String value) {
+                if (tags.length() > 0) {
+                    tags.append(',');
+                }
+                tags.append(key).append('=').append(value);
+            }
+
+            private void closed() {
+                TRACKED.remove(this);
+                clear();
+            }
+        }
+    }
+}
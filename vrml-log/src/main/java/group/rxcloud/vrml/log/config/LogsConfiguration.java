@@ -1,11 +1,32 @@
 package group.rxcloud.vrml.log.config;
 
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The interface Logs configuration.
+ * <p>
+ * {@code Logs} caches the enabled levels of its key and only asks the configuration again
+ * after the global config version changed, so implementations with dynamic config
+ * must call {@link #configChanged()} whenever the level config is updated.
  */
 public interface LogsConfiguration {
 
+    /**
+     * Notify all {@code Logs} that the level config changed.
+     */
+    static void configChanged() {
+        LogsModule.CONFIG_VERSION.incrementAndGet();
+    }
+
+    /**
+     * Current global config version.
+     *
+     * @return the config version
+     */
+    static long configVersion() {
+        return LogsModule.CONFIG_VERSION.get();
+    }
+
     /**
      * Is trace enabled.
      *
@@ -108,3 +129,18 @@ public interface LogsConfiguration {
     }
 }
 
+// -- LOGS MODULE
+
+/**
+ * The Logs package module.
+ */
+final class LogsModule {
+
+    /**
+     * The global config version, bumped by {@link LogsConfiguration#configChanged()}.
+     */
+    static final AtomicLong CONFIG_VERSION = new AtomicLong();
+
+    private LogsModule() {
+    }
+}
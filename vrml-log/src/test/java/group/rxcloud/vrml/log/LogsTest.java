@@ -1,5 +1,95 @@
 package group.rxcloud.vrml.log;
 
+import group.rxcloud.vrml.core.beans.SpringContextConfigurator;
+import group.rxcloud.vrml.log.config.LogsConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
 public class LogsTest {
 
-}
\ No newline at end of file
+    private final CountingConfiguration configuration = new CountingConfiguration();
+
+    @Before
+    public void setUp() {
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("logsConfiguration", configuration);
+        context.refresh();
+        SpringContextConfigurator.setStaticApplicationContext(context);
+    }
+
+    @After
+    public void tearDown() {
+        SpringContextConfigurator.setStaticApplicationContext(null);
+    }
+
+    @Test
+    public void testLevelMaskCachedUntilConfigChanged() {
+        // Given
+        Logs logs = Logs.Factory.getLogs(LogsTest.class).key("order");
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertTrue(logs.isWarnEnabled());
+        }
+
+        // Then
+        assertEquals(1, configuration.warnChecks.get());
+    }
+
+    @Test
+    public void testConfigChangedInvalidatesMask() {
+        // Given
+        Logs logs = Logs.Factory.getLogs(LogsTest.class).key("order");
+        assertTrue(logs.isErrorEnabled());
+
+        // When
+        configuration.error = false;
+        boolean beforeNotify = logs.isErrorEnabled();
+        LogsConfiguration.configChanged();
+
+        // Then
+        assertTrue(beforeNotify);
+        assertFalse(logs.isErrorEnabled());
+        assertEquals(2, configuration.errorChecks.get());
+    }
+
+    private static final class CountingConfiguration implements LogsConfiguration {
+
+        private final AtomicInteger warnChecks = new AtomicInteger();
+        private final AtomicInteger errorChecks = new AtomicInteger();
+        private volatile boolean error = true;
+
+        @Override
+        public boolean isTraceEnabled(String key) {
+            return false;
+        }
+
+        @Override
+        public boolean isDebugEnabled(String key) {
+            return false;
+        }
+
+        @Override
+        public boolean isInfoEnabled(String key) {
+            return true;
+        }
+
+        @Override
+        public boolean isWarnEnabled(String key) {
+            warnChecks.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean isErrorEnabled(String key) {
+            errorChecks.incrementAndGet();
+            return error;
+        }
+    }
+}
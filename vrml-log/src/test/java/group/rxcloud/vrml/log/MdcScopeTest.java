@@ -0,0 +1,125 @@
+package group.rxcloud.vrml.log;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * The MdcScope test.
+ */
+public class MdcScopeTest {
+
+    @After
+    public void tearDown() {
+        MDC.clear();
+        MdcScope.setLeakDetectionInterval(0);
+    }
+
+    @Test
+    public void testCloseRestoresPreviousValues() {
+        // Given
+        MDC.put("traceId", "outer");
+
+        // When
+        try (MdcScope scope = MdcScope.open("traceId", "inner").put("orderId", "o-1")) {
+            // Then
+            assertEquals("inner", MDC.get("traceId"));
+            assertEquals("o-1", MDC.get("orderId"));
+        }
+        assertEquals("outer", MDC.get("traceId"));
+        assertNull(MDC.get("orderId"));
+    }
+
+    @Test
+    public void testNestedScopesUnwindInOrder() {
+        // Given
+        MdcScope outer = MdcScope.open("key", "outer");
+        MdcScope inner = MdcScope.open("key", "inner");
+
+        // When
+        assertEquals("inner", MDC.get("key"));
+        inner.close();
+
+        // Then
+        assertEquals("outer", MDC.get("key"));
+        outer.close();
+        assertNull(MDC.get("key"));
+    }
+
+    @Test
+    public void testOuterCloseUnwindsLeftOpenInner() {
+        // Given
+        MdcScope outer = MdcScope.open("a", "1");
+        MdcScope.open("b", "2");
+
+        // When
+        outer.close();
+
+        // Then
+        assertNull(MDC.get("a"));
+        assertNull(MDC.get("b"));
+    }
+
+    @Test
+    public void testUnclosedLegacyTagsStayBounded() {
+        // Given
+        Logs logs = Logs.Factory.getLogs(MdcScopeTest.class).key("test");
+        int held = MdcScope.heldEntries();
+        MdcScope outer = MdcScope.open("requestId", "r-1");
+
+        // When: legacy tags are never closed
+        for (int i = 0; i < 10_000; i++) {
+            logs.tag("orderId", "o-" + i);
+        }
+
+        // Then
+        assertTrue(MdcScope.heldEntries() <= 256);
+        assertEquals("o-9999", MDC.get("orderId"));
+        try (MdcScope inner = MdcScope.open("orderId", "inner")) {
+            assertEquals("inner", MDC.get("orderId"));
+        }
+        assertEquals("o-9999", MDC.get("orderId"));
+        outer.close();
+        assertTrue(MdcScope.heldEntries() <= held);
+    }
+
+    @Test
+    public void testTagHelperRestoresAfterBuild() {
+        // Given
+        Logs logs = Logs.Factory.getLogs(MdcScopeTest.class).key("test");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        // When
+        logs.tag("orderId", "o-1").build(l -> seen.set(MDC.get("orderId")));
+
+        // Then
+        assertEquals("o-1", seen.get());
+        assertNull(MDC.get("orderId"));
+    }
+
+    @Test
+    public void testSampledLeakDetection() throws InterruptedException {
+        // Given
+        MdcScope.setLeakDetectionInterval(1);
+        long before = MdcScope.getLeakCount();
+        leakScope();
+
+        // When
+        for (int i = 0; i < 50 && MdcScope.getLeakCount() == before; i++) {
+            System.gc();
+            Thread.sleep(20);
+            MdcScope.open().close();
+        }
+
+        // Then
+        assertTrue(MdcScope.getLeakCount() > before);
+    }
+
+    private static void leakScope() {
+        MdcScope.open("leaked", "true");
+    }
+}
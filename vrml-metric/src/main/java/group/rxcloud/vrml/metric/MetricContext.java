@@ -0,0 +1,282 @@
+package group.rxcloud.vrml.metric;
+
+import group.rxcloud.vrml.metric.config.MetricConfiguration;
+import group.rxcloud.vrml.metric.index.MetricIndex;
+import group.rxcloud.vrml.metric.store.MetricStore;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Explicit metric scope carrying its own index and store tags.
+ * <p>
+ * Obtained via {@link Metrics#open()} and closed by try-with-resources, which builds the pending tags
+ * and returns the context to a small per-thread pool, so the tag maps are reset and reused instead of reallocated.
+ * A context is not thread-safe but may be handed to another thread for async work,
+ * {@link #wrap(Runnable)} binds it as the current context there so the static {@link Metrics} API writes into it.
+ * <p>
+ * A closed context must not be used anymore, it may already be reused by another scope.
+ */
+public final class MetricContext implements AutoCloseable {
+
+    /**
+     * Recommend initial map size
+     */
+    private static final int RECOMMEND_INDEX_SIZE = 32;
+    private static final int RECOMMEND_STORE_SIZE = 8;
+
+    /**
+     * Max pooled contexts per thread
+     */
+    private static final int POOL_SIZE = 8;
+
+    private static final ThreadLocal<ArrayDeque<MetricContext>> POOL = ThreadLocal.withInitial(() -> new ArrayDeque<>(POOL_SIZE));
+
+    private Map<String, String> indexs = new HashMap<>(RECOMMEND_INDEX_SIZE);
+    private Map<String, String> stores = new HashMap<>(RECOMMEND_STORE_SIZE);
+
+    /**
+     * Whether the context was taken from the pool and not closed yet
+     */
+    private boolean pooled;
+
+    /**
+     * Create an unpooled context, prefer {@link Metrics#open()}.
+     */
+    public MetricContext() {
+    }
+
+    /**
+     * Take a context from the current thread pool.
+     *
+     * @return the context
+     */
+    static MetricContext acquire() {
+        MetricContext context = POOL.get().poll();
+        if (context == null) {
+            context = new MetricContext();
+        }
+        context.pooled = true;
+        return context;
+    }
+
+    // -- Metric Index
+
+    /**
+     * Index metric.
+     *
+     * @param metric the metric key
+     * @param value  the value
+     * @return this context
+     */
+    public MetricContext index(MetricIndex metric, String value) {
+        if (metric != null) {
+            indexs.put(metric.name(), value);
+        }
+        return this;
+    }
+
+    /**
+     * Index metric.
+     *
+     * @param metric the metric key
+     * @param value  the value
+     * @return this context
+     */
+    public MetricContext index(MetricIndex metric, Object value) {
+        if (metric != null && value != null) {
+            indexs.put(metric.name(), value.toString());
+        }
+        return this;
+    }
+
+    // -- Metric Store
+
+    /**
+     * Store metric.
+     *
+     * @param metric the metric key
+     * @param value  the value
+     * @return this context
+     */
+    public MetricContext store(MetricStore metric, String value) {
+        if (metric != null) {
+            stores.put(metric.name(), value);
+        }
+        return this;
+    }
+
+    /**
+     * Store metric.
+     *
+     * @param metric the metric key
+     * @param value  the value
+     * @return this context
+     */
+    public MetricContext store(MetricStore metric, Object value) {
+        if (metric != null && value != null) {
+            stores.put(metric.name(), value.toString());
+        }
+        return this;
+    }
+
+    // -- Metric Exception
+
+    /**
+     * Exception metric according to {@link MetricConfiguration#metricException()}.
+     *
+     * @param throwable the throwable
+     * @return this context
+     */
+    public MetricContext exception(Throwable throwable) {
+        if (throwable != null) {
+            Metrics.getConfiguration().metricException().apply(throwable, indexs, stores);
+        }
+        return this;
+    }
+
+    // -- Metric Object
+
+    /**
+     * Object metric.
+     *
+     * @param o the metric obj
+     * @return this context
+     */
+    public MetricContext object(Object o) {
+        Metrics.object(o, indexs, stores);
+        return this;
+    }
+
+    // -- Finally
+
+    /**
+     * Log tags according to {@link MetricConfiguration#metricFinally()} and reset the context for reuse.
+     */
+    public void build() {
+        try {
+            if (Metrics.publish(indexs, stores)) {
+                // the maps were handed over to the async pipeline
+                indexs = new HashMap<>(RECOMMEND_INDEX_SIZE);
+                stores = new HashMap<>(RECOMMEND_STORE_SIZE);
+            }
+        } finally {
+            reset();
+        }
+    }
+
+    /**
+     * Discard all tags.
+     */
+    public void reset() {
+        indexs.clear();
+        stores.clear();
+    }
+
+    /**
+     * Whether no tag has been recorded since the last build or reset.
+     *
+     * @return {@code true} if empty
+     */
+    public boolean isEmpty() {
+        return indexs.isEmpty() && stores.isEmpty();
+    }
+
+    /**
+     * Build the pending tags if any, then return the context to the pool.
+     */
+    @Override
+    public void close() {
+        try {
+            if (!isEmpty()) {
+                build();
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Discard the tags and return the context to the pool without building.
+     */
+    void release() {
+        reset();
+        if (pooled) {
+            pooled = false;
+            ArrayDeque<MetricContext> pool = POOL.get();
+            if (pool.size() < POOL_SIZE) {
+                pool.offer(this);
+            }
+        }
+    }
+
+    // -- Cross thread
+
+    /**
+     * Bind this context as the current context of the thread running the runnable.
+     *
+     * @param runnable the runnable
+     * @return the wrapped runnable
+     */
+    public Runnable wrap(Runnable runnable) {
+        return () -> {
+            final MetricContext previous = Metrics.bind(this);
+            try {
+                runnable.run();
+            } finally {
+                Metrics.bind(previous);
+            }
+        };
+    }
+
+    /**
+     * Bind this context as the current context of the thread running the callable.
+     *
+     * @param callable the callable
+     * @param <V>      the result type
+     * @return the wrapped callable
+     */
+    public <V> Callable<V> wrap(Callable<V> callable) {
+        return () -> {
+            final MetricContext previous = Metrics.bind(this);
+            try {
+                return callable.call();
+            } finally {
+                Metrics.bind(previous);
+            }
+        };
+    }
+
+    /**
+     * Copy the given tags into this context, used to start a child context from a captured snapshot.
+     *
+     * @param indexs the index tags
+     * @param stores the store tags
+     */
+    void inherit(Map<String, String> indexs, Map<String, String> stores) {
+        this.indexs.putAll(indexs);
+        this.stores.putAll(stores);
+    }
+
+    // -- Show
+
+    /**
+     * Show indexs map.
+     *
+     * @return a copy of the index tags
+     */
+    public Map<String, String> showIndexs() {
+        return new HashMap<>(indexs);
+    }
+
+    /**
+     * Show stores map.
+     *
+     * @return a copy of the store tags
+     */
+    public Map<String, String> showStores() {
+        return new HashMap<>(stores);
+    }
+}
@@ -0,0 +1,68 @@
+package group.rxcloud.vrml.metric;
+
+import group.rxcloud.vrml.core.integration.ContextPropagator;
+
+import java.util.Map;
+
+/**
+ * Propagates the current {@link MetricContext} across threads.
+ * <p>
+ * A copy of the tags is captured on the submitting thread, and each task runs in its own pooled child context
+ * started from that copy, so the submitter and the tasks never write the same maps.
+ * Tags added by the task stay in the child and are discarded when the task ends unless the task builds them,
+ * use {@link MetricContext#wrap(Runnable)} to explicitly share one context with a single task.
+ * Empty contexts are not propagated.
+ */
+public final class MetricContextPropagator implements ContextPropagator {
+
+    @Override
+    public Object capture() {
+        MetricContext current = Metrics.current();
+        return current.isEmpty() ? null : new Snapshot(current.showIndexs(), current.showStores());
+    }
+
+    @Override
+    public Object attach(Object captured) {
+        if (captured == null) {
+            return new Attached(Metrics.bind(null), null);
+        }
+        Snapshot snapshot = (Snapshot) captured;
+        MetricContext child = MetricContext.acquire();
+        child.inherit(snapshot.indexs, snapshot.stores);
+        return new Attached(Metrics.bind(child), child);
+    }
+
+    @Override
+    public void restore(Object previous) {
+        Attached attached = (Attached) previous;
+        Metrics.bind(attached.previous);
+        if (attached.child != null) {
+            attached.child.release();
+        }
+    }
+
+    /**
+     * Read-only copy of the submitter tags, may be attached to several threads at once
+     */
+    private static final class Snapshot {
+
+        private final Map<String, String> indexs;
+        private final Map<String, String> stores;
+
+        private Snapshot(Map<String, String> indexs, Map<String, String> stores) {
+            this.indexs = indexs;
+            this.stores = stores;
+        }
+    }
+
+    private static final class Attached {
+
+        private final MetricContext previous;
+        private final MetricContext child;
+
+        private Attached(MetricContext previous, MetricContext child) {
+            this.previous = previous;
+            this.child = child;
+        }
+    }
+}
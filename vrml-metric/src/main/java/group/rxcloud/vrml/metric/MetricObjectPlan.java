@@ -0,0 +1,151 @@
+package group.rxcloud.vrml.metric;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed {@link Metrics#object(Object)} plan of a {@link Metric} annotated class.
+ * <p>
+ * Annotation scanning and getter resolution run once per class, the plan keeps the fields to read,
+ * whether each goes to the index or the store map, the resolved key and a {@link MethodHandle} getter.
+ * Applying the plan is a loop of getter calls.
+ */
+final class MetricObjectPlan {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricObjectPlan.class);
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Plan for classes without {@link Metric} annotation
+     */
+    private static final MetricObjectPlan EMPTY = new MetricObjectPlan(new Accessor[0]);
+
+    /**
+     * Plans cached per class, released with the class loader
+     */
+    private static final ClassValue<MetricObjectPlan> PLANS = new ClassValue<MetricObjectPlan>() {
+        @Override
+        protected MetricObjectPlan computeValue(Class<?> type) {
+            return build(type);
+        }
+    };
+
+    private final Accessor[] accessors;
+
+    private MetricObjectPlan(Accessor[] accessors) {
+        this.accessors = accessors;
+    }
+
+    /**
+     * Get the plan of the class, built on first use.
+     *
+     * @param type the metric obj class type
+     * @return the plan
+     */
+    static MetricObjectPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /**
+     * Read all planned fields of the obj into the maps.
+     *
+     * @param o              metric obj
+     * @param metricIndexMap the index map values
+     * @param metricStoreMap the store map values
+     */
+    void apply(Object o, Map<String, String> metricIndexMap, Map<String, String> metricStoreMap) {
+        for (Accessor accessor : accessors) {
+            final Object value;
+            try {
+                value = accessor.getter.invokeExact(o);
+            } catch (Throwable e) {
+                log.warn("[Vrml]Metrics failed to read [{}], error[{}]", accessor.fieldName, e.getMessage(), e);
+                continue;
+            }
+            if (value == null) {
+                continue;
+            }
+            final String text = String.valueOf(value);
+            if (text.isEmpty()) {
+                continue;
+            }
+            if (accessor.index) {
+                metricIndexMap.put(accessor.key, text);
+            } else {
+                metricStoreMap.put(accessor.key, text);
+            }
+        }
+    }
+
+    private static MetricObjectPlan build(Class<?> type) {
+        if (type.getAnnotation(Metric.class) == null) {
+            return EMPTY;
+        }
+        final List<Accessor> accessors = new ArrayList<>();
+        for (Field field : FieldUtils.getAllFields(type)) {
+            Metric fieldAnnotation = field.getAnnotation(Metric.class);
+            // field annotation
+            if (fieldAnnotation != null) {
+                // ignore field
+                if (!fieldAnnotation.isMetric()) {
+                    continue;
+                }
+                String key = StringUtils.isEmpty(fieldAnnotation.key()) ? field.getName() : fieldAnnotation.key();
+                addAccessor(accessors, type, field, key, fieldAnnotation.isIndex());
+            }
+            // class annotation
+            else {
+                addAccessor(accessors, type, field, field.getName(), true);
+            }
+        }
+        return new MetricObjectPlan(accessors.toArray(new Accessor[0]));
+    }
+
+    private static void addAccessor(List<Accessor> accessors, Class<?> type, Field field, String key, boolean index) {
+        try {
+            PropertyDescriptor descriptor = new PropertyDescriptor(field.getName(), type);
+            Method readMethod = descriptor.getReadMethod();
+            if (readMethod == null) {
+                return;
+            }
+            if (!readMethod.isAccessible()) {
+                readMethod.setAccessible(true);
+            }
+            MethodHandle getter = MethodHandles.lookup().unreflect(readMethod).asType(GETTER_TYPE);
+            accessors.add(new Accessor(field.getName(), key, index, getter));
+        } catch (Exception e) {
+            log.warn("[Vrml]Metrics failed to resolve [{}] of [{}], error[{}]",
+                    field.getName(), type.getName(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolved field read.
+     */
+    private static final class Accessor {
+        private final String fieldName;
+        private final String key;
+        private final boolean index;
+        private final MethodHandle getter;
+
+        private Accessor(String fieldName, String key, boolean index, MethodHandle getter) {
+            this.fieldName = fieldName;
+            this.key = key;
+            this.index = index;
+            this.getter = getter;
+        }
+    }
+}
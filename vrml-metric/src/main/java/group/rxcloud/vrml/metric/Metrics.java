@@ -3,27 +3,28 @@ package group.rxcloud.vrml.metric;
 import group.rxcloud.vrml.core.beans.SpringContextConfigurator;
 import group.rxcloud.vrml.core.serialization.Serialization;
 import group.rxcloud.vrml.core.tags.Important;
-import group.rxcloud.vrml.core.tags.Todo;
+import group.rxcloud.vrml.metric.async.AsyncMetricPipeline;
 import group.rxcloud.vrml.metric.config.MetricConfiguration;
 import group.rxcloud.vrml.metric.index.MetricIndex;
+import group.rxcloud.vrml.metric.meter.Counter;
+import group.rxcloud.vrml.metric.meter.Gauge;
+import group.rxcloud.vrml.metric.meter.MeterRegistry;
+import group.rxcloud.vrml.metric.meter.Timer;
 import group.rxcloud.vrml.metric.store.MetricStore;
 import io.vavr.API;
 import io.vavr.CheckedRunnable;
 import io.vavr.control.Option;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 import static io.vavr.API.Case;
@@ -38,22 +39,10 @@ public final class Metrics {
     private static final Logger log = LoggerFactory.getLogger(Metrics.class);
 
     /**
-     * Recommend initial map size
+     * Async metrics pipeline, created on first async build
+     * {@link MetricConfiguration#asyncSwitch()}
      */
-    private static final int RECOMMEND_INDEX_SIZE = 32;
-    private static final int RECOMMEND_STORE_SIZE = 8;
-
-    /**
-     * Async metrics switch, currently unused
-     */
-    @Todo(todo = "Asynchronously execute closures")
-    private static boolean asyncLogging = false;
-
-    /**
-     * Async metrics executor, currently unused
-     */
-    @Todo(todo = "Asynchronously execute closures")
-    private static ExecutorService executor = null;
+    private static volatile AsyncMetricPipeline asyncPipeline;
 
     /**
      * Metrics configurator
@@ -79,21 +68,23 @@ public final class Metrics {
     }
 
     @Important(important = "The only way to get spring configuration. Avoid context not loading.")
-    private static MetricConfiguration getConfiguration() {
+    static MetricConfiguration getConfiguration() {
         Metrics.initSpringContextConfig();
         return configuration;
     }
 
     /**
-     * Thread local cache params map
+     * Thread bound default context, or the context bound by {@link MetricContext#wrap(Runnable)}
+     */
+    private static final ThreadLocal<MetricContext> CURRENT = ThreadLocal.withInitial(MetricContext::new);
+    /**
+     * Thread local contexts of {@link #local()} keys
      */
-    private static final ThreadLocal<Map<String, String>> INDEX_TAG = ThreadLocal.withInitial(HashMap::new);
-    private static final ThreadLocal<Map<String, String>> STORED_TAG = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, MetricContext>> KEY_CONTEXTS = ThreadLocal.withInitial(HashMap::new);
     /**
-     * Thread local cache multi params map
+     * Sequence of {@link #local()} keys
      */
-    private static final ThreadLocal<Map<String, Map<String, String>>> KEY_INDEX_TAG = ThreadLocal.withInitial(HashMap::new);
-    private static final ThreadLocal<Map<String, Map<String, String>>> KEY_STORED_TAG = ThreadLocal.withInitial(HashMap::new);
+    private static final AtomicLong KEY_SEQUENCE = new AtomicLong();
 
     /*
      * Option 1: add metric manually
@@ -122,11 +113,9 @@ public final class Metrics {
      */
     private static void call(CheckedRunnable runnable, boolean switchOpen) {
         if (switchOpen) {
-            if (asyncLogging) {
-                executor.submit(() -> runChecked(runnable));
-            } else {
-                runChecked(runnable);
-            }
+            // closures fill the thread local tags so they always run on the caller thread,
+            // only the finally build is asynchronous
+            runChecked(runnable);
         }
     }
 
@@ -142,17 +131,55 @@ public final class Metrics {
      * Option 2: add metric by automatic placeholder
      */
 
+    // -- Context
+
+    /**
+     * Open a pooled {@link MetricContext}, use with try-with-resources to build and recycle it.
+     *
+     * @return the context
+     */
+    public static MetricContext open() {
+        Metrics.initSpringContextConfig();
+        return MetricContext.acquire();
+    }
+
+    /**
+     * The context the static API of the current thread writes into.
+     *
+     * @return the current context
+     */
+    public static MetricContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind the context to the current thread.
+     *
+     * @param context the context, {@code null} restores the thread default context
+     * @return the previously bound context
+     */
+    static MetricContext bind(MetricContext context) {
+        final MetricContext previous = CURRENT.get();
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+        return previous;
+    }
+
     // -- Local scope key
 
     /**
      * Create a new params map at thread local which marked by {@code key}
      *
      * @return the key
+     * @deprecated use {@link #open()} which carries the tags directly
      */
+    @Deprecated
     public static String local() {
-        final String key = String.valueOf(System.nanoTime());
-        KEY_INDEX_TAG.get().put(key, new HashMap<>(RECOMMEND_INDEX_SIZE));
-        KEY_STORED_TAG.get().put(key, new HashMap<>(RECOMMEND_STORE_SIZE));
+        final String key = String.valueOf(KEY_SEQUENCE.incrementAndGet());
+        KEY_CONTEXTS.get().put(key, MetricContext.acquire());
         return key;
     }
 
@@ -416,9 +443,7 @@ public final class Metrics {
      * @param value  the value
      */
     public static void index(MetricIndex metric, String value) {
-        if (metric != null) {
-            INDEX_TAG.get().put(metric.name(), value);
-        }
+        CURRENT.get().index(metric, value);
     }
 
     /**
@@ -428,9 +453,7 @@ public final class Metrics {
      * @param value  the value
      */
     public static void index(MetricIndex metric, Object value) {
-        if (metric != null && value != null) {
-            INDEX_TAG.get().put(metric.name(), value.toString());
-        }
+        CURRENT.get().index(metric, value);
     }
 
     /**
@@ -441,11 +464,9 @@ public final class Metrics {
      * @param value  the value
      */
     public static void index(String key, MetricIndex metric, String value) {
-        if (metric != null) {
-            final Map<String, String> keyMap = KEY_INDEX_TAG.get().get(key);
-            if (keyMap != null) {
-                keyMap.put(metric.name(), value);
-            }
+        final MetricContext context = KEY_CONTEXTS.get().get(key);
+        if (context != null) {
+            context.index(metric, value);
         }
     }
 
@@ -457,11 +478,9 @@ public final class Metrics {
      * @param value  the value
      */
     public static void index(String key, MetricIndex metric, Object value) {
-        if (metric != null && value != null) {
-            final Map<String, String> keyMap = KEY_INDEX_TAG.get().get(key);
-            if (keyMap != null) {
-                keyMap.put(metric.name(), value.toString());
-            }
+        final MetricContext context = KEY_CONTEXTS.get().get(key);
+        if (context != null) {
+            context.index(metric, value);
         }
     }
 
@@ -474,9 +493,7 @@ public final class Metrics {
      * @param value  the value
      */
     public static void store(MetricStore metric, String value) {
-        if (metric != null) {
-            STORED_TAG.get().put(metric.name(), value);
-        }
+        CURRENT.get().store(metric, value);
     }
 
     /**
@@ -486,9 +503,7 @@ public final class Metrics {
      * @param value  the value
      */
     public static void store(MetricStore metric, Object value) {
-        if (metric != null && value != null) {
-            STORED_TAG.get().put(metric.name(), value.toString());
-        }
+        CURRENT.get().store(metric, value);
     }
 
     /**
@@ -499,11 +514,9 @@ public final class Metrics {
      * @param value  the value
      */
     public static void store(String key, MetricStore metric, String value) {
-        if (metric != null) {
-            final Map<String, String> keyMap = KEY_STORED_TAG.get().get(key);
-            if (keyMap != null) {
-                keyMap.put(metric.name(), value);
-            }
+        final MetricContext context = KEY_CONTEXTS.get().get(key);
+        if (context != null) {
+            context.store(metric, value);
         }
     }
 
@@ -515,11 +528,9 @@ public final class Metrics {
      * @param value  the value
      */
     public static void store(String key, MetricStore metric, Object value) {
-        if (metric != null && value != null) {
-            final Map<String, String> keyMap = KEY_STORED_TAG.get().get(key);
-            if (keyMap != null) {
-                keyMap.put(metric.name(), value.toString());
-            }
+        final MetricContext context = KEY_CONTEXTS.get().get(key);
+        if (context != null) {
+            context.store(metric, value);
         }
     }
 
@@ -531,10 +542,7 @@ public final class Metrics {
      * @param throwable the throwable
      */
     public static void exception(Throwable throwable) {
-        if (throwable != null) {
-            getConfiguration().metricException()
-                    .apply(throwable, INDEX_TAG.get(), STORED_TAG.get());
-        }
+        CURRENT.get().exception(throwable);
     }
 
     /**
@@ -544,13 +552,9 @@ public final class Metrics {
      * @param throwable the throwable
      */
     public static void exception(String key, Throwable throwable) {
-        if (throwable != null) {
-            final Map<String, String> keyMap1 = KEY_INDEX_TAG.get().get(key);
-            final Map<String, String> keyMap2 = KEY_STORED_TAG.get().get(key);
-            if (keyMap1 != null && keyMap2 != null) {
-                getConfiguration().metricException()
-                        .apply(throwable, keyMap1, keyMap2);
-            }
+        final MetricContext context = KEY_CONTEXTS.get().get(key);
+        if (context != null) {
+            context.exception(throwable);
         }
     }
 
@@ -562,7 +566,7 @@ public final class Metrics {
      * @param o the metric obj
      */
     public static void object(Object o) {
-        object(o, INDEX_TAG.get(), STORED_TAG.get());
+        CURRENT.get().object(o);
     }
 
     /**
@@ -572,95 +576,30 @@ public final class Metrics {
      * @param o   the metric obj
      */
     public static void object(String key, Object o) {
-        object(o, KEY_INDEX_TAG.get().get(key), KEY_STORED_TAG.get().get(key));
+        final MetricContext context = KEY_CONTEXTS.get().get(key);
+        if (context != null) {
+            context.object(o);
+        }
     }
 
     /**
      * Metric the obj's all fields if not marked by {@code @Metric(isMetric = false)}.
+     * The fields and getters are resolved once per class by {@link MetricObjectPlan}.
      *
      * @param o              metric obj
      * @param metricIndexMap the index map values
      * @param metricStoreMap the store map values
      */
-    private static void object(Object o,
-                               Map<String, String> metricIndexMap,
-                               Map<String, String> metricStoreMap) {
+    static void object(Object o,
+                       Map<String, String> metricIndexMap,
+                       Map<String, String> metricStoreMap) {
         try {
-            final Class<?> oClass = o.getClass();
-            Metric annotation = oClass.getAnnotation(Metric.class);
-            if (annotation == null) {
-                return;
-            }
-
-            // record the obj's all fields
-            Field[] fields = FieldUtils.getAllFields(oClass);
-            for (Field field : fields) {
-                Metric fieldAnnotation = field.getAnnotation(Metric.class);
-                // field annotation
-                if (fieldAnnotation != null) {
-                    // record field
-                    if (fieldAnnotation.isMetric()) {
-                        readValue(o, oClass, field)
-                                .ifPresent(value -> {
-                                    // index metric
-                                    if (fieldAnnotation.isIndex()) {
-                                        metricIndexMap.put(StringUtils.isEmpty(fieldAnnotation.key()) ?
-                                                field.getName() :
-                                                fieldAnnotation.key(), String.valueOf(value));
-                                    }
-                                    // store metric
-                                    else {
-                                        metricStoreMap.put(StringUtils.isEmpty(fieldAnnotation.key()) ?
-                                                field.getName() :
-                                                fieldAnnotation.key(), String.valueOf(value));
-                                    }
-                                });
-                    }
-                    // ignore field
-                }
-                // class annotation
-                else {
-                    readValue(o, oClass, field)
-                            .ifPresent(value -> {
-                                metricIndexMap.put(field.getName(), String.valueOf(value));
-                            });
-                }
-            }
+            MetricObjectPlan.of(o.getClass()).apply(o, metricIndexMap, metricStoreMap);
         } catch (Exception e) {
             log.error("Metrics failed to metric [{}], error[{}]", Serialization.toJsonSafe(o), e.getMessage(), e);
         }
     }
 
-    /**
-     * Using reflection read method to read obj's metric field value.
-     *
-     * @param o      metric obj
-     * @param oClass metric obj class type
-     * @param field  metric obj's field
-     * @return obj's metric field value
-     */
-    private static Optional<Object> readValue(Object o, Class<?> oClass, Field field) {
-        try {
-            // reflection read method
-            PropertyDescriptor descriptor = new PropertyDescriptor(field.getName(), oClass);
-            Method readMethod = descriptor.getReadMethod();
-            if (readMethod == null) {
-                return Optional.empty();
-            }
-
-            // invoke read method
-            Object value = readMethod.invoke(o);
-            if (value == null || StringUtils.isEmpty(value.toString())) {
-                return Optional.empty();
-            }
-
-            return Optional.of(value);
-        } catch (Exception e) {
-            log.warn("[Vrml]Metrics failed to read [{}], error[{}]", field.getName(), e.getMessage(), e);
-            return Optional.empty();
-        }
-    }
-
     // -- Finally
 
     /**
@@ -669,8 +608,7 @@ public final class Metrics {
      */
     public static void build() {
         try {
-            getConfiguration().metricFinally()
-                    .apply(getConfiguration().topic(), INDEX_TAG.get(), STORED_TAG.get());
+            CURRENT.get().build();
         } finally {
             remove();
         }
@@ -681,8 +619,9 @@ public final class Metrics {
      * {@link MetricConfiguration#metricFinally()}
      */
     public static void buildKeys() {
-        Map<String, Map<String, String>> keyMap = KEY_INDEX_TAG.get();
-        keyMap.forEach((key, value) -> build(key));
+        for (String key : new ArrayList<>(KEY_CONTEXTS.get().keySet())) {
+            build(key);
+        }
     }
 
     /**
@@ -692,37 +631,163 @@ public final class Metrics {
      * @param key the key
      */
     public static void build(String key) {
-        try {
-            getConfiguration().metricFinally()
-                    .apply(getConfiguration().topic(), KEY_INDEX_TAG.get().get(key), KEY_STORED_TAG.get().get(key));
-        } finally {
-            remove(key);
+        final MetricContext context = KEY_CONTEXTS.get().remove(key);
+        if (context != null) {
+            try {
+                context.build();
+            } finally {
+                context.release();
+            }
+        }
+    }
+
+    /**
+     * Invoke {@link MetricConfiguration#metricFinally()} directly,
+     * or hand the maps over to the async pipeline if {@link MetricConfiguration#asyncSwitch()}.
+     *
+     * @return {@code true} if the maps were handed over and must not be reused by the caller
+     */
+    static boolean publish(Map<String, String> index, Map<String, String> store) {
+        final MetricConfiguration configuration = getConfiguration();
+        if (configuration.asyncSwitch()) {
+            getAsyncPipeline(configuration).publish(configuration.topic(), index, store);
+            return true;
         }
+        configuration.metricFinally().apply(configuration.topic(), index, store);
+        return false;
+    }
+
+    private static AsyncMetricPipeline getAsyncPipeline(MetricConfiguration configuration) {
+        if (asyncPipeline == null) {
+            synchronized (Metrics.class) {
+                if (asyncPipeline == null) {
+                    // resolve the sink per call to follow dynamic configuration
+                    AsyncMetricPipeline pipeline = configuration.metricFinallyBatch() != null
+                            ? new AsyncMetricPipeline(
+                            configuration.asyncBufferSize(),
+                            configuration.asyncConsumerThreads(),
+                            configuration.asyncBatchSize(),
+                            configuration.asyncOverflowPolicy(),
+                            batch -> getConfiguration().metricFinallyBatch().accept(batch))
+                            : new AsyncMetricPipeline(
+                            configuration.asyncBufferSize(),
+                            configuration.asyncConsumerThreads(),
+                            configuration.asyncBatchSize(),
+                            configuration.asyncOverflowPolicy(),
+                            (topic, index, store) -> getConfiguration().metricFinally().apply(topic, index, store));
+                    METERS.gauge("vrml.metric.async.pending", pipeline::getPendingCount);
+                    METERS.gauge("vrml.metric.async.dropped", pipeline::getDroppedCount);
+                    asyncPipeline = pipeline;
+                    log.info("[Vrml]Metrics async pipeline started, capacity[{}] consumers[{}] overflow[{}].",
+                            pipeline.getCapacity(), configuration.asyncConsumerThreads(), pipeline.getOverflowPolicy());
+                }
+            }
+        }
+        return asyncPipeline;
+    }
+
+    /**
+     * Async metrics pipeline, exposes the pending and dropped counters.
+     *
+     * @return the pipeline, none if no metric has been built asynchronously yet
+     */
+    public static Option<AsyncMetricPipeline> asyncPipeline() {
+        return Option.of(asyncPipeline);
+    }
+
+    /**
+     * Flush pending async metrics and stop the consumer threads,
+     * later builds invoke {@link MetricConfiguration#metricFinally()} on the caller thread.
+     *
+     * @param timeout the max time to wait
+     * @param unit    the time unit
+     * @return {@code true} if all pending metrics were flushed in time
+     */
+    public static boolean shutdownAsync(long timeout, TimeUnit unit) {
+        final AsyncMetricPipeline pipeline = asyncPipeline;
+        return pipeline == null || pipeline.close(timeout, unit);
+    }
+
+    /*
+     * Option 3: pre-aggregated meters
+     */
+
+    /**
+     * Process wide meter registry
+     */
+    private static final MeterRegistry METERS = new MeterRegistry();
+
+    /**
+     * Meter registry, drained by exporters via {@link MeterRegistry#snapshotThenReset()}.
+     *
+     * @return the meter registry
+     */
+    public static MeterRegistry meters() {
+        return METERS;
+    }
+
+    /**
+     * Get or create the counter.
+     *
+     * @param name the counter name
+     * @return the counter
+     */
+    public static Counter counter(String name) {
+        return METERS.counter(name);
+    }
+
+    /**
+     * Get or create the timer.
+     *
+     * @param name the timer name
+     * @return the timer
+     */
+    public static Timer timer(String name) {
+        return METERS.timer(name);
+    }
+
+    /**
+     * Get or create a settable gauge.
+     *
+     * @param name the gauge name
+     * @return the gauge
+     */
+    public static Gauge gauge(String name) {
+        return METERS.gauge(name);
+    }
+
+    /**
+     * Get or create a gauge sampled from the supplier.
+     *
+     * @param name     the gauge name
+     * @param supplier the value supplier
+     * @return the gauge
+     */
+    public static Gauge gauge(String name, DoubleSupplier supplier) {
+        return METERS.gauge(name, supplier);
     }
 
     // -- Remove
 
     /**
-     * Remove threadLocal map and all-keys map
+     * Unbind the current context and release all-keys contexts, the next static call starts from a new empty context
      */
     public static void remove() {
-        INDEX_TAG.remove();
-        KEY_INDEX_TAG.remove();
-        STORED_TAG.remove();
-        KEY_STORED_TAG.remove();
+        CURRENT.remove();
+        final Map<String, MetricContext> keyContexts = KEY_CONTEXTS.get();
+        keyContexts.values().forEach(MetricContext::release);
+        KEY_CONTEXTS.remove();
     }
 
     /**
-     * Remove the-key map
+     * Release the-key context
      *
      * @param key the key
      */
     public static void remove(String key) {
-        if (KEY_INDEX_TAG.get() != null) {
-            KEY_INDEX_TAG.get().remove(key);
-        }
-        if (KEY_STORED_TAG.get() != null) {
-            KEY_STORED_TAG.get().remove(key);
+        final MetricContext context = KEY_CONTEXTS.get().remove(key);
+        if (context != null) {
+            context.release();
         }
     }
 
@@ -734,10 +799,7 @@ public final class Metrics {
      * @return the map
      */
     public static Map<String, String> showIndexs() {
-        final Map<String, String> index = INDEX_TAG.get();
-        return index != null
-                ? new HashMap<>(index)
-                : new HashMap<>();
+        return CURRENT.get().showIndexs();
     }
 
     /**
@@ -747,9 +809,9 @@ public final class Metrics {
      * @return the map
      */
     public static Map<String, String> showIndexs(String key) {
-        final Map<String, String> index = KEY_INDEX_TAG.get().get(key);
-        return index != null
-                ? new HashMap<>(index)
+        final MetricContext context = KEY_CONTEXTS.get().get(key);
+        return context != null
+                ? context.showIndexs()
                 : new HashMap<>();
     }
 
@@ -759,10 +821,7 @@ public final class Metrics {
      * @return the map
      */
     public static Map<String, String> showStores() {
-        final Map<String, String> store = STORED_TAG.get();
-        return store != null
-                ? new HashMap<>(store)
-                : new HashMap<>();
+        return CURRENT.get().showStores();
     }
 
     /**
@@ -772,9 +831,9 @@ public final class Metrics {
      * @return the map
      */
     public static Map<String, String> showStores(String key) {
-        final Map<String, String> store = KEY_STORED_TAG.get().get(key);
-        return store != null
-                ? new HashMap<>(store)
+        final MetricContext context = KEY_CONTEXTS.get().get(key);
+        return context != null
+                ? context.showStores()
                 : new HashMap<>();
     }
 }
@@ -0,0 +1,373 @@
+package group.rxcloud.vrml.metric.async;
+
+import io.vavr.Function3;
+import io.vavr.Tuple;
+import io.vavr.Tuple3;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Moves {@code metricFinally} off the request thread.
+ * <p>
+ * Tag maps are published into a bounded ring buffer whose slots are preallocated,
+ * so publishing only stores three references. Consumer threads drain up to {@code batchSize}
+ * slots at a time and hand them to the batch sink in one call outside the lock,
+ * keeping collector I/O out of request latency.
+ * When the buffer is full the {@link OverflowPolicy} decides between dropping and blocking,
+ * every dropped metric is counted.
+ * <p>
+ * After {@link #close(long, TimeUnit)} the pending metrics are drained and later publishes, including those
+ * blocked on a full ring, fall back to invoking the sink on the caller thread.
+ */
+public final class AsyncMetricPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncMetricPipeline.class);
+
+    /**
+     * Exactly one of the sinks is set
+     */
+    private final Function3<String, Map<String, String>, Map<String, String>, Void> metricSink;
+    private final Consumer<List<Tuple3<String, Map<String, String>, Map<String, String>>>> batchSink;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+
+    /**
+     * Ring buffer slots
+     */
+    private final String[] topics;
+    private final Map<String, String>[] indexes;
+    private final Map<String, String>[] stores;
+    private int head;
+    private int count;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final Thread[] consumers;
+    private volatile boolean running = true;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Create and start the pipeline with a per metric sink.
+     *
+     * @param capacity       the ring buffer capacity
+     * @param consumerCount  the number of consumer threads
+     * @param batchSize      the max number of metrics drained per batch
+     * @param overflowPolicy the overflow policy
+     * @param sink           the {@code <Topic, IndexMap, StoreMap>} sink
+     */
+    public AsyncMetricPipeline(int capacity,
+                               int consumerCount,
+                               int batchSize,
+                               OverflowPolicy overflowPolicy,
+                               Function3<String, Map<String, String>, Map<String, String>, Void> sink) {
+        this(capacity, consumerCount, batchSize, overflowPolicy,
+                Objects.requireNonNull(sink, "Metrics async sink is null!"), null);
+    }
+
+    /**
+     * Create and start the pipeline with a batch sink.
+     *
+     * @param capacity       the ring buffer capacity
+     * @param consumerCount  the number of consumer threads
+     * @param batchSize      the max number of metrics drained per batch
+     * @param overflowPolicy the overflow policy
+     * @param batchSink      the sink receiving each drained batch of {@code <Topic, IndexMap, StoreMap>}
+     */
+    public AsyncMetricPipeline(int capacity,
+                               int consumerCount,
+                               int batchSize,
+                               OverflowPolicy overflowPolicy,
+                               Consumer<List<Tuple3<String, Map<String, String>, Map<String, String>>>> batchSink) {
+        this(capacity, consumerCount, batchSize, overflowPolicy,
+                null, Objects.requireNonNull(batchSink, "Metrics async sink is null!"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncMetricPipeline(int capacity,
+                                int consumerCount,
+                                int batchSize,
+                                OverflowPolicy overflowPolicy,
+                                Function3<String, Map<String, String>, Map<String, String>, Void> metricSink,
+                                Consumer<List<Tuple3<String, Map<String, String>, Map<String, String>>>> batchSink) {
+        if (capacity <= 0 || consumerCount <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Metrics async capacity, consumers and batch size must be positive!");
+        }
+        this.metricSink = metricSink;
+        this.batchSink = batchSink;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "Metrics async overflow policy is null!");
+        this.batchSize = batchSize;
+        this.topics = new String[capacity];
+        this.indexes = new Map[capacity];
+        this.stores = new Map[capacity];
+
+        this.consumers = new Thread[consumerCount];
+        for (int i = 0; i < consumerCount; i++) {
+            Thread consumer = new Thread(this::consume, "vrml-metric-async-" + i);
+            consumer.setDaemon(true);
+            consumers[i] = consumer;
+            consumer.start();
+        }
+    }
+
+    /**
+     * Publish the tags, the maps are handed over and must not be modified by the caller afterwards.
+     *
+     * @param topic the topic
+     * @param index the index map
+     * @param store the store map
+     * @return {@code false} if the metric was dropped
+     */
+    public boolean publish(String topic, Map<String, String> index, Map<String, String> store) {
+        lock.lock();
+        try {
+            // checked under the lock so nothing is enqueued after close has let the consumers drain and exit
+            if (!running) {
+                lock.unlock();
+                try {
+                    invokeSink(Collections.singletonList(Tuple.of(topic, index, store)));
+                } finally {
+                    lock.lock();
+                }
+                return true;
+            }
+            if (count == topics.length) {
+                switch (overflowPolicy) {
+                    case DROP_NEWEST:
+                        dropped.increment();
+                        return false;
+                    case DROP_OLDEST:
+                        clear(head);
+                        head = next(head);
+                        count--;
+                        dropped.increment();
+                        break;
+                    case BLOCK:
+                    default:
+                        while (count == topics.length && running) {
+                            try {
+                                notFull.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                dropped.increment();
+                                return false;
+                            }
+                        }
+                        if (!running) {
+                            // closed while blocked, deliver on the caller thread
+                            lock.unlock();
+                            try {
+                                invokeSink(Collections.singletonList(Tuple.of(topic, index, store)));
+                            } finally {
+                                lock.lock();
+                            }
+                            return true;
+                        }
+                        break;
+                }
+            }
+            int tail = (head + count) % topics.length;
+            topics[tail] = topic;
+            indexes[tail] = index;
+            stores[tail] = store;
+            count++;
+            published.increment();
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void consume() {
+        final String[] batchTopics = new String[batchSize];
+        @SuppressWarnings("unchecked") final Map<String, String>[] batchIndexes = new Map[batchSize];
+        @SuppressWarnings("unchecked") final Map<String, String>[] batchStores = new Map[batchSize];
+        int size;
+        while ((size = drain(batchTopics, batchIndexes, batchStores)) >= 0) {
+            List<Tuple3<String, Map<String, String>, Map<String, String>>> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(Tuple.of(batchTopics[i], batchIndexes[i], batchStores[i]));
+                batchTopics[i] = null;
+                batchIndexes[i] = null;
+                batchStores[i] = null;
+            }
+            invokeSink(batch);
+        }
+    }
+
+    /**
+     * Wait for pending metrics and move up to a batch of them out of the ring.
+     *
+     * @return the batch size, {@code -1} once closed and empty
+     */
+    private int drain(String[] batchTopics, Map<String, String>[] batchIndexes, Map<String, String>[] batchStores) {
+        lock.lock();
+        try {
+            while (count == 0) {
+                if (!running) {
+                    return -1;
+                }
+                try {
+                    notEmpty.await();
+                } catch (InterruptedException e) {
+                    // keep draining until closed
+                }
+            }
+            int size = Math.min(count, batchSize);
+            for (int i = 0; i < size; i++) {
+                batchTopics[i] = topics[head];
+                batchIndexes[i] = indexes[head];
+                batchStores[i] = stores[head];
+                clear(head);
+                head = next(head);
+            }
+            count -= size;
+            notFull.signalAll();
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void invokeSink(List<Tuple3<String, Map<String, String>, Map<String, String>>> batch) {
+        if (batchSink != null) {
+            try {
+                batchSink.accept(batch);
+            } catch (Throwable throwable) {
+                failed.add(batch.size());
+                log.warn("[Vrml]Metrics async batch sink exception!", throwable);
+            }
+            return;
+        }
+        for (Tuple3<String, Map<String, String>, Map<String, String>> metric : batch) {
+            try {
+                metricSink.apply(metric._1, metric._2, metric._3);
+            } catch (Throwable throwable) {
+                failed.increment();
+                log.warn("[Vrml]Metrics async sink exception!", throwable);
+            }
+        }
+    }
+
+    private void clear(int slot) {
+        topics[slot] = null;
+        indexes[slot] = null;
+        stores[slot] = null;
+    }
+
+    private int next(int slot) {
+        return slot + 1 == topics.length ? 0 : slot + 1;
+    }
+
+    /**
+     * Stop accepting metrics into the ring, drain the pending ones and wait for the consumers.
+     *
+     * @param timeout the max time to wait
+     * @param unit    the time unit
+     * @return {@code true} if all consumers finished in time
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread consumer : consumers) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                consumer.join(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (Thread consumer : consumers) {
+            if (consumer.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ring buffer capacity.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return topics.length;
+    }
+
+    /**
+     * Overflow policy.
+     *
+     * @return the policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Number of metrics waiting in the ring buffer.
+     *
+     * @return the pending count
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of metrics accepted into the ring buffer.
+     *
+     * @return the published count
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Number of metrics dropped because the ring buffer was full.
+     *
+     * @return the dropped count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Number of metrics whose sink invocation threw.
+     *
+     * @return the failed count
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,22 @@
+package group.rxcloud.vrml.metric.async;
+
+/**
+ * What {@link AsyncMetricPipeline} does when the ring buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Discard the metric being published, the request thread never waits.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Overwrite the oldest pending metric, the request thread never waits.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Wait until a consumer frees a slot, nothing is lost but the request thread may stall.
+     */
+    BLOCK
+}
@@ -1,12 +1,16 @@
 package group.rxcloud.vrml.metric.config;
 
 import group.rxcloud.vrml.metric.Metrics;
+import group.rxcloud.vrml.metric.async.OverflowPolicy;
 import io.vavr.CheckedRunnable;
 import io.vavr.Function3;
+import io.vavr.Tuple3;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Metric configuration.
@@ -37,6 +41,16 @@ public interface MetricConfiguration {
      */
     Function3<String, Map<String, String>, Map<String, String>, Void> metricFinally();
 
+    /**
+     * Using a drained batch of {@code <Topic, IndexMap, StoreMap>} to log metrics into topic in one call,
+     * only used by the async pipeline. Default null invokes {@link #metricFinally()} per metric.
+     *
+     * @return the batch metrics logging function, or null
+     */
+    default Consumer<List<Tuple3<String, Map<String, String>, Map<String, String>>>> metricFinallyBatch() {
+        return null;
+    }
+
     /**
      * Metric runnable switch which default true
      * {@link Metrics#metric(CheckedRunnable)}
@@ -53,6 +67,53 @@ public interface MetricConfiguration {
      */
     boolean debugSwitch();
 
+    /**
+     * Async metrics switch which default false.
+     * {@code true} will invoke {@link #metricFinally()} on background consumer threads,
+     * the pipeline is created on first use with the async settings below.
+     *
+     * @return {@code true} will build metrics asynchronously
+     */
+    default boolean asyncSwitch() {
+        return false;
+    }
+
+    /**
+     * Async metrics ring buffer capacity.
+     *
+     * @return the capacity
+     */
+    default int asyncBufferSize() {
+        return MetricModule.ASYNC_BUFFER_SIZE;
+    }
+
+    /**
+     * Async metrics consumer threads.
+     *
+     * @return the number of consumer threads
+     */
+    default int asyncConsumerThreads() {
+        return 1;
+    }
+
+    /**
+     * Max number of metrics a consumer drains per batch.
+     *
+     * @return the batch size
+     */
+    default int asyncBatchSize() {
+        return MetricModule.ASYNC_BATCH_SIZE;
+    }
+
+    /**
+     * What to do when the async ring buffer is full, default drop the newest metric.
+     *
+     * @return the overflow policy
+     */
+    default OverflowPolicy asyncOverflowPolicy() {
+        return OverflowPolicy.DROP_NEWEST;
+    }
+
     /**
      * Build exception stack readable
      *
@@ -86,4 +147,14 @@ interface MetricModule {
      * The constant EXCEPTION_STACK_UNKNOWN.
      */
     String EXCEPTION_STACK_UNKNOWN = "Empty exception!";
+
+    /**
+     * The constant ASYNC_BUFFER_SIZE.
+     */
+    int ASYNC_BUFFER_SIZE = 8192;
+
+    /**
+     * The constant ASYNC_BATCH_SIZE.
+     */
+    int ASYNC_BATCH_SIZE = 256;
 }
\ No newline at end of file
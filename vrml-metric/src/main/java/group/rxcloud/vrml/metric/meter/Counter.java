@@ -0,0 +1,60 @@
+package group.rxcloud.vrml.metric.meter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter backed by a {@link LongAdder}.
+ * Recording is lock-free and allocation-free, contended threads update separate cells.
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder adder = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Counter name.
+     *
+     * @return the name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Increment by one.
+     */
+    public void increment() {
+        adder.increment();
+    }
+
+    /**
+     * Increment by amount.
+     *
+     * @param amount the amount
+     */
+    public void add(long amount) {
+        adder.add(amount);
+    }
+
+    /**
+     * Current count since the last reset.
+     *
+     * @return the count
+     */
+    public long count() {
+        return adder.sum();
+    }
+
+    /**
+     * Read the count and reset it to zero.
+     *
+     * @return the count since the last reset
+     */
+    long countThenReset() {
+        return adder.sumThenReset();
+    }
+}
@@ -0,0 +1,54 @@
+package group.rxcloud.vrml.metric.meter;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Instantaneous value.
+ * Either set explicitly by {@link #set(double)} or sampled from a {@link DoubleSupplier} at snapshot time.
+ * Gauges are never reset by a snapshot.
+ */
+public final class Gauge {
+
+    private final String name;
+    private final DoubleSupplier supplier;
+    private volatile double value;
+
+    Gauge(String name, DoubleSupplier supplier) {
+        this.name = name;
+        this.supplier = supplier;
+    }
+
+    /**
+     * Gauge name.
+     *
+     * @return the name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Set the current value, ignored if this gauge samples a supplier.
+     *
+     * @param value the value
+     */
+    public void set(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Current value.
+     *
+     * @return the value, {@code NaN} if the supplier failed
+     */
+    public double value() {
+        if (supplier == null) {
+            return value;
+        }
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
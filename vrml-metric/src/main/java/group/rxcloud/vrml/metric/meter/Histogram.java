@@ -0,0 +1,98 @@
+package group.rxcloud.vrml.metric.meter;
+
+import group.rxcloud.vrml.core.stats.LogLinearBuckets;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative longs over the {@link LogLinearBuckets},
+ * so the relative error of a reported percentile is bounded by {@code 1/16}
+ * over the whole {@code long} range with a fixed array of 960 counters.
+ * Recording is a few bit operations and one atomic increment, without allocation.
+ */
+final class Histogram {
+
+    static final int BUCKET_COUNT = LogLinearBuckets.BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value, negative values are recorded as zero.
+     *
+     * @param value the value
+     */
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(LogLinearBuckets.indexOf(value));
+        sum.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Copy the bucket counts, optionally resetting them.
+     * Each bucket is swapped atomically, values recorded concurrently land in this or the next snapshot.
+     *
+     * @param reset whether to reset after reading
+     * @return the captured state
+     */
+    Captured capture(boolean reset) {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = reset ? buckets.getAndSet(i, 0) : buckets.get(i);
+            counts[i] = c;
+            count += c;
+        }
+        long total = reset ? sum.sumThenReset() : sum.sum();
+        long maxValue = reset ? max.getAndSet(0) : max.get();
+        return new Captured(counts, count, total, maxValue);
+    }
+
+    /**
+     * Point-in-time copy of the histogram.
+     */
+    static final class Captured {
+
+        final long[] counts;
+        final long count;
+        final long sum;
+        final long max;
+
+        private Captured(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Value at the quantile, reported as the upper bound of its bucket and capped at the max.
+         *
+         * @param quantile the quantile in {@code [0, 1]}
+         * @return the value, zero if empty
+         */
+        long valueAt(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(LogLinearBuckets.upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package group.rxcloud.vrml.metric.meter;
+
+import group.rxcloud.vrml.core.integration.MetricsSink;
+import group.rxcloud.vrml.metric.Metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link MetricsSink} that pre-aggregates VRML operation metrics into {@link Metrics#meters()}.
+ * Registered by {@code META-INF/services}, so it is picked up whenever vrml-metric is on the classpath.
+ * <p>
+ * Failures are additionally counted in {@code <metricName>.failure}.
+ */
+public class MeterMetricsSink implements MetricsSink {
+
+    private static final String FAILURE_SUFFIX = ".failure";
+
+    /**
+     * Failure counters cached by metric name to avoid concatenating names when recording
+     */
+    private final ConcurrentMap<String, Counter> failureCounters = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordTime(String metricName, long durationNanos, boolean success) {
+        Metrics.meters().timer(metricName).recordNanos(durationNanos);
+        if (!success) {
+            failureCounter(metricName).increment();
+        }
+    }
+
+    @Override
+    public void recordCount(String metricName, boolean success) {
+        Metrics.meters().counter(metricName).increment();
+        if (!success) {
+            failureCounter(metricName).increment();
+        }
+    }
+
+    @Override
+    public void recordGauge(String metricName, double value) {
+        Metrics.meters().gauge(metricName).set(value);
+    }
+
+    private Counter failureCounter(String metricName) {
+        Counter counter = failureCounters.get(metricName);
+        if (counter == null) {
+            counter = failureCounters.computeIfAbsent(metricName,
+                    name -> Metrics.meters().counter(name + FAILURE_SUFFIX));
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,108 @@
+package group.rxcloud.vrml.metric.meter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry of named pre-aggregated meters.
+ * <p>
+ * Meters are created once per name and then updated in place, so recording never emits a record per event.
+ * An exporter periodically drains the registry by {@link #snapshotThenReset()},
+ * counters and timers restart from zero while gauges keep their value.
+ */
+public final class MeterRegistry {
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Get or create the counter.
+     *
+     * @param name the counter name
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, Counter::new);
+        }
+        return counter;
+    }
+
+    /**
+     * Get or create the timer.
+     *
+     * @param name the timer name
+     * @return the timer
+     */
+    public Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(name, Timer::new);
+        }
+        return timer;
+    }
+
+    /**
+     * Get or create a settable gauge.
+     *
+     * @param name the gauge name
+     * @return the gauge
+     */
+    public Gauge gauge(String name) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null) {
+            gauge = gauges.computeIfAbsent(name, key -> new Gauge(key, null));
+        }
+        return gauge;
+    }
+
+    /**
+     * Get or create a gauge sampled from the supplier at snapshot time.
+     * An existing gauge with the same name is returned unchanged.
+     *
+     * @param name     the gauge name
+     * @param supplier the value supplier
+     * @return the gauge
+     */
+    public Gauge gauge(String name, DoubleSupplier supplier) {
+        return gauges.computeIfAbsent(name, key -> new Gauge(key, supplier));
+    }
+
+    /**
+     * Snapshot all meters without reset.
+     *
+     * @return the snapshot
+     */
+    public MeterSnapshot snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Snapshot all meters and reset counters and timers, used by exporters to drain the registry.
+     *
+     * @return the snapshot since the last reset
+     */
+    public MeterSnapshot snapshotThenReset() {
+        return snapshot(true);
+    }
+
+    private MeterSnapshot snapshot(boolean reset) {
+        Map<String, Long> counterValues = new HashMap<>(counters.size());
+        counters.forEach((name, counter) ->
+                counterValues.put(name, reset ? counter.countThenReset() : counter.count()));
+
+        Map<String, Timer.Snapshot> timerValues = new HashMap<>(timers.size());
+        timers.forEach((name, timer) ->
+                timerValues.put(name, reset ? timer.snapshotThenReset() : timer.snapshot()));
+
+        Map<String, Double> gaugeValues = new HashMap<>(gauges.size());
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.value()));
+
+        return new MeterSnapshot(System.currentTimeMillis(), counterValues, timerValues, gaugeValues);
+    }
+}
@@ -0,0 +1,71 @@
+package group.rxcloud.vrml.metric.meter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable point-in-time values of a {@link MeterRegistry}.
+ */
+public final class MeterSnapshot {
+
+    private final long timestamp;
+    private final Map<String, Long> counters;
+    private final Map<String, Timer.Snapshot> timers;
+    private final Map<String, Double> gauges;
+
+    MeterSnapshot(long timestamp,
+                  Map<String, Long> counters,
+                  Map<String, Timer.Snapshot> timers,
+                  Map<String, Double> gauges) {
+        this.timestamp = timestamp;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.timers = Collections.unmodifiableMap(timers);
+        this.gauges = Collections.unmodifiableMap(gauges);
+    }
+
+    /**
+     * Snapshot time in epoch millis.
+     *
+     * @return the timestamp
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Counter values by name.
+     *
+     * @return the counters
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Timer statistics by name.
+     *
+     * @return the timers
+     */
+    public Map<String, Timer.Snapshot> getTimers() {
+        return timers;
+    }
+
+    /**
+     * Gauge values by name.
+     *
+     * @return the gauges
+     */
+    public Map<String, Double> getGauges() {
+        return gauges;
+    }
+
+    @Override
+    public String toString() {
+        return "MeterSnapshot{" +
+                "timestamp=" + timestamp +
+                ", counters=" + counters +
+                ", timers=" + timers +
+                ", gauges=" + gauges +
+                '}';
+    }
+}
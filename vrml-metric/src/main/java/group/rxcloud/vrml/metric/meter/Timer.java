@@ -0,0 +1,201 @@
+package group.rxcloud.vrml.metric.meter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency timer backed by a log-linear {@link Histogram} in nanoseconds.
+ * Keeps every event in-process and exposes count, total, max and p50/p99/p999 through {@link Snapshot}.
+ */
+public final class Timer {
+
+    private final String name;
+    private final Histogram histogram = new Histogram();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Timer name.
+     *
+     * @return the name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param amount the amount
+     * @param unit   the unit
+     */
+    public void record(long amount, TimeUnit unit) {
+        histogram.record(unit.toNanos(amount));
+    }
+
+    /**
+     * Record a duration in nanoseconds.
+     *
+     * @param nanos the duration
+     */
+    public void recordNanos(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param duration the duration
+     */
+    public void record(Duration duration) {
+        histogram.record(duration.toNanos());
+    }
+
+    /**
+     * Time the supplier.
+     *
+     * @param supplier the supplier
+     * @param <T>      the result type
+     * @return the supplier result
+     */
+    public <T> T record(Supplier<T> supplier) {
+        final long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Time the runnable.
+     *
+     * @param runnable the runnable
+     */
+    public void record(Runnable runnable) {
+        final long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Snapshot without reset.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(histogram.capture(false));
+    }
+
+    /**
+     * Snapshot and reset to empty.
+     *
+     * @return the snapshot since the last reset
+     */
+    Snapshot snapshotThenReset() {
+        return new Snapshot(histogram.capture(true));
+    }
+
+    /**
+     * Immutable timer statistics, all durations in nanoseconds.
+     */
+    public static final class Snapshot {
+
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+
+        private Snapshot(Histogram.Captured captured) {
+            this.count = captured.count;
+            this.totalNanos = captured.sum;
+            this.maxNanos = captured.max;
+            this.p50Nanos = captured.valueAt(0.5);
+            this.p99Nanos = captured.valueAt(0.99);
+            this.p999Nanos = captured.valueAt(0.999);
+        }
+
+        /**
+         * Number of recorded events.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Sum of all recorded durations.
+         *
+         * @return the total
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Longest recorded duration.
+         *
+         * @return the max
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Mean recorded duration.
+         *
+         * @return the mean
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Median duration.
+         *
+         * @return the p50
+         */
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        /**
+         * 99th percentile duration.
+         *
+         * @return the p99
+         */
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        /**
+         * 99.9th percentile duration.
+         *
+         * @return the p999
+         */
+        public long getP999Nanos() {
+            return p999Nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "count=" + count +
+                    ", totalNanos=" + totalNanos +
+                    ", maxNanos=" + maxNanos +
+                    ", p50Nanos=" + p50Nanos +
+                    ", p99Nanos=" + p99Nanos +
+                    ", p999Nanos=" + p999Nanos +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package group.rxcloud.vrml.metric;
+
+import group.rxcloud.vrml.core.integration.VrmlContext;
+import group.rxcloud.vrml.metric.index.MetricIndex;
+import group.rxcloud.vrml.metric.store.MetricStore;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * The MetricContext test.
+ */
+public class MetricContextTest {
+
+    @After
+    public void tearDown() {
+        Metrics.remove();
+    }
+
+    @Test
+    public void testClosedContextIsReused() {
+        // Given
+        MetricContext first = MetricContext.acquire();
+        first.close();
+
+        // When
+        MetricContext second = MetricContext.acquire();
+
+        // Then
+        assertSame(first, second);
+        assertTrue(second.isEmpty());
+        second.close();
+    }
+
+    @Test
+    public void testContextCarriesTagsAcrossThreads() throws Exception {
+        // Given
+        MetricContext context = new MetricContext();
+        context.index(Indexs.order_type, "online");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // When
+        executor.submit(context.wrap(() -> {
+            Metrics.store(Stores.order_id, "o-1");
+        })).get(5, TimeUnit.SECONDS);
+        boolean workerDefaultEmpty = executor.submit(() -> Metrics.current().isEmpty()).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertEquals("online", context.showIndexs().get("order_type"));
+        assertEquals("o-1", context.showStores().get("order_id"));
+        assertTrue(workerDefaultEmpty);
+        assertTrue(Metrics.showStores().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testLocalKeysAreIsolated() {
+        // Given
+        String first = Metrics.local();
+        String second = Metrics.local();
+
+        // When
+        Metrics.index(first, Indexs.order_type, "first");
+        Metrics.index(second, Indexs.order_type, "second");
+
+        // Then
+        assertNotEquals(first, second);
+        assertEquals("first", Metrics.showIndexs(first).get("order_type"));
+        assertEquals("second", Metrics.showIndexs(second).get("order_type"));
+        Metrics.remove(first);
+        assertTrue(Metrics.showIndexs(first).isEmpty());
+        assertEquals("second", Metrics.showIndexs(second).get("order_type"));
+    }
+
+    @Test
+    public void testResetDiscardsTags() {
+        // Given
+        Metrics.index(Indexs.order_type, "online");
+        Metrics.store(Stores.order_id, "o-1");
+
+        MetricContext before = Metrics.current();
+
+        // When
+        Metrics.remove();
+
+        // Then
+        assertTrue(Metrics.current().isEmpty());
+        assertNotSame(before, Metrics.current());
+    }
+
+    @Test
+    public void testPropagatedTaskWritesIntoChildContext() throws Exception {
+        // Given
+        Metrics.index(Indexs.order_type, "online");
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        ExecutorService executor = VrmlContext.executorService(worker);
+        CountDownLatch taskStarted = new CountDownLatch(1);
+        CountDownLatch callerWritten = new CountDownLatch(1);
+
+        // When
+        Future<Map<String, String>> task = executor.submit(() -> {
+            Metrics.store(Stores.order_id, "task");
+            taskStarted.countDown();
+            callerWritten.await(5, TimeUnit.SECONDS);
+            return Metrics.showStores();
+        });
+        taskStarted.await(5, TimeUnit.SECONDS);
+        Metrics.store(Stores.order_id, "caller");
+        callerWritten.countDown();
+        Map<String, String> taskStores = task.get(5, TimeUnit.SECONDS);
+        boolean workerRestored = worker.submit(() -> Metrics.current().isEmpty()).get(5, TimeUnit.SECONDS);
+        worker.shutdown();
+
+        // Then
+        assertEquals("task", taskStores.get("order_id"));
+        assertEquals("caller", Metrics.showStores().get("order_id"));
+        assertEquals("online", Metrics.showIndexs().get("order_type"));
+        assertEquals(1, Metrics.showStores().size());
+        assertTrue(workerRestored);
+    }
+
+    enum Indexs implements MetricIndex {
+        order_type
+    }
+
+    enum Stores implements MetricStore {
+        order_id
+    }
+}
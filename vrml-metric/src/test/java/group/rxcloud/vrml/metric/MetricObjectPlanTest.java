@@ -0,0 +1,119 @@
+package group.rxcloud.vrml.metric;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * The MetricObjectPlan test.
+ */
+public class MetricObjectPlanTest {
+
+    @After
+    public void tearDown() {
+        Metrics.remove();
+    }
+
+    @Test
+    public void testObjectFieldsRoutedByAnnotation() {
+        // Given
+        OrderDTO order = new OrderDTO();
+        order.setOrderId("o-1");
+        order.setAmount(99);
+        order.setSecret("hidden");
+
+        // When
+        Metrics.object(order);
+
+        // Then
+        Map<String, String> indexs = Metrics.showIndexs();
+        Map<String, String> stores = Metrics.showStores();
+        assertEquals("o-1", indexs.get("orderId"));
+        assertEquals("99", stores.get("amt"));
+        assertFalse(indexs.containsKey("secret"));
+        assertFalse(stores.containsKey("secret"));
+        // null values are skipped
+        assertFalse(indexs.containsKey("channel"));
+    }
+
+    @Test
+    public void testPlanCachedPerClass() {
+        // Given / When
+        MetricObjectPlan first = MetricObjectPlan.of(OrderDTO.class);
+        MetricObjectPlan second = MetricObjectPlan.of(OrderDTO.class);
+
+        // Then
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testUnannotatedObjectIgnored() {
+        // Given
+        PlainDTO plain = new PlainDTO();
+        plain.setName("plain");
+
+        // When
+        Metrics.object(plain);
+
+        // Then
+        assertTrue(Metrics.showIndexs().isEmpty());
+        assertTrue(Metrics.showStores().isEmpty());
+    }
+
+    @Metric
+    public static class OrderDTO {
+        private String orderId;
+        private String channel;
+        @Metric(key = "amt", isIndex = false)
+        private int amount;
+        @Metric(isMetric = false)
+        private String secret;
+
+        public String getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(String orderId) {
+            this.orderId = orderId;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+
+    public static class PlainDTO {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
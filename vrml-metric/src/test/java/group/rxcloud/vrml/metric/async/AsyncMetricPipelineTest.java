@@ -0,0 +1,204 @@
+package group.rxcloud.vrml.metric.async;
+
+import io.vavr.Function3;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * The AsyncMetricPipeline test.
+ */
+public class AsyncMetricPipelineTest {
+
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final CountDownLatch consumerBusy = new CountDownLatch(1);
+    private final CountDownLatch releaseConsumer = new CountDownLatch(1);
+
+    private AsyncMetricPipeline pipeline;
+
+    /**
+     * Sink that blocks on the first metric, so the ring buffer can be filled deterministically
+     */
+    private final Function3<String, Map<String, String>, Map<String, String>, Void> blockingSink = (topic, index, store) -> {
+        consumerBusy.countDown();
+        try {
+            releaseConsumer.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delivered.add(index.get("id"));
+        return null;
+    };
+
+    @After
+    public void tearDown() {
+        releaseConsumer.countDown();
+        if (pipeline != null) {
+            pipeline.close(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testDeliversInOrder() {
+        // Given
+        pipeline = new AsyncMetricPipeline(16, 1, 4, OverflowPolicy.BLOCK, (topic, index, store) -> {
+            delivered.add(topic + ":" + index.get("id") + ":" + store.get("value"));
+            return null;
+        });
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertTrue(pipeline.publish("topic", tags(String.valueOf(i)), Collections.singletonMap("value", "v")));
+        }
+        assertTrue(pipeline.close(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(10, delivered.size());
+        assertEquals("topic:0:v", delivered.get(0));
+        assertEquals("topic:9:v", delivered.get(9));
+        assertEquals(10, pipeline.getPublishedCount());
+        assertEquals(0, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void testDropNewest() throws InterruptedException {
+        // Given
+        pipeline = new AsyncMetricPipeline(2, 1, 1, OverflowPolicy.DROP_NEWEST, blockingSink);
+        pipeline.publish("topic", tags("0"), tags("0"));
+        assertTrue(consumerBusy.await(5, TimeUnit.SECONDS));
+
+        // When
+        assertTrue(pipeline.publish("topic", tags("1"), tags("1")));
+        assertTrue(pipeline.publish("topic", tags("2"), tags("2")));
+        assertFalse(pipeline.publish("topic", tags("3"), tags("3")));
+        releaseConsumer.countDown();
+        assertTrue(pipeline.close(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(Arrays.asList("0", "1", "2"), delivered);
+        assertEquals(1, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void testDropOldest() throws InterruptedException {
+        // Given
+        pipeline = new AsyncMetricPipeline(2, 1, 1, OverflowPolicy.DROP_OLDEST, blockingSink);
+        pipeline.publish("topic", tags("0"), tags("0"));
+        assertTrue(consumerBusy.await(5, TimeUnit.SECONDS));
+
+        // When
+        pipeline.publish("topic", tags("1"), tags("1"));
+        pipeline.publish("topic", tags("2"), tags("2"));
+        assertTrue(pipeline.publish("topic", tags("3"), tags("3")));
+        releaseConsumer.countDown();
+        assertTrue(pipeline.close(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(Arrays.asList("0", "2", "3"), delivered);
+        assertEquals(1, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void testBlockWaitsForFreeSlot() throws InterruptedException {
+        // Given
+        pipeline = new AsyncMetricPipeline(1, 1, 1, OverflowPolicy.BLOCK, blockingSink);
+        pipeline.publish("topic", tags("0"), tags("0"));
+        assertTrue(consumerBusy.await(5, TimeUnit.SECONDS));
+        pipeline.publish("topic", tags("1"), tags("1"));
+
+        // When
+        AtomicBoolean accepted = new AtomicBoolean();
+        Thread producer = new Thread(() -> accepted.set(pipeline.publish("topic", tags("2"), tags("2"))));
+        producer.start();
+        producer.join(200);
+
+        // Then
+        assertTrue(producer.isAlive());
+        releaseConsumer.countDown();
+        producer.join(5000);
+        assertTrue(accepted.get());
+        assertTrue(pipeline.close(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("0", "1", "2"), delivered);
+        assertEquals(0, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void testSinkFailureIsCounted() {
+        // Given
+        pipeline = new AsyncMetricPipeline(4, 1, 4, OverflowPolicy.BLOCK, (topic, index, store) -> {
+            throw new IllegalStateException("collector down");
+        });
+
+        // When
+        pipeline.publish("topic", tags("0"), tags("0"));
+        assertTrue(pipeline.close(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1, pipeline.getFailedCount());
+    }
+
+    @Test
+    public void testBatchSinkReceivesDrainedBatch() throws InterruptedException {
+        // Given
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch firstBatch = new CountDownLatch(1);
+        pipeline = new AsyncMetricPipeline(16, 1, 8, OverflowPolicy.BLOCK, batch -> {
+            if (firstBatch.getCount() > 0) {
+                consumerBusy.countDown();
+                firstBatch.countDown();
+                try {
+                    releaseConsumer.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batchSizes.add(batch.size());
+            batch.forEach(metric -> delivered.add(metric._2.get("id")));
+        });
+        pipeline.publish("topic", tags("0"), tags("0"));
+        assertTrue(consumerBusy.await(5, TimeUnit.SECONDS));
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            pipeline.publish("topic", tags(String.valueOf(i)), tags(String.valueOf(i)));
+        }
+        releaseConsumer.countDown();
+        assertTrue(pipeline.close(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(Arrays.asList(1, 5), batchSizes);
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), delivered);
+    }
+
+    @Test
+    public void testPublishAfterCloseIsDeliveredOnCaller() {
+        // Given
+        pipeline = new AsyncMetricPipeline(4, 1, 4, OverflowPolicy.DROP_NEWEST, (topic, index, store) -> {
+            delivered.add(Thread.currentThread().getName() + ":" + index.get("id"));
+            return null;
+        });
+        assertTrue(pipeline.close(5, TimeUnit.SECONDS));
+
+        // When
+        boolean accepted = pipeline.publish("topic", tags("late"), tags("late"));
+
+        // Then
+        assertTrue(accepted);
+        assertEquals(Collections.singletonList(Thread.currentThread().getName() + ":late"), delivered);
+        assertEquals(0, pipeline.getPublishedCount());
+    }
+
+    private static Map<String, String> tags(String id) {
+        return Collections.singletonMap("id", id);
+    }
+}
@@ -0,0 +1,133 @@
+package group.rxcloud.vrml.metric.meter;
+
+import group.rxcloud.vrml.core.stats.LogLinearBuckets;
+import group.rxcloud.vrml.metric.Metrics;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * The MeterRegistry test.
+ */
+public class MeterRegistryTest {
+
+    private MeterRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new MeterRegistry();
+    }
+
+    @Test
+    public void testCounterConcurrentIncrement() throws InterruptedException {
+        // Given
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                Counter counter = registry.counter("requests");
+                for (int i = 0; i < perThread; i++) {
+                    counter.increment();
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Then
+        assertSame(registry.counter("requests"), registry.counter("requests"));
+        assertEquals(threads * perThread, registry.counter("requests").count());
+    }
+
+    @Test
+    public void testTimerPercentiles() {
+        // Given
+        Timer timer = registry.timer("latency");
+
+        // When
+        for (long i = 1; i <= 1000; i++) {
+            timer.record(i, TimeUnit.MICROSECONDS);
+        }
+        Timer.Snapshot snapshot = timer.snapshot();
+
+        // Then
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.getMaxNanos());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500500), snapshot.getTotalNanos());
+        assertWithinBucketError(TimeUnit.MICROSECONDS.toNanos(500), snapshot.getP50Nanos());
+        assertWithinBucketError(TimeUnit.MICROSECONDS.toNanos(990), snapshot.getP99Nanos());
+        assertWithinBucketError(TimeUnit.MICROSECONDS.toNanos(999), snapshot.getP999Nanos());
+    }
+
+    @Test
+    public void testHistogramBucketsAreContiguous() {
+        // Given / When / Then
+        for (int i = 1; i < LogLinearBuckets.BUCKET_COUNT; i++) {
+            assertEquals(LogLinearBuckets.upperBoundOf(i - 1) + 1, lowerBoundOf(i));
+            assertEquals(i, LogLinearBuckets.indexOf(lowerBoundOf(i)));
+            assertEquals(i, LogLinearBuckets.indexOf(LogLinearBuckets.upperBoundOf(i)));
+        }
+        assertEquals(Long.MAX_VALUE, LogLinearBuckets.upperBoundOf(LogLinearBuckets.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testSnapshotThenReset() {
+        // Given
+        AtomicInteger queue = new AtomicInteger(3);
+        registry.counter("count").add(5);
+        registry.timer("time").recordNanos(100);
+        registry.gauge("set").set(1.5);
+        registry.gauge("sampled", queue::get);
+
+        // When
+        MeterSnapshot first = registry.snapshotThenReset();
+        queue.set(7);
+        MeterSnapshot second = registry.snapshotThenReset();
+
+        // Then
+        assertEquals(Long.valueOf(5), first.getCounters().get("count"));
+        assertEquals(1, first.getTimers().get("time").getCount());
+        assertEquals(Long.valueOf(0), second.getCounters().get("count"));
+        assertEquals(0, second.getTimers().get("time").getCount());
+        assertEquals(0, second.getTimers().get("time").getMaxNanos());
+        assertEquals(1.5, second.getGauges().get("set"), 0.0);
+        assertEquals(3.0, first.getGauges().get("sampled"), 0.0);
+        assertEquals(7.0, second.getGauges().get("sampled"), 0.0);
+    }
+
+    @Test
+    public void testSinkRecordsFailures() {
+        // Given
+        MeterMetricsSink sink = new MeterMetricsSink();
+
+        // When
+        sink.recordTime("vrml.sink.test", 1000, true);
+        sink.recordTime("vrml.sink.test", 2000, false);
+
+        // Then
+        MeterSnapshot snapshot = Metrics.meters().snapshot();
+        assertEquals(2, snapshot.getTimers().get("vrml.sink.test").getCount());
+        assertEquals(Long.valueOf(1), snapshot.getCounters().get("vrml.sink.test.failure"));
+    }
+
+    private static long lowerBoundOf(int index) {
+        return index == 0 ? 0 : LogLinearBuckets.upperBoundOf(index - 1) + 1;
+    }
+
+    private static void assertWithinBucketError(long expected, long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 16);
+    }
+}
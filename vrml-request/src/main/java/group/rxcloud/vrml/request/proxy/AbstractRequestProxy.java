@@ -1,13 +1,28 @@
 package group.rxcloud.vrml.request.proxy;
 
+import group.rxcloud.vrml.core.integration.VrmlContext;
 import group.rxcloud.vrml.core.serialization.Serialization;
 import group.rxcloud.vrml.error.code.ErrorCodeContext;
 import group.rxcloud.vrml.error.exception.ErrorCodeException;
 import group.rxcloud.vrml.log.Logs;
 import io.vavr.control.Either;
+import io.vavr.control.Option;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * The abstract request proxy.
@@ -24,6 +39,41 @@ public abstract class AbstractRequestProxy<Request, Response, Excp extends Error
      */
     protected final Logs logs;
 
+    /**
+     * Retry budget, created from {@link #retryPolicy()} on first use
+     */
+    private volatile RetryBudget retryBudget;
+
+    /**
+     * Hedge statistics
+     */
+    private final HedgeStats hedgeStats = new HedgeStats();
+
+    /**
+     * Invoke latencies of the hedge delay, resolved from {@link #hedgePolicy()} on first use
+     */
+    private volatile Option<LatencyHistogram> latencies;
+
+    /**
+     * Concurrency limiter, resolved from {@link #concurrencyLimiter()} on first use
+     */
+    private volatile Option<ConcurrencyLimiter> concurrencyLimiter;
+
+    /**
+     * Coalescing key function, resolved from {@link #coalescingKey()} on first use
+     */
+    private volatile Option<Function<? super Request, ?>> coalescingKey;
+
+    /**
+     * Coalesced calls in flight by key
+     */
+    private final ConcurrentMap<Object, InFlightCall<Response>> coalescing = new ConcurrentHashMap<>();
+
+    /**
+     * Coalescing statistics
+     */
+    private final CoalescingStats coalescingStats = new CoalescingStats();
+
     public AbstractRequestProxy() {
         logs = Logs.Factory.getLogs(this.getClass())
                 // use requestName() as log key
@@ -63,15 +113,79 @@ public abstract class AbstractRequestProxy<Request, Response, Excp extends Error
      * @return the response
      */
     public Response invoke(Request request) {
-        this.beforeInvoke(request);
+        Function<? super Request, ?> keyFunction = this.getCoalescingKey();
+        if (keyFunction != null) {
+            Object key = keyFunction.apply(request);
+            if (key != null) {
+                return this.invokeCoalesced(key, request);
+            }
+        }
+        return this.invokeDirect(request);
+    }
+
+    /**
+     * The first caller of a key invokes, the callers arriving while it is in flight wait for its outcome.
+     */
+    private Response invokeCoalesced(Object key, Request request) {
+        InFlightCall<Response> call = new InFlightCall<>();
+        InFlightCall<Response> leader = coalescing.putIfAbsent(key, call);
+        if (leader != null) {
+            leader.followers.incrementAndGet();
+            coalescingStats.hit();
+            return this.awaitResponse(leader.future);
+        }
+        coalescingStats.call();
         try {
+            Response response = this.invokeDirect(request);
+            // leave the map first, later callers start a fresh call
+            coalescing.remove(key, call);
+            call.future.complete(response);
+            return response;
+        } catch (Throwable t) {
+            coalescing.remove(key, call);
+            call.future.completeExceptionally(t);
+            throw t;
+        } finally {
+            coalescingStats.fanIn(call.followers.get() + 1);
+        }
+    }
+
+    private Response invokeDirect(Request request) {
+        ConcurrencyLimiter limiter = this.getConcurrencyLimiter();
+        if (limiter == null) {
+            return this.invokeLimited(request, null);
+        }
+        if (!limiter.tryAcquire()) {
+            if (logs.isWarnEnabled()) {
+                logs.warn("[{}] concurrency limit[{}] reached, fail fast.", this.requestName(), limiter.getLimit());
+            }
+            throw this.throwsError(this.dependentErrorCode());
+        }
+        return this.invokeLimited(request, limiter);
+    }
+
+    private Response invokeLimited(Request request, ConcurrencyLimiter limiter) {
+        LatencyHistogram latencies = this.getLatencies();
+        long start = limiter != null || latencies != null ? System.nanoTime() : 0L;
+        boolean failed = false;
+        try {
+            this.beforeInvoke(request);
             Response response = this.invokeRequest(request);
+            if (latencies != null) {
+                latencies.record(System.nanoTime() - start);
+            }
             this.afterInvoke(response);
             return response;
         } catch (ErrorCodeException e) {
             throw e;
         } catch (Exception e) {
+            // only dependency failures lower the concurrency limit, not the response checks
+            failed = true;
             throw this.throwsError(this.dependentErrorCode(), e);
+        } finally {
+            if (limiter != null) {
+                limiter.release(System.nanoTime() - start, failed);
+            }
         }
     }
 
@@ -103,6 +217,446 @@ public abstract class AbstractRequestProxy<Request, Response, Excp extends Error
         return Either.left(retryErrors);
     }
 
+    /**
+     * Invoke response on the {@link #requestExecutor()}.
+     *
+     * @param request the request
+     * @return the future of the response, failed with the {@link ErrorCodeException} of {@link #invoke(Object)}
+     */
+    public CompletableFuture<Response> invokeAsync(Request request) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        this.executeAttempt(VrmlContext.propagate(() -> {
+            try {
+                future.complete(this.invoke(request));
+            } catch (Throwable t) {
+                future.completeExceptionally(this.toError(t));
+            }
+        }), future);
+        return future;
+    }
+
+    /**
+     * Invoke response with the {@link #retryPolicy()}.
+     *
+     * @param request the request
+     * @return the future of the response
+     * @see #invokeWithRetryAsync(Object, RetryPolicy)
+     */
+    public CompletableFuture<Response> invokeWithRetryAsync(Request request) {
+        return this.invokeWithRetryAsync(request, this.retryPolicy());
+    }
+
+    /**
+     * Invoke response with retries, the attempts run on the {@link #requestExecutor()} and the backoff
+     * delays on a shared timer, so no thread waits between attempts.
+     * <p>
+     * Retries stop at the max attempts, at the deadline, or when the retry budget of this proxy is exhausted.
+     * The future fails with the last error, the earlier ones are suppressed into it.
+     *
+     * @param request     the request
+     * @param retryPolicy the retry policy
+     * @return the future of the response
+     */
+    public CompletableFuture<Response> invokeWithRetryAsync(Request request, RetryPolicy retryPolicy) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        RetryBudget budget = this.getRetryBudget();
+        budget.deposit();
+        long deadlineNanos = retryPolicy.getDeadlineNanos();
+        RetryAttempt attempt = new RetryAttempt(request, retryPolicy, budget,
+                deadlineNanos > 0 ? System.nanoTime() + deadlineNanos : 0L, VrmlContext.capture(), future);
+        if (deadlineNanos > 0) {
+            ScheduledFuture<?> timeout = RequestExecutors.scheduler().schedule(() -> future.completeExceptionally(
+                    this.throwsError(this.dependentErrorCode(), new TimeoutException(String.format(
+                            "[%s] invokeWithRetryAsync deadline[%sms] exceeded.", this.requestName(),
+                            TimeUnit.NANOSECONDS.toMillis(deadlineNanos))))),
+                    deadlineNanos, TimeUnit.NANOSECONDS);
+            future.whenComplete((response, throwable) -> timeout.cancel(false));
+        }
+        this.executeAttempt(attempt.context.wrap(attempt), future);
+        return future;
+    }
+
+    /**
+     * Invoke response with hedging and wait for it.
+     *
+     * @param request the request
+     * @return the first successful response
+     * @see #invokeHedgedAsync(Object)
+     */
+    public Response invokeHedged(Request request) {
+        return this.awaitResponse(this.invokeHedgedAsync(request));
+    }
+
+    /**
+     * Invoke response with the {@link #hedgePolicy()}: if the attempt has not completed after the hedge
+     * delay, a second attempt starts and the first successful response wins. The other attempt is
+     * cancelled and interrupted.
+     * <p>
+     * Falls back to {@link #invokeAsync(Object)} when the proxy has no hedge policy.
+     *
+     * @param request the request
+     * @return the future of the first successful response, failed when both attempts fail
+     */
+    public CompletableFuture<Response> invokeHedgedAsync(Request request) {
+        HedgePolicy policy = this.hedgePolicy();
+        if (policy == null) {
+            return this.invokeAsync(request);
+        }
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        new HedgedCall(request, policy, VrmlContext.capture(), future).start();
+        return future;
+    }
+
+    /**
+     * Gets the hedge statistics of this proxy.
+     *
+     * @return the hedge statistics
+     */
+    public HedgeStats getHedgeStats() {
+        return hedgeStats;
+    }
+
+    /**
+     * The hedge policy of {@link #invokeHedgedAsync(Object)}, hedging is off by default.
+     *
+     * @return the hedge policy or {@code null}
+     */
+    protected HedgePolicy hedgePolicy() {
+        return null;
+    }
+
+    private LatencyHistogram getLatencies() {
+        Option<LatencyHistogram> histogram = latencies;
+        if (histogram == null) {
+            histogram = this.hedgePolicy() == null
+                    ? Option.none()
+                    : Option.some(LatencyHistogram.of(this.requestName()));
+            latencies = histogram;
+        }
+        return histogram.getOrNull();
+    }
+
+    /**
+     * Gets the retry budget of this proxy.
+     *
+     * @return the retry budget
+     */
+    public RetryBudget getRetryBudget() {
+        RetryBudget budget = retryBudget;
+        if (budget == null) {
+            synchronized (this) {
+                budget = retryBudget;
+                if (budget == null) {
+                    RetryPolicy policy = this.retryPolicy();
+                    budget = new RetryBudget(policy.getBudgetRatio(), policy.getBudgetBurst());
+                    retryBudget = budget;
+                }
+            }
+        }
+        return budget;
+    }
+
+    /**
+     * The retry policy of {@link #invokeWithRetryAsync(Object)}, its budget settings size the retry budget
+     * of this proxy.
+     *
+     * @return the retry policy
+     */
+    protected RetryPolicy retryPolicy() {
+        return RetryPolicy.DEFAULT;
+    }
+
+    /**
+     * Gets the concurrency limiter of this proxy, shared by the proxies of the same request name.
+     *
+     * @return the limiter or {@code null} when there is no limit
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        Option<ConcurrencyLimiter> limiter = concurrencyLimiter;
+        if (limiter == null) {
+            synchronized (this) {
+                limiter = concurrencyLimiter;
+                if (limiter == null) {
+                    limiter = Option.of(this.concurrencyLimiter())
+                            .map(created -> ConcurrencyLimiter.share(this.requestName(), created));
+                    concurrencyLimiter = limiter;
+                }
+            }
+        }
+        return limiter.getOrNull();
+    }
+
+    /**
+     * The adaptive concurrency limit of {@link #invoke(Object)}, no limit by default.
+     * Called once, calls over the limit fail fast with the {@link #dependentErrorCode()}.
+     *
+     * @return the limiter or {@code null}
+     */
+    protected ConcurrencyLimiter concurrencyLimiter() {
+        return null;
+    }
+
+    /**
+     * Gets the coalescing statistics of this proxy.
+     *
+     * @return the coalescing statistics
+     */
+    public CoalescingStats getCoalescingStats() {
+        return coalescingStats;
+    }
+
+    /**
+     * The coalescing key of {@link #invoke(Object)}, coalescing is off by default.
+     * Called once, concurrent invokes whose requests map to equal keys share one {@link #invokeRequest(Object)}
+     * and all receive its response or error. A {@code null} key is never coalesced, nor are the attempts
+     * of {@link #invokeHedgedAsync(Object)}.
+     *
+     * @return the key function or {@code null}
+     */
+    protected Function<? super Request, ?> coalescingKey() {
+        return null;
+    }
+
+    private Function<? super Request, ?> getCoalescingKey() {
+        Option<Function<? super Request, ?>> keyFunction = coalescingKey;
+        if (keyFunction == null) {
+            keyFunction = Option.of(this.coalescingKey());
+            coalescingKey = keyFunction;
+        }
+        return keyFunction.getOrNull();
+    }
+
+    /**
+     * The executor of async invokes, a shared bounded pool by default.
+     * A rejected attempt fails with the {@link #dependentErrorCode()}.
+     *
+     * @return the executor
+     */
+    protected Executor requestExecutor() {
+        return RequestExecutors.worker();
+    }
+
+    private void executeAttempt(Runnable attempt, CompletableFuture<Response> future) {
+        try {
+            this.requestExecutor().execute(attempt);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(this.throwsError(this.dependentErrorCode(), e));
+        }
+    }
+
+    /**
+     * The error an async invoke fails with, anything but an {@link ErrorCodeException} maps to the
+     * {@link #dependentErrorCode()}.
+     */
+    ErrorCodeException toError(Throwable t) {
+        if (t instanceof ErrorCodeException) {
+            return (ErrorCodeException) t;
+        }
+        Exception cause = t instanceof Exception ? (Exception) t : new ExecutionException(t);
+        try {
+            return this.throwsError(this.dependentErrorCode(), cause);
+        } catch (ErrorCodeException thrown) {
+            return thrown;
+        }
+    }
+
+    private Response awaitResponse(CompletableFuture<Response> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ErrorCodeException) {
+                throw (ErrorCodeException) e.getCause();
+            }
+            throw this.throwsError(this.dependentErrorCode(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw this.throwsError(this.dependentErrorCode(), e);
+        }
+    }
+
+    /**
+     * A coalesced call in flight.
+     */
+    private static final class InFlightCall<Response> {
+
+        private final CompletableFuture<Response> future = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+    }
+
+    /**
+     * The primary and the hedge attempt of one {@link #invokeHedgedAsync(Object)}.
+     */
+    private final class HedgedCall {
+
+        private final Request request;
+        private final HedgePolicy policy;
+        private final VrmlContext context;
+        private final CompletableFuture<Response> future;
+        private final LatencyHistogram latencies;
+
+        private final AtomicInteger launched = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private volatile FutureTask<Void> primary;
+        private volatile FutureTask<Void> hedge;
+        private volatile ErrorCodeException lastError;
+
+        private HedgedCall(Request request, HedgePolicy policy, VrmlContext context, CompletableFuture<Response> future) {
+            this.request = request;
+            this.policy = policy;
+            this.context = context;
+            this.future = future;
+            this.latencies = getLatencies();
+        }
+
+        private void start() {
+            hedgeStats.call();
+            primary = new FutureTask<>(context.wrap(() -> this.attempt(false)), null);
+            launched.incrementAndGet();
+            executeAttempt(primary, future);
+            ScheduledFuture<?> timer = RequestExecutors.scheduler()
+                    .schedule(this::hedge, policy.delayNanos(latencies), TimeUnit.NANOSECONDS);
+            future.whenComplete((response, throwable) -> {
+                timer.cancel(false);
+                if (throwable instanceof CancellationException) {
+                    this.cancel(primary);
+                    this.cancel(hedge);
+                }
+            });
+        }
+
+        private void hedge() {
+            if (future.isDone() || !hedgeStats.tryAcquire(policy.getMaxHedgesInFlight())) {
+                return;
+            }
+            hedge = new FutureTask<Void>(context.wrap(() -> this.attempt(true)), null) {
+                @Override
+                protected void done() {
+                    // also runs when cancelled before start
+                    hedgeStats.release();
+                }
+            };
+            launched.incrementAndGet();
+            try {
+                requestExecutor().execute(hedge);
+            } catch (RejectedExecutionException e) {
+                // no hedge, the primary still decides the call; cancelling releases the permit
+                hedge.cancel(false);
+                if (failed.get() >= launched.decrementAndGet() && lastError != null) {
+                    future.completeExceptionally(lastError);
+                }
+            }
+        }
+
+        private void attempt(boolean isHedge) {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                // never coalesced, a hedge joining the primary's call would only wait for it
+                Response response = invokeDirect(request);
+                if (future.complete(response)) {
+                    if (isHedge) {
+                        hedgeStats.win();
+                    }
+                    // the winner interrupts the loser, never itself
+                    this.cancel(isHedge ? primary : hedge);
+                }
+            } catch (Throwable t) {
+                // the primary failing before the hedge delay fails the call, hedging is not a retry
+                this.fail(toError(t));
+            }
+        }
+
+        private void fail(ErrorCodeException error) {
+            lastError = error;
+            if (failed.incrementAndGet() >= launched.get()) {
+                future.completeExceptionally(error);
+            }
+        }
+
+        private void cancel(FutureTask<Void> task) {
+            if (task != null) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * The attempts of one {@link #invokeWithRetryAsync(Object, RetryPolicy)}, run one after another.
+     */
+    private final class RetryAttempt implements Runnable {
+
+        private final Request request;
+        private final RetryPolicy policy;
+        private final RetryBudget budget;
+        private final long deadline;
+        private final VrmlContext context;
+        private final CompletableFuture<Response> future;
+        private final List<ErrorCodeException> errors = new ArrayList<>();
+
+        private RetryAttempt(Request request, RetryPolicy policy, RetryBudget budget, long deadline,
+                             VrmlContext context, CompletableFuture<Response> future) {
+            this.request = request;
+            this.policy = policy;
+            this.budget = budget;
+            this.deadline = deadline;
+            this.context = context;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(invoke(request));
+            } catch (Throwable t) {
+                ErrorCodeException e = toError(t);
+                errors.add(e);
+                if (logs.isWarnEnabled()) {
+                    logs.warn("[{}] invokeWithRetryAsync count[{}] error: ", requestName(), errors.size(), e);
+                }
+                this.retryOrFail(e);
+            }
+        }
+
+        private void retryOrFail(ErrorCodeException e) {
+            if (errors.size() >= policy.getMaxAttempts() || !policy.isRetryable(e)) {
+                this.fail();
+                return;
+            }
+            long delay = policy.backoffNanos(errors.size());
+            if (deadline != 0 && System.nanoTime() + delay - deadline >= 0) {
+                this.fail();
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                if (logs.isWarnEnabled()) {
+                    logs.warn("[{}] invokeWithRetryAsync retry budget exhausted.", requestName());
+                }
+                this.fail();
+                return;
+            }
+            try {
+                RequestExecutors.scheduler().schedule(
+                        () -> executeAttempt(context.wrap(this), future), delay, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException rejected) {
+                this.fail();
+            }
+        }
+
+        private void fail() {
+            ErrorCodeException last = errors.get(errors.size() - 1);
+            Excp error = throwsError(dependentErrorCode(), last);
+            for (int i = 0; i < errors.size() - 1; i++) {
+                error.addSuppressed(errors.get(i));
+            }
+            future.completeExceptionally(error);
+        }
+    }
+
     /**
      * Logging request
      */
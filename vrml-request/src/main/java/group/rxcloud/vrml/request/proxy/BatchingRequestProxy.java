@@ -0,0 +1,229 @@
+package group.rxcloud.vrml.request.proxy;
+
+import group.rxcloud.vrml.error.code.ErrorCodeContext;
+import group.rxcloud.vrml.error.exception.ErrorCodeException;
+import io.vavr.control.Either;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The micro-batching request proxy.
+ * <p>
+ * Callers still invoke with single requests, the proxy collects them for up to {@link #batchWindowMicros()}
+ * or {@link #maxBatchSize()} items and issues one {@link #invokeRequests(List)} for all of them.
+ * Each caller receives its own item of the batch result, item errors are mapped by their error code.
+ * <p>
+ * Batch calls run on the {@link #batchExecutor()}, never on the {@link #requestExecutor()} whose threads may be
+ * the callers blocked in {@link #invoke(Object)} waiting for the batch.
+ *
+ * @param <Request>  the request
+ * @param <Response> the response
+ * @param <Excp>     the exception
+ * @param <Code>     the error code
+ */
+public abstract class BatchingRequestProxy<Request, Response, Excp extends ErrorCodeException, Code extends ErrorCodeContext>
+        extends AbstractRequestProxy<Request, Response, Excp, Code> {
+
+    private final ConcurrentLinkedQueue<BatchItem<Request, Response>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedItems = new LongAdder();
+
+    /**
+     * Invoke response in the next batch.
+     *
+     * @param request the request
+     * @return the future of the response, failed with the {@link ErrorCodeException} of the item
+     */
+    public CompletableFuture<Response> invokeBatchedAsync(Request request) {
+        BatchItem<Request, Response> item = new BatchItem<>(request);
+        queue.add(item);
+        int size = pending.incrementAndGet();
+        if (size == this.maxBatchSize()) {
+            this.flushAsync();
+        } else if (size == 1) {
+            // the first item of a batch opens the window
+            this.scheduleFlush();
+        }
+        return item.future;
+    }
+
+    /**
+     * The single invoke joins a batch, so {@link #invoke(Object)} keeps its logs, limits and coalescing.
+     *
+     * @param request the request
+     * @return the response
+     * @throws Exception the item error
+     */
+    @Override
+    protected final Response invokeRequest(Request request) throws Exception {
+        try {
+            return this.invokeBatchedAsync(request).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * Invoke the batch request.
+     *
+     * @param requests the requests of the batch
+     * @return the result of each request in the same order, the left is the error code of a failed item
+     * @throws Exception the exception fails the whole batch
+     */
+    protected abstract List<Either<Code, Response>> invokeRequests(List<Request> requests) throws Exception;
+
+    /**
+     * The max wait of the first item of a batch.
+     *
+     * @return the batch window micros, 2ms by default
+     */
+    protected long batchWindowMicros() {
+        return 2000L;
+    }
+
+    /**
+     * The max items of a batch.
+     *
+     * @return the max batch size, 100 by default
+     */
+    protected int maxBatchSize() {
+        return 100;
+    }
+
+    /**
+     * The executor of batch calls, a shared fixed pool by default.
+     * Must not be the {@link #requestExecutor()} or any executor whose threads block on batched invokes.
+     *
+     * @return the executor
+     */
+    protected Executor batchExecutor() {
+        return RequestExecutors.batcher();
+    }
+
+    /**
+     * Get the issued batch calls.
+     *
+     * @return the batches
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Get the items sent in batch calls.
+     *
+     * @return the batched items
+     */
+    public long getBatchedItems() {
+        return batchedItems.sum();
+    }
+
+    private void scheduleFlush() {
+        try {
+            RequestExecutors.scheduler().schedule(this::flushAsync, this.batchWindowMicros(), TimeUnit.MICROSECONDS);
+        } catch (RejectedExecutionException e) {
+            this.flushAsync();
+        }
+    }
+
+    private void flushAsync() {
+        try {
+            this.batchExecutor().execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            logs.error("[{}] batch flush rejected, flush on the caller thread.", this.requestName(), e);
+            this.flush();
+        }
+    }
+
+    private void flush() {
+        int maxBatchSize = this.maxBatchSize();
+        List<BatchItem<Request, Response>> batch = new ArrayList<>(Math.min(maxBatchSize, pending.get() + 1));
+        BatchItem<Request, Response> item;
+        while (batch.size() < maxBatchSize && (item = queue.poll()) != null) {
+            batch.add(item);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        int remaining = pending.addAndGet(-batch.size());
+        if (remaining >= maxBatchSize) {
+            this.flushAsync();
+        } else if (remaining > 0) {
+            this.scheduleFlush();
+        }
+        this.invokeBatch(batch);
+    }
+
+    private void invokeBatch(List<BatchItem<Request, Response>> batch) {
+        batches.increment();
+        batchedItems.add(batch.size());
+        List<Request> requests = new ArrayList<>(batch.size());
+        for (BatchItem<Request, Response> item : batch) {
+            requests.add(item.request);
+        }
+        List<Either<Code, Response>> results;
+        try {
+            results = this.invokeRequests(requests);
+        } catch (Throwable t) {
+            if (logs.isWarnEnabled()) {
+                logs.warn("[{}] batch of [{}] error: ", this.requestName(), batch.size(), t);
+            }
+            for (BatchItem<Request, Response> item : batch) {
+                this.fail(item.future, t);
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<Response> future = batch.get(i).future;
+            try {
+                Either<Code, Response> result = results != null && i < results.size() ? results.get(i) : null;
+                if (result == null) {
+                    future.completeExceptionally(this.throwsError(this.dependentErrorCode()));
+                } else if (result.isRight()) {
+                    future.complete(result.get());
+                } else {
+                    future.completeExceptionally(this.throwsError(result.getLeft()));
+                }
+            } catch (Throwable t) {
+                // a throwsError that throws fails its own item only
+                this.fail(future, t);
+            }
+        }
+    }
+
+    /**
+     * Fail the future of an item, whatever the {@link #throwsError} hook throws.
+     */
+    private void fail(CompletableFuture<Response> future, Throwable t) {
+        try {
+            future.completeExceptionally(this.toError(t));
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * A request waiting for its batch.
+     */
+    private static final class BatchItem<Request, Response> {
+
+        private final Request request;
+        private final CompletableFuture<Response> future = new CompletableFuture<>();
+
+        private BatchItem(Request request) {
+            this.request = request;
+        }
+    }
+}
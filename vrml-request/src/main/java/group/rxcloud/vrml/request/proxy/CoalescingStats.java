@@ -0,0 +1,71 @@
+package group.rxcloud.vrml.request.proxy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The request coalescing statistics of a request proxy.
+ */
+public final class CoalescingStats {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final AtomicInteger maxFanIn = new AtomicInteger();
+
+    CoalescingStats() {
+    }
+
+    void call() {
+        calls.increment();
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void fanIn(int fanIn) {
+        for (; ; ) {
+            int current = maxFanIn.get();
+            if (fanIn <= current || maxFanIn.compareAndSet(current, fanIn)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the calls that reached the dependency.
+     *
+     * @return the calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Get the calls that joined an identical call in flight.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the most callers served by one dependency call.
+     *
+     * @return the max fan in
+     */
+    public int getMaxFanIn() {
+        return maxFanIn.get();
+    }
+
+    /**
+     * Get the callers served per dependency call.
+     *
+     * @return the average fan in, {@code 0} before any call
+     */
+    public double getAverageFanIn() {
+        long issued = calls.sum();
+        return issued == 0 ? 0.0 : (double) (issued + hits.sum()) / issued;
+    }
+}
@@ -0,0 +1,235 @@
+package group.rxcloud.vrml.request.proxy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The adaptive concurrency limit of a request name.
+ * <p>
+ * AIMD: every successful call made while at least half of the limit is in use adds {@code 1 / limit}, so the
+ * limit grows by about one per round trip; every dropped call (a dependency failure, or slower than the
+ * timeout) multiplies it by the backoff ratio. Calls over the limit are rejected instead of queued.
+ * Permits and the limit are plain CAS loops, no lock is taken.
+ */
+public final class ConcurrencyLimiter {
+
+    private static final Map<String, ConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private ConcurrencyLimiter(Builder builder) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.timeoutMillis);
+        double initial = Math.max(minLimit, Math.min(maxLimit, builder.initialLimit));
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initial));
+    }
+
+    /**
+     * Gets the limiter of the request name.
+     *
+     * @param requestName the request name
+     * @return the limiter or {@code null}
+     */
+    public static ConcurrencyLimiter of(String requestName) {
+        return LIMITERS.get(requestName);
+    }
+
+    /**
+     * Share the limiter by request name, the first one registered wins.
+     *
+     * @param requestName the request name
+     * @param limiter     the limiter
+     * @return the shared limiter
+     */
+    static ConcurrencyLimiter share(String requestName, ConcurrencyLimiter limiter) {
+        ConcurrencyLimiter shared = LIMITERS.putIfAbsent(requestName, limiter);
+        return shared != null ? shared : limiter;
+    }
+
+    /**
+     * Acquire a permit without waiting.
+     *
+     * @return {@code false} if the limit is reached
+     */
+    boolean tryAcquire() {
+        for (; ; ) {
+            int current = inFlight.get();
+            if (current >= (int) this.limit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a permit and adjust the limit.
+     *
+     * @param latencyNanos the latency of the call
+     * @param failed       {@code true} if the dependency failed
+     */
+    void release(long latencyNanos, boolean failed) {
+        int using = inFlight.getAndDecrement();
+        boolean drop = failed || (timeoutNanos > 0 && latencyNanos > timeoutNanos);
+        if (drop) {
+            dropped.increment();
+        }
+        for (; ; ) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next;
+            if (drop) {
+                next = Math.max(minLimit, limit * backoffRatio);
+            } else if (using * 2 >= limit) {
+                next = Math.min(maxLimit, limit + 1.0 / limit);
+            } else {
+                // an idle limit has not been proven, keep it
+                return;
+            }
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    /**
+     * Get the current limit.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return (int) this.limit();
+    }
+
+    /**
+     * Get the calls in flight.
+     *
+     * @return the in flight count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the calls rejected by the limit.
+     *
+     * @return the rejections
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the calls that lowered the limit.
+     *
+     * @return the drops
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * The concurrency limiter builder.
+     */
+    public static final class Builder {
+
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private long timeoutMillis = 0;
+
+        /**
+         * The limit before any call completed.
+         *
+         * @param initialLimit the initial limit
+         * @return the builder
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * The lowest limit.
+         *
+         * @param minLimit the min limit
+         * @return the builder
+         */
+        public Builder minLimit(int minLimit) {
+            if (minLimit < 1) {
+                throw new IllegalArgumentException("ConcurrencyLimiter minLimit[" + minLimit + "] is illegal.");
+            }
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * The highest limit.
+         *
+         * @param maxLimit the max limit
+         * @return the builder
+         */
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * The multiplier of the limit on a drop.
+         *
+         * @param backoffRatio the ratio in {@code [0.5, 1)}
+         * @return the builder
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            if (backoffRatio < 0.5 || backoffRatio >= 1.0) {
+                throw new IllegalArgumentException("ConcurrencyLimiter backoffRatio[" + backoffRatio + "] is illegal.");
+            }
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Successful calls slower than the timeout also lower the limit, {@code 0} disables it.
+         *
+         * @param timeoutMillis the timeout millis
+         * @return the builder
+         */
+        public Builder timeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+            return this;
+        }
+
+        /**
+         * Build the concurrency limiter.
+         *
+         * @return the concurrency limiter
+         */
+        public ConcurrencyLimiter build() {
+            if (maxLimit < minLimit) {
+                throw new IllegalArgumentException("ConcurrencyLimiter maxLimit[" + maxLimit + "] is less than minLimit.");
+            }
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package group.rxcloud.vrml.request.proxy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hedge policy of {@link AbstractRequestProxy#invokeHedgedAsync(Object)}.
+ * <p>
+ * A second attempt starts when the first one has not completed after the hedge delay, which is either
+ * fixed or the observed percentile latency of the request name.
+ */
+public final class HedgePolicy {
+
+    private final long delayNanos;
+    private final double percentile;
+    private final long minSamples;
+    private final int maxHedgesInFlight;
+
+    private HedgePolicy(Builder builder) {
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(builder.delayMillis);
+        this.percentile = builder.percentile;
+        this.minSamples = builder.minSamples;
+        this.maxHedgesInFlight = builder.maxHedgesInFlight;
+    }
+
+    public int getMaxHedgesInFlight() {
+        return maxHedgesInFlight;
+    }
+
+    /**
+     * The hedge delay.
+     *
+     * @param latencies the latencies of the request name
+     * @return the delay nanos
+     */
+    long delayNanos(LatencyHistogram latencies) {
+        if (percentile > 0.0) {
+            long observed = latencies.percentileNanos(percentile, minSamples);
+            if (observed >= 0) {
+                return observed;
+            }
+        }
+        return delayNanos;
+    }
+
+    /**
+     * The hedge policy builder.
+     */
+    public static final class Builder {
+
+        private long delayMillis = 50;
+        private double percentile = 0.0;
+        private long minSamples = 100;
+        private int maxHedgesInFlight = 10;
+
+        /**
+         * Fixed hedge delay, also used before the percentile has enough samples.
+         *
+         * @param delayMillis the delay millis
+         * @return the builder
+         */
+        public Builder delayMillis(long delayMillis) {
+            this.delayMillis = delayMillis;
+            return this;
+        }
+
+        /**
+         * Hedge after the observed percentile latency of the request name, e.g. {@code 0.95}.
+         *
+         * @param percentile the percentile in {@code (0, 1]}
+         * @return the builder
+         */
+        public Builder percentile(double percentile) {
+            if (percentile <= 0.0 || percentile > 1.0) {
+                throw new IllegalArgumentException("HedgePolicy percentile[" + percentile + "] is illegal.");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Samples needed before the percentile replaces the fixed delay.
+         *
+         * @param minSamples the min samples
+         * @return the builder
+         */
+        public Builder minSamples(long minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Max hedge attempts in flight of the proxy, further hedges are skipped.
+         *
+         * @param maxHedgesInFlight the max hedges in flight
+         * @return the builder
+         */
+        public Builder maxHedgesInFlight(int maxHedgesInFlight) {
+            this.maxHedgesInFlight = maxHedgesInFlight;
+            return this;
+        }
+
+        /**
+         * Build the hedge policy.
+         *
+         * @return the hedge policy
+         */
+        public HedgePolicy build() {
+            return new HedgePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package group.rxcloud.vrml.request.proxy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The hedge statistics of a request proxy.
+ */
+public final class HedgeStats {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    HedgeStats() {
+    }
+
+    boolean tryAcquire(int maxInFlight) {
+        for (; ; ) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                hedges.increment();
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    void call() {
+        calls.increment();
+    }
+
+    void win() {
+        wins.increment();
+    }
+
+    /**
+     * Get the hedged calls.
+     *
+     * @return the calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Get the issued hedge attempts.
+     *
+     * @return the hedges
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * Get the hedge attempts that completed first.
+     *
+     * @return the wins
+     */
+    public long getWins() {
+        return wins.sum();
+    }
+
+    /**
+     * Get the hedges skipped by the in flight cap.
+     *
+     * @return the rejected hedges
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the hedge attempts in flight.
+     *
+     * @return the in flight hedges
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the share of hedges that won.
+     *
+     * @return the win rate in {@code [0, 1]}
+     */
+    public double getWinRate() {
+        long issued = hedges.sum();
+        return issued == 0 ? 0.0 : (double) wins.sum() / issued;
+    }
+}
@@ -0,0 +1,115 @@
+package group.rxcloud.vrml.request.proxy;
+
+import group.rxcloud.vrml.core.stats.LogLinearBuckets;
+import group.rxcloud.vrml.core.stats.TimeBuckets;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * The observed latency of a request name over the last 10 to 20 seconds.
+ * <p>
+ * Two alternating 10s {@link TimeBuckets} of {@link LogLinearBuckets} in microseconds (under 6.25% relative
+ * error). Recording is one counter increment, the windows are merged at most once per second for
+ * {@link #percentileNanos(double, long)}.
+ * <p>
+ * Every successful invoke of a hedging proxy is recorded, hedged or not. Failed invokes are not, and neither
+ * is an attempt interrupted by the winning hedge, so the percentile leans slightly toward the faster calls.
+ */
+final class LatencyHistogram {
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private static final int BUCKET_COUNT = LogLinearBuckets.BUCKET_COUNT;
+    private static final int WINDOW_COUNT = 2;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TimeBuckets windows = new TimeBuckets(WINDOW_COUNT * WINDOW_NANOS, WINDOW_COUNT, System::nanoTime);
+    private final AtomicLongArray counts = new AtomicLongArray(WINDOW_COUNT * BUCKET_COUNT);
+    private final IntConsumer clearWindow = this::clear;
+
+    private final AtomicLong nextRefresh = new AtomicLong(windows.nanoTime());
+    private volatile double cachedQuantile = -1.0;
+    private volatile long cachedNanos;
+    private volatile long cachedCount;
+
+    /**
+     * Gets the histogram of the request name.
+     *
+     * @param requestName the request name
+     * @return the shared histogram
+     */
+    static LatencyHistogram of(String requestName) {
+        LatencyHistogram histogram = HISTOGRAMS.get(requestName);
+        if (histogram == null) {
+            histogram = HISTOGRAMS.computeIfAbsent(requestName, name -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency nanos
+     */
+    void record(long nanos) {
+        int window = windows.acquire(windows.epoch(), clearWindow);
+        counts.incrementAndGet(window * BUCKET_COUNT + LogLinearBuckets.indexOf(TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * The quantile latency, at most a second old.
+     *
+     * @param quantile   the quantile in {@code [0, 1]}
+     * @param minSamples the samples needed for a result
+     * @return the latency nanos, {@code -1} when there are fewer samples than {@code minSamples}
+     */
+    long percentileNanos(double quantile, long minSamples) {
+        long now = windows.nanoTime();
+        long next = nextRefresh.get();
+        if ((quantile != cachedQuantile || now - next >= 0) && nextRefresh.compareAndSet(next, now + REFRESH_NANOS)) {
+            this.refresh(quantile);
+        }
+        return cachedCount < minSamples ? -1L : cachedNanos;
+    }
+
+    private void refresh(double quantile) {
+        long epoch = windows.epoch();
+        long total = 0;
+        for (int window = 0; window < WINDOW_COUNT; window++) {
+            if (windows.isLive(window, epoch)) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    total += counts.get(window * BUCKET_COUNT + i);
+                }
+            }
+        }
+        long nanos = 0;
+        if (total > 0) {
+            long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT && seen < rank; i++) {
+                for (int window = 0; window < WINDOW_COUNT; window++) {
+                    if (windows.isLive(window, epoch)) {
+                        seen += counts.get(window * BUCKET_COUNT + i);
+                    }
+                }
+                nanos = TimeUnit.MICROSECONDS.toNanos(LogLinearBuckets.upperBoundOf(i));
+            }
+        }
+        cachedNanos = nanos;
+        cachedCount = total;
+        cachedQuantile = quantile;
+    }
+
+    private void clear(int window) {
+        int offset = window * BUCKET_COUNT;
+        for (int i = offset; i < offset + BUCKET_COUNT; i++) {
+            counts.lazySet(i, 0L);
+        }
+    }
+}
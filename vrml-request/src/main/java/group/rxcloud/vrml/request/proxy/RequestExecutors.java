@@ -0,0 +1,98 @@
+package group.rxcloud.vrml.request.proxy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shared threads of request proxies.
+ * <p>
+ * One daemon scheduler thread only fires timers (backoff delays, deadlines), the attempts themselves run
+ * on the worker pool or on the executor a proxy provides. Batch calls run on their own batcher pool, so
+ * callers blocked on a batch never hold the threads the batch needs.
+ */
+final class RequestExecutors {
+
+    private static final int WORKER_THREADS = Math.max(64, Runtime.getRuntime().availableProcessors() * 8);
+    private static final int WORKER_QUEUE_CAPACITY = 1024;
+
+    private static volatile ScheduledExecutorService scheduler;
+    private static volatile ExecutorService worker;
+    private static volatile ExecutorService batcher;
+
+    private RequestExecutors() {
+    }
+
+    /**
+     * The shared timer scheduler, never run blocking work on it.
+     *
+     * @return the scheduler
+     */
+    static ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            synchronized (RequestExecutors.class) {
+                if (scheduler == null) {
+                    ScheduledThreadPoolExecutor executor =
+                            new ScheduledThreadPoolExecutor(1, daemonThreadFactory("vrml-request-scheduler"));
+                    // cancelled deadlines must not pile up in the queue
+                    executor.setRemoveOnCancelPolicy(true);
+                    scheduler = executor;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * The shared worker pool of async invokes, bounded in threads and queued attempts.
+     * A full pool rejects, which fails the invoke with the dependent error code of its proxy.
+     *
+     * @return the worker pool
+     */
+    static ExecutorService worker() {
+        if (worker == null) {
+            synchronized (RequestExecutors.class) {
+                if (worker == null) {
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS,
+                            60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(WORKER_QUEUE_CAPACITY),
+                            daemonThreadFactory("vrml-request-worker"));
+                    executor.allowCoreThreadTimeOut(true);
+                    worker = executor;
+                }
+            }
+        }
+        return worker;
+    }
+
+    /**
+     * The shared pool of batch calls, batches queue up when all its threads are busy.
+     *
+     * @return the batcher pool
+     */
+    static ExecutorService batcher() {
+        if (batcher == null) {
+            synchronized (RequestExecutors.class) {
+                if (batcher == null) {
+                    int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+                    batcher = Executors.newFixedThreadPool(threads, daemonThreadFactory("vrml-request-batcher"));
+                }
+            }
+        }
+        return batcher;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package group.rxcloud.vrml.request.proxy;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The retry budget of a request proxy.
+ * <p>
+ * A token bucket fed by traffic: every request deposits {@code ratio} of a token and every retry withdraws
+ * a whole one, so retries stay below {@code ratio} of the requests however long an outage lasts.
+ * The bucket holds at most {@code burst} tokens and starts full, so a quiet proxy can still retry.
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000L;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * @param ratio the max retries per request
+     * @param burst the max saved up retries
+     */
+    public RetryBudget(double ratio, int burst) {
+        if (ratio < 0.0) {
+            throw new IllegalArgumentException("Retry budget ratio must not be negative!");
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = Math.max(1, burst) * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * Deposit the share of a request.
+     */
+    void deposit() {
+        for (; ; ) {
+            long current = balance.get();
+            long next = Math.min(capacity, current + deposit);
+            if (next == current || balance.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Withdraw a retry.
+     *
+     * @return {@code false} if the budget is exhausted
+     */
+    boolean tryWithdraw() {
+        for (; ; ) {
+            long current = balance.get();
+            if (current < SCALE) {
+                exhausted.increment();
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                retries.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get the retries that can be issued right now.
+     *
+     * @return the available retries
+     */
+    public long getAvailable() {
+        return balance.get() / SCALE;
+    }
+
+    /**
+     * Get the issued retries.
+     *
+     * @return the retries
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Get the retries refused because the budget was exhausted.
+     *
+     * @return the refused retries
+     */
+    public long getExhausted() {
+        return exhausted.sum();
+    }
+}
@@ -0,0 +1,183 @@
+package group.rxcloud.vrml.request.proxy;
+
+import group.rxcloud.vrml.error.exception.ErrorCodeException;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * The retry policy of {@link AbstractRequestProxy#invokeWithRetryAsync(Object, RetryPolicy)}.
+ * <p>
+ * The n-th retry waits a uniformly random delay in {@code [0, min(maxDelay, baseDelay * 2^(n-1))]}
+ * (exponential backoff with full jitter), and no retry starts after the deadline.
+ */
+public final class RetryPolicy {
+
+    /**
+     * The default policy: 3 attempts, 50ms base delay, 1s max delay, 3s deadline, retries up to 10% of traffic.
+     */
+    public static final RetryPolicy DEFAULT = new Builder().build();
+
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final long deadlineNanos;
+    private final double budgetRatio;
+    private final int budgetBurst;
+    private final Predicate<? super ErrorCodeException> retryOn;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelayNanos = TimeUnit.MILLISECONDS.toNanos(builder.baseDelayMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxDelayMillis);
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(builder.deadlineMillis);
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetBurst = builder.budgetBurst;
+        this.retryOn = builder.retryOn;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public int getBudgetBurst() {
+        return budgetBurst;
+    }
+
+    /**
+     * Is the error worth a retry.
+     *
+     * @param e the error
+     * @return {@code true} if retryable
+     */
+    boolean isRetryable(ErrorCodeException e) {
+        return retryOn.test(e);
+    }
+
+    /**
+     * The full jitter backoff before the retry.
+     *
+     * @param retry the retry number starts from 1
+     * @return the delay nanos
+     */
+    long backoffNanos(int retry) {
+        long ceiling = baseDelayNanos << Math.min(retry - 1, 30);
+        if (ceiling <= 0 || ceiling > maxDelayNanos) {
+            ceiling = maxDelayNanos;
+        }
+        return ceiling <= 0 ? 0L : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * The retry policy builder.
+     */
+    public static final class Builder {
+
+        private int maxAttempts = 3;
+        private long baseDelayMillis = 50;
+        private long maxDelayMillis = 1000;
+        private long deadlineMillis = 3000;
+        private double budgetRatio = 0.1;
+        private int budgetBurst = 10;
+        private Predicate<? super ErrorCodeException> retryOn = e -> true;
+
+        /**
+         * Max attempts including the first one.
+         *
+         * @param maxAttempts the max attempts
+         * @return the builder
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("RetryPolicy maxAttempts[" + maxAttempts + "] is illegal.");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Backoff ceiling of the first retry, doubled by every following retry.
+         *
+         * @param baseDelayMillis the base delay millis
+         * @return the builder
+         */
+        public Builder baseDelayMillis(long baseDelayMillis) {
+            this.baseDelayMillis = baseDelayMillis;
+            return this;
+        }
+
+        /**
+         * Max backoff ceiling.
+         *
+         * @param maxDelayMillis the max delay millis
+         * @return the builder
+         */
+        public Builder maxDelayMillis(long maxDelayMillis) {
+            this.maxDelayMillis = maxDelayMillis;
+            return this;
+        }
+
+        /**
+         * Overall deadline of all attempts, {@code 0} means no deadline.
+         *
+         * @param deadlineMillis the deadline millis
+         * @return the builder
+         */
+        public Builder deadlineMillis(long deadlineMillis) {
+            this.deadlineMillis = deadlineMillis;
+            return this;
+        }
+
+        /**
+         * Max retries per request of the proxy, e.g. {@code 0.1} for 10% of the traffic.
+         *
+         * @param budgetRatio the budget ratio
+         * @return the builder
+         */
+        public Builder budgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        /**
+         * Max retries saved up while the proxy is healthy.
+         *
+         * @param budgetBurst the budget burst
+         * @return the builder
+         */
+        public Builder budgetBurst(int budgetBurst) {
+            this.budgetBurst = budgetBurst;
+            return this;
+        }
+
+        /**
+         * Which errors are retried, all by default.
+         *
+         * @param retryOn the predicate
+         * @return the builder
+         */
+        public Builder retryOn(Predicate<? super ErrorCodeException> retryOn) {
+            this.retryOn = Objects.requireNonNull(retryOn, "retryOn");
+            return this;
+        }
+
+        /**
+         * Build the retry policy.
+         *
+         * @return the retry policy
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
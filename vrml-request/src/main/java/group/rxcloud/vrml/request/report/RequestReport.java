@@ -2,15 +2,19 @@ package group.rxcloud.vrml.request.report;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import group.rxcloud.vrml.core.tags.Fixme;
 import group.rxcloud.vrml.request.RequestConfigurationModule;
 import group.rxcloud.vrml.request.config.RequestConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static group.rxcloud.vrml.request.RequestConfigurationModule.DEFAULT_EXPIRE_SECONDS;
 import static group.rxcloud.vrml.request.RequestConfigurationModule.DEFAULT_MAX_SIZE;
@@ -33,10 +37,13 @@ public class RequestReport {
      * @param requestReportValue new request report value
      */
     public static void registerRequest(RequestConfiguration.RequestReportValue requestReportValue) {
-        RequestReport.REPORT_POOL
-                .computeIfAbsent(requestReportValue.getRequestName(),
-                        requestName -> new ReportCache(requestName, requestReportValue.getStrategy()))
-                .put(requestReportValue.getRecordValue());
+        ReportCache reportCache = RequestReport.REPORT_POOL.get(requestReportValue.getRequestName());
+        if (reportCache == null) {
+            reportCache = RequestReport.REPORT_POOL
+                    .computeIfAbsent(requestReportValue.getRequestName(),
+                            requestName -> new ReportCache(requestName, requestReportValue.getStrategy()));
+        }
+        reportCache.put(requestReportValue.getRecordValue());
     }
 
     /**
@@ -58,7 +65,12 @@ public class RequestReport {
         private final String requestName;
         private final RequestConfiguration.RequestReportConfig requestReportConfig;
 
-        private Cache<String, Integer> cache;
+        private Cache<String, AtomicLong> cache;
+
+        /**
+         * The hash set snapshot of {@code noRecordKeys}, rebuilt when the config list is replaced.
+         */
+        private volatile NoRecordKeys noRecordKeys = NoRecordKeys.EMPTY;
 
         /**
          * Instantiates a new Report cache.
@@ -73,11 +85,12 @@ public class RequestReport {
         }
 
         /**
-         * Use {@link Caffeine} cache to record value
+         * Use {@link Caffeine} cache to record value.
+         * Counters are updated in place, so the value expires after the last access instead of the last write.
          */
         private void initCache() {
             cache = Caffeine.newBuilder()
-                    .expireAfterWrite(requestReportConfig.getReportExpiredSeconds() <= 0 ?
+                    .expireAfterAccess(requestReportConfig.getReportExpiredSeconds() <= 0 ?
                             DEFAULT_EXPIRE_SECONDS :
                             requestReportConfig.getReportExpiredSeconds(), TimeUnit.SECONDS)
                     .maximumSize(requestReportConfig.getReportPoolMaxSize() <= 0 ?
@@ -87,37 +100,61 @@ public class RequestReport {
         }
 
         /**
-         * Put the value to statistic pool
+         * Put the value to statistic pool.
+         * <p>
+         * The first put of a value counts 0, every following put adds 1, and the put that would push the
+         * count over {@code reportTriggerCount} alerts once and starts the count from 0 again.
+         * Each value owns an {@link AtomicLong} of puts, the thread whose increment lands on a crossing
+         * is the only one that alerts, so no lock is taken.
          *
          * @param value requests value
          */
-        @Fixme(fixme = "optimize synchronized key")
         void put(String value) {
-            if (requestReportConfig.getNoRecordKeys().contains(value)) {
+            if (isNoRecordKey(value)) {
                 return;
             }
-            Runnable alert = null;
-            synchronized (requestName) {
-                Integer count = cache.getIfPresent(value);
-                if (count == null) {
-                    // init
-                    cache.put(value, 0);
-                } else {
-                    if (count > requestReportConfig.getReportTriggerCount()) {
-                        // alert & init
-                        cache.put(value, 0);
-                        Integer finalCount = count;
-                        alert = () -> RequestReport.alertReport(requestName, value, finalCount);
-                    } else {
-                        // addition
-                        cache.put(value, ++count);
-                    }
-                }
-            }
-            if (alert != null) {
+            long puts = cache.get(value, ReportCache::newCounter).incrementAndGet();
+            // puts of one cycle: the count goes 0, 1, ..., triggerCount + 1, then alerts
+            long cycle = Math.max(1L, (long) requestReportConfig.getReportTriggerCount() + 2);
+            if (puts > 1 && (puts - 1) % cycle == 0) {
                 // currently run sync
-                alert.run();
+                RequestReport.alertReport(requestName, value, (int) (cycle - 1));
             }
         }
+
+        private boolean isNoRecordKey(String value) {
+            List<String> keys = requestReportConfig.getNoRecordKeys();
+            if (keys == null || keys.isEmpty()) {
+                return false;
+            }
+            NoRecordKeys snapshot = noRecordKeys;
+            if (snapshot.source != keys || snapshot.size != keys.size()) {
+                snapshot = new NoRecordKeys(keys);
+                noRecordKeys = snapshot;
+            }
+            return snapshot.keys.contains(value);
+        }
+
+        private static AtomicLong newCounter(String value) {
+            return new AtomicLong();
+        }
+    }
+
+    /**
+     * The immutable hash set of {@code noRecordKeys} and the list it was built from.
+     */
+    private static final class NoRecordKeys {
+
+        static final NoRecordKeys EMPTY = new NoRecordKeys(Collections.emptyList());
+
+        private final List<String> source;
+        private final int size;
+        private final Set<String> keys;
+
+        NoRecordKeys(List<String> source) {
+            this.source = source;
+            this.size = source.size();
+            this.keys = new HashSet<>(source);
+        }
     }
-}
\ No newline at end of file
+}
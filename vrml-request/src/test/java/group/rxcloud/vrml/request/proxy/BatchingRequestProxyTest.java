@@ -0,0 +1,207 @@
+package group.rxcloud.vrml.request.proxy;
+
+import io.vavr.control.Either;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * The BatchingRequestProxy test.
+ */
+public class BatchingRequestProxyTest {
+
+    @Test
+    public void testSinglesMergeIntoOneBatch() throws Exception {
+        // Given
+        UpperCaseProxy proxy = new UpperCaseProxy(TimeUnit.MILLISECONDS.toMicros(50), 100);
+
+        // When
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(proxy.invokeBatchedAsync("item-" + i));
+        }
+
+        // Then
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ITEM-" + i, futures.get(i).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, proxy.getBatches());
+        assertEquals(10, proxy.batchSizes.peek().intValue());
+    }
+
+    @Test
+    public void testFullBatchFlushesBeforeWindow() throws Exception {
+        // Given: a window far longer than the test
+        UpperCaseProxy proxy = new UpperCaseProxy(TimeUnit.SECONDS.toMicros(10), 4);
+
+        // When
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(proxy.invokeBatchedAsync("item-" + i));
+        }
+
+        // Then
+        for (CompletableFuture<String> future : futures) {
+            future.get(1, TimeUnit.SECONDS);
+        }
+        assertEquals(2, proxy.getBatches());
+        assertEquals(8, proxy.getBatchedItems());
+    }
+
+    @Test
+    public void testItemErrorsStayPerItem() throws Exception {
+        // Given
+        UpperCaseProxy proxy = new UpperCaseProxy(1000, 100);
+
+        // When
+        CompletableFuture<String> bad = proxy.invokeBatchedAsync("bad");
+        String good = proxy.invoke("good");
+
+        // Then
+        assertEquals("GOOD", good);
+        try {
+            bad.get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals(TestRequestProxy.TestErrorCode.ITEM_ERROR,
+                    ((TestRequestProxy.TestException) e.getCause()).getErrorCodeContext());
+        }
+    }
+
+    @Test
+    public void testBoundedRequestExecutorDoesNotDeadlock() throws Exception {
+        // Given: the only request thread blocks on the batch of its own invoke
+        ExecutorService requestExecutor = Executors.newSingleThreadExecutor();
+        UpperCaseProxy proxy = new UpperCaseProxy(1000, 100) {
+            @Override
+            protected Executor requestExecutor() {
+                return requestExecutor;
+            }
+        };
+
+        // When
+        String response = proxy.invokeAsync("item").get(1, TimeUnit.SECONDS);
+        requestExecutor.shutdown();
+
+        // Then
+        assertEquals("ITEM", response);
+    }
+
+    @Test
+    public void testThrowingItemErrorFailsOnlyItsItem() throws Exception {
+        // Given: throwsError throws instead of returning
+        UpperCaseProxy proxy = new UpperCaseProxy(TimeUnit.MILLISECONDS.toMicros(50), 100) {
+            @Override
+            protected TestRequestProxy.TestException throwsError(TestRequestProxy.TestErrorCode errorCodes) {
+                throw new TestRequestProxy.TestException(errorCodes);
+            }
+        };
+
+        // When
+        CompletableFuture<String> bad = proxy.invokeBatchedAsync("bad");
+        CompletableFuture<String> good = proxy.invokeBatchedAsync("good");
+
+        // Then
+        assertEquals("GOOD", good.get(1, TimeUnit.SECONDS));
+        try {
+            bad.get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals(TestRequestProxy.TestErrorCode.ITEM_ERROR,
+                    ((TestRequestProxy.TestException) e.getCause()).getErrorCodeContext());
+        }
+        assertEquals(1, proxy.getBatches());
+    }
+
+    @Test
+    public void testBatchErrorCompletesEveryItem() throws Exception {
+        // Given: the batch call throws an Error
+        UpperCaseProxy proxy = new UpperCaseProxy(TimeUnit.MILLISECONDS.toMicros(50), 100) {
+            @Override
+            protected List<Either<TestRequestProxy.TestErrorCode, String>> invokeRequests(List<String> requests) {
+                throw new AssertionError("batch");
+            }
+        };
+
+        // When
+        CompletableFuture<String> first = proxy.invokeBatchedAsync("a");
+        CompletableFuture<String> second = proxy.invokeBatchedAsync("b");
+
+        // Then
+        for (CompletableFuture<String> future : Arrays.asList(first, second)) {
+            try {
+                future.get(1, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertEquals(TestRequestProxy.TestErrorCode.DEPENDENT_ERROR,
+                        ((TestRequestProxy.TestException) e.getCause()).getErrorCodeContext());
+            }
+        }
+    }
+
+    private static class UpperCaseProxy extends BatchingRequestProxy<String, String,
+            TestRequestProxy.TestException, TestRequestProxy.TestErrorCode> {
+
+        private final ConcurrentLinkedQueue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+        private final long windowMicros;
+        private final int maxBatchSize;
+
+        private UpperCaseProxy(long windowMicros, int maxBatchSize) {
+            this.windowMicros = windowMicros;
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        @Override
+        protected List<Either<TestRequestProxy.TestErrorCode, String>> invokeRequests(List<String> requests) {
+            batchSizes.add(requests.size());
+            List<Either<TestRequestProxy.TestErrorCode, String>> results = new ArrayList<>();
+            for (String request : requests) {
+                results.add("bad".equals(request) ?
+                        Either.left(TestRequestProxy.TestErrorCode.ITEM_ERROR) :
+                        Either.right(request.toUpperCase()));
+            }
+            return results;
+        }
+
+        @Override
+        protected long batchWindowMicros() {
+            return windowMicros;
+        }
+
+        @Override
+        protected int maxBatchSize() {
+            return maxBatchSize;
+        }
+
+        @Override
+        protected String requestName() {
+            return "batching";
+        }
+
+        @Override
+        protected TestRequestProxy.TestException throwsError(TestRequestProxy.TestErrorCode errorCodes) {
+            return new TestRequestProxy.TestException(errorCodes);
+        }
+
+        @Override
+        protected TestRequestProxy.TestException throwsError(TestRequestProxy.TestErrorCode errorCodes, Exception e) {
+            return new TestRequestProxy.TestException(errorCodes, e);
+        }
+
+        @Override
+        protected TestRequestProxy.TestErrorCode dependentErrorCode() {
+            return TestRequestProxy.TestErrorCode.DEPENDENT_ERROR;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package group.rxcloud.vrml.request.proxy;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * The ConcurrencyLimiter test.
+ */
+public class ConcurrencyLimiterTest {
+
+    @Test
+    public void testAdditiveIncreaseMultiplicativeDecrease() {
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter.Builder().initialLimit(4).build();
+
+        // When: a busy success grows the limit by 1 / limit
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < 4; i++) {
+            limiter.release(0L, false);
+        }
+        int grown = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(0L, true);
+
+        // Then
+        assertEquals(4, grown);
+        assertEquals(1, limiter.getRejected());
+        assertEquals(1, limiter.getDropped());
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testTimeoutCountsAsDrop() {
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter.Builder()
+                .initialLimit(10)
+                .timeoutMillis(100)
+                .build();
+
+        // When
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+
+        // Then
+        assertEquals(9, limiter.getLimit());
+        assertEquals(1, limiter.getDropped());
+    }
+
+    @Test
+    public void testProxyFailsFastOverLimit() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestRequestProxy proxy = new TestRequestProxy("limit-fail-fast", request -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return request;
+        }) {
+            @Override
+            protected ConcurrencyLimiter concurrencyLimiter() {
+                return new ConcurrencyLimiter.Builder().initialLimit(1).maxLimit(1).build();
+            }
+        };
+        CompletableFuture<String> first = proxy.invokeAsync("first");
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        // When
+        TestRequestProxy.TestException error = null;
+        try {
+            proxy.invoke("second");
+        } catch (TestRequestProxy.TestException e) {
+            error = e;
+        }
+        release.countDown();
+
+        // Then
+        assertNotNull(error);
+        assertEquals(TestRequestProxy.TestErrorCode.DEPENDENT_ERROR, error.getErrorCodeContext());
+        assertEquals("first", first.get(1, TimeUnit.SECONDS));
+        assertEquals(1, proxy.invocations.get());
+        assertSame(proxy.getConcurrencyLimiter(), ConcurrencyLimiter.of("limit-fail-fast"));
+        assertEquals(1, proxy.getConcurrencyLimiter().getRejected());
+    }
+}
@@ -0,0 +1,131 @@
+package group.rxcloud.vrml.request.proxy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * The request coalescing test of AbstractRequestProxy.
+ */
+public class RequestProxyCoalescingTest {
+
+    @Test
+    public void testIdenticalCallsShareOneInvoke() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestRequestProxy proxy = newCoalescingProxy("coalesce-share", request -> {
+            entered.countDown();
+            await(release);
+            return request + "-" + System.nanoTime();
+        });
+
+        // When
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        futures.add(proxy.invokeAsync("price"));
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            futures.add(proxy.invokeAsync("price"));
+        }
+        awaitHits(proxy, 5);
+        release.countDown();
+
+        // Then
+        String response = futures.get(0).get(1, TimeUnit.SECONDS);
+        for (CompletableFuture<String> future : futures) {
+            assertSame(response, future.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, proxy.invocations.get());
+        assertEquals(1, proxy.getCoalescingStats().getCalls());
+        assertEquals(6, proxy.getCoalescingStats().getMaxFanIn());
+        assertNotEquals(response, proxy.invoke("price"));
+    }
+
+    @Test
+    public void testFollowersReceiveTheError() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestRequestProxy proxy = newCoalescingProxy("coalesce-error", request -> {
+            entered.countDown();
+            await(release);
+            throw new IllegalStateException("down");
+        });
+        CompletableFuture<String> leader = proxy.invokeAsync("price");
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = proxy.invokeAsync("price");
+        awaitHits(proxy, 1);
+
+        // When
+        release.countDown();
+
+        // Then
+        Throwable leaderError = errorOf(leader);
+        assertTrue(leaderError instanceof TestRequestProxy.TestException);
+        assertSame(leaderError, errorOf(follower));
+        assertEquals(1, proxy.invocations.get());
+    }
+
+    @Test
+    public void testKeyFunctionErrorFailsTheFuture() throws Exception {
+        // Given
+        TestRequestProxy proxy = new TestRequestProxy("coalesce-key-error", request -> request) {
+            @Override
+            protected Function<? super String, ?> coalescingKey() {
+                return request -> {
+                    throw new IllegalArgumentException("no key");
+                };
+            }
+        };
+
+        // When
+        Throwable error = errorOf(proxy.invokeAsync("price"));
+
+        // Then
+        assertTrue(error instanceof TestRequestProxy.TestException);
+        assertTrue(error.getCause() instanceof IllegalArgumentException);
+        assertEquals(0, proxy.invocations.get());
+    }
+
+    private static TestRequestProxy newCoalescingProxy(String requestName, Function<String, String> handler) {
+        return new TestRequestProxy(requestName, handler) {
+            @Override
+            protected Function<? super String, ?> coalescingKey() {
+                return Function.identity();
+            }
+        };
+    }
+
+    private static void awaitHits(TestRequestProxy proxy, long hits) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (proxy.getCoalescingStats().getHits() < hits && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(hits, proxy.getCoalescingStats().getHits());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Throwable errorOf(CompletableFuture<String> future) throws Exception {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package group.rxcloud.vrml.request.proxy;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * The hedging test of AbstractRequestProxy.
+ */
+public class RequestProxyHedgeTest {
+
+    @Test
+    public void testHedgeWinsAndInterruptsSlowPrimary() throws Exception {
+        // Given: the first attempt hangs, the second answers at once
+        CountDownLatch interrupted = new CountDownLatch(1);
+        TestRequestProxy proxy = new HedgedProxy("hedge-win", new HedgePolicy.Builder().delayMillis(20).build());
+        proxy.setHandler(request -> {
+            if (proxy.invocations.get() == 1) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new IllegalStateException(e);
+                }
+            }
+            return request + "-" + proxy.invocations.get();
+        });
+
+        // When
+        long start = System.nanoTime();
+        String response = proxy.invokeHedged("ping");
+
+        // Then
+        assertEquals("ping-2", response);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        assertEquals(1, proxy.getHedgeStats().getHedges());
+        assertEquals(1.0, proxy.getHedgeStats().getWinRate(), 0.0);
+    }
+
+    @Test
+    public void testInFlightCapSkipsHedge() throws Exception {
+        // Given
+        TestRequestProxy proxy = new HedgedProxy("hedge-cap",
+                new HedgePolicy.Builder().delayMillis(1).maxHedgesInFlight(0).build());
+        proxy.setHandler(request -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return request;
+        });
+
+        // When
+        String response = proxy.invokeHedgedAsync("ping").get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("ping", response);
+        assertEquals(1, proxy.invocations.get());
+        assertEquals(0, proxy.getHedgeStats().getHedges());
+        assertEquals(1, proxy.getHedgeStats().getRejected());
+    }
+
+    @Test
+    public void testPercentileNeedsEnoughSamples() {
+        // Given
+        LatencyHistogram latencies = LatencyHistogram.of("hedge-percentile");
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            latencies.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        // Then: the bucket bound is at most 6.25% above the real latency
+        long p95 = latencies.percentileNanos(0.95, 100);
+        assertTrue(p95 >= TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(p95 <= TimeUnit.MICROSECONDS.toNanos(10625));
+        assertEquals(-1, latencies.percentileNanos(0.95, 1000));
+    }
+
+    @Test
+    public void testPlainInvokesFeedTheHedgeDelay() {
+        // Given
+        TestRequestProxy proxy = new HedgedProxy("hedge-latencies",
+                new HedgePolicy.Builder().percentile(0.95).minSamples(3).build());
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            proxy.invoke("ping");
+        }
+
+        // Then
+        assertTrue(LatencyHistogram.of("hedge-latencies").percentileNanos(0.95, 3) >= 0);
+    }
+
+    @Test
+    public void testRejectedHedgeLeavesPrimaryRunning() throws Exception {
+        // Given: the executor runs the primary and rejects the hedge
+        AtomicInteger executions = new AtomicInteger();
+        TestRequestProxy proxy = new HedgedProxy("hedge-rejected", new HedgePolicy.Builder().delayMillis(1).build()) {
+            @Override
+            protected Executor requestExecutor() {
+                return task -> {
+                    if (executions.incrementAndGet() > 1) {
+                        throw new RejectedExecutionException("full");
+                    }
+                    new Thread(task).start();
+                };
+            }
+        };
+        proxy.setHandler(request -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return request;
+        });
+
+        // When
+        String response = proxy.invokeHedgedAsync("ping").get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("ping", response);
+        assertEquals(2, executions.get());
+        assertEquals(1, proxy.invocations.get());
+        assertEquals(0, proxy.getHedgeStats().getInFlight());
+    }
+
+    @Test
+    public void testHedgeIsNotCoalescedIntoPrimary() throws Exception {
+        // Given: coalescing and hedging are both on, the first attempt hangs
+        TestRequestProxy proxy = new HedgedProxy("hedge-coalesced", new HedgePolicy.Builder().delayMillis(20).build()) {
+            @Override
+            protected Function<? super String, ?> coalescingKey() {
+                return Function.identity();
+            }
+        };
+        proxy.setHandler(request -> {
+            if (proxy.invocations.get() == 1) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return request + "-" + proxy.invocations.get();
+        });
+
+        // When
+        String response = proxy.invokeHedgedAsync("ping").get(1, TimeUnit.SECONDS);
+
+        // Then: the hedge made its own call instead of waiting for the primary
+        assertEquals("ping-2", response);
+        assertEquals(1, proxy.getHedgeStats().getHedges());
+        assertEquals(0, proxy.getCoalescingStats().getHits());
+    }
+
+    private static class HedgedProxy extends TestRequestProxy {
+
+        private final HedgePolicy hedgePolicy;
+
+        private HedgedProxy(String requestName, HedgePolicy hedgePolicy) {
+            super(requestName, request -> request);
+            this.hedgePolicy = hedgePolicy;
+        }
+
+        @Override
+        protected HedgePolicy hedgePolicy() {
+            return hedgePolicy;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package group.rxcloud.vrml.request.proxy;
+
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * The async retry test of AbstractRequestProxy.
+ */
+public class RequestProxyRetryTest {
+
+    private static final RetryPolicy FAST = new RetryPolicy.Builder()
+            .maxAttempts(3)
+            .baseDelayMillis(1)
+            .maxDelayMillis(5)
+            .build();
+
+    @Test
+    public void testRetryUntilSuccess() throws Exception {
+        // Given
+        TestRequestProxy proxy = new TestRequestProxy("retry-success", request -> request);
+        proxy.setHandler(request -> {
+            if (proxy.invocations.get() < 3) {
+                throw new IllegalStateException("down");
+            }
+            return request;
+        });
+
+        // When
+        String response = proxy.invokeWithRetryAsync("ping", FAST).get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("ping", response);
+        assertEquals(3, proxy.invocations.get());
+        assertEquals(2, proxy.getRetryBudget().getRetries());
+    }
+
+    @Test
+    public void testFailureKeepsEarlierErrors() throws Exception {
+        // Given
+        TestRequestProxy proxy = new TestRequestProxy("retry-failure", request -> {
+            throw new IllegalStateException("down");
+        });
+
+        // When
+        ExecutionException error = null;
+        try {
+            proxy.invokeWithRetryAsync("ping", FAST).get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            error = e;
+        }
+
+        // Then
+        assertNotNull(error);
+        assertTrue(error.getCause() instanceof TestRequestProxy.TestException);
+        assertEquals(2, error.getCause().getSuppressed().length);
+        assertEquals(3, proxy.invocations.get());
+    }
+
+    @Test
+    public void testBudgetCapsRetries() throws Exception {
+        // Given: no share of the traffic and a single saved up retry
+        RetryPolicy policy = new RetryPolicy.Builder()
+                .maxAttempts(3)
+                .baseDelayMillis(1)
+                .budgetRatio(0.0)
+                .budgetBurst(1)
+                .build();
+        TestRequestProxy proxy = new TestRequestProxy("retry-budget", request -> {
+            throw new IllegalStateException("down");
+        }) {
+            @Override
+            protected RetryPolicy retryPolicy() {
+                return policy;
+            }
+        };
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            try {
+                proxy.invokeWithRetryAsync("ping").get(1, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                // expected
+            }
+        }
+
+        // Then: 3 first attempts and the single retry, every call is refused one more retry
+        assertEquals(4, proxy.invocations.get());
+        assertEquals(1, proxy.getRetryBudget().getRetries());
+        assertEquals(3, proxy.getRetryBudget().getExhausted());
+    }
+
+    @Test
+    public void testDeadlineFailsWithoutWaitingForAttempt() throws Exception {
+        // Given
+        RetryPolicy policy = new RetryPolicy.Builder().deadlineMillis(50).build();
+        TestRequestProxy proxy = new TestRequestProxy("retry-deadline", request -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return request;
+        });
+
+        // When
+        long start = System.nanoTime();
+        ExecutionException error = null;
+        try {
+            proxy.invokeWithRetryAsync("ping", policy).get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            error = e;
+        }
+
+        // Then
+        assertNotNull(error);
+        assertTrue(error.getCause().getCause() instanceof TimeoutException);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void testFullWorkerPoolFailsWithDependentError() throws Exception {
+        // Given: a single blocked worker with a full queue
+        ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        worker.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.execute(() -> {
+        });
+        TestRequestProxy proxy = new TestRequestProxy("retry-rejected", request -> request) {
+            @Override
+            protected Executor requestExecutor() {
+                return worker;
+            }
+        };
+
+        // When
+        ExecutionException error = null;
+        try {
+            proxy.invokeAsync("ping").get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            error = e;
+        }
+        release.countDown();
+        worker.shutdown();
+
+        // Then
+        assertNotNull(error);
+        assertEquals(TestRequestProxy.TestErrorCode.DEPENDENT_ERROR,
+                ((TestRequestProxy.TestException) error.getCause()).getErrorCodeContext());
+        assertTrue(error.getCause().getCause() instanceof RejectedExecutionException);
+        assertEquals(0, proxy.invocations.get());
+    }
+
+    @Test
+    public void testDefaultWorkerIsBounded() {
+        ThreadPoolExecutor worker = (ThreadPoolExecutor) RequestExecutors.worker();
+
+        assertTrue(worker.getMaximumPoolSize() < Integer.MAX_VALUE);
+        assertTrue(worker.getQueue().remainingCapacity() < Integer.MAX_VALUE);
+    }
+}
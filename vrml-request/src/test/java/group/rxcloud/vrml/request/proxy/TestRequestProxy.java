@@ -0,0 +1,88 @@
+package group.rxcloud.vrml.request.proxy;
+
+import group.rxcloud.vrml.error.code.ErrorCodeContext;
+import group.rxcloud.vrml.error.exception.ErrorCodeException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The request proxy of tests, delegates {@code invokeRequest} to a function.
+ */
+class TestRequestProxy extends AbstractRequestProxy<String, String, TestRequestProxy.TestException, TestRequestProxy.TestErrorCode> {
+
+    final AtomicInteger invocations = new AtomicInteger();
+
+    private final String requestName;
+    private volatile Function<String, String> handler;
+
+    TestRequestProxy(String requestName, Function<String, String> handler) {
+        this.requestName = requestName;
+        this.handler = handler;
+    }
+
+    void setHandler(Function<String, String> handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    protected String requestName() {
+        return requestName;
+    }
+
+    @Override
+    protected TestException throwsError(TestErrorCode errorCodes) throws TestException {
+        return new TestException(errorCodes);
+    }
+
+    @Override
+    protected TestException throwsError(TestErrorCode errorCodes, Exception e) throws TestException {
+        return new TestException(errorCodes, e);
+    }
+
+    @Override
+    protected String invokeRequest(String request) throws Exception {
+        invocations.incrementAndGet();
+        return handler.apply(request);
+    }
+
+    @Override
+    protected TestErrorCode dependentErrorCode() {
+        return TestErrorCode.DEPENDENT_ERROR;
+    }
+
+    enum TestErrorCode implements ErrorCodeContext {
+
+        DEPENDENT_ERROR("TEST-400000", "Dependent error!"),
+        ITEM_ERROR("TEST-400001", "Item error!");
+
+        private final String code;
+        private final String message;
+
+        TestErrorCode(String code, String message) {
+            this.code = code;
+            this.message = message;
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    static final class TestException extends ErrorCodeException {
+
+        TestException(ErrorCodeContext errorCodeContext) {
+            super(errorCodeContext);
+        }
+
+        TestException(ErrorCodeContext errorCodeContext, Throwable cause) {
+            super(errorCodeContext, cause);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package group.rxcloud.vrml.request.report;
+
+import group.rxcloud.vrml.core.beans.SpringContextConfigurator;
+import group.rxcloud.vrml.request.config.RequestConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * The RequestReport test.
+ */
+public class RequestReportTest {
+
+    /**
+     * Shared, the request configuration is resolved once per class loader.
+     */
+    private static final AlertRecorder configuration = new AlertRecorder();
+
+    @Before
+    public void setUp() {
+        configuration.alerts.clear();
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("requestConfiguration", configuration);
+        context.refresh();
+        SpringContextConfigurator.setStaticApplicationContext(context);
+    }
+
+    @After
+    public void tearDown() {
+        SpringContextConfigurator.setStaticApplicationContext(null);
+    }
+
+    @Test
+    public void testAlertOncePerThresholdCrossing() {
+        // Given
+        RequestConfiguration.RequestReportConfig config = newConfig(3);
+        config.setNoRecordKeys(Collections.singletonList("ignored"));
+
+        // When: the count goes 0, 1, 2, 3, 4 and the sixth put alerts
+        for (int i = 0; i < 12; i++) {
+            RequestReport.registerRequest(newValue("serial", "code-1", config));
+            RequestReport.registerRequest(newValue("serial", "ignored", config));
+        }
+
+        // Then
+        assertEquals(2, configuration.alerts.size());
+        assertEquals("serial|code-1|4", configuration.alerts.peek());
+    }
+
+    @Test
+    public void testConcurrentPutsAlertExactlyOnce() throws InterruptedException {
+        // Given
+        RequestConfiguration.RequestReportConfig config = newConfig(98);
+        int threads = 8;
+        int putsPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < putsPerThread; i++) {
+                    RequestReport.registerRequest(newValue("concurrent", "code-1", config));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then: a cycle is 100 puts after the first one
+        assertEquals((threads * putsPerThread - 1) / 100, configuration.alerts.size());
+    }
+
+    private static RequestConfiguration.RequestReportConfig newConfig(int triggerCount) {
+        RequestConfiguration.RequestReportConfig config = new RequestConfiguration.RequestReportConfig();
+        config.setOpenRequestReport(true);
+        config.setReportTriggerCount(triggerCount);
+        return config;
+    }
+
+    private static RequestConfiguration.RequestReportValue newValue(String requestName, String value,
+                                                                     RequestConfiguration.RequestReportConfig config) {
+        return new RequestConfiguration.RequestReportValue.ReportBuilder(requestName)
+                .recordValue(value)
+                .strategy(config)
+                .build();
+    }
+
+    private static final class AlertRecorder implements RequestConfiguration {
+
+        private final ConcurrentLinkedQueue<String> alerts = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public RequestReportConfig getRequestReportConfig(String requestName) {
+            return null;
+        }
+
+        @Override
+        public void requestReportAlert(String requestName, String value, Integer count) {
+            alerts.add(requestName + "|" + value + "|" + count);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package group.rxcloud.vrml.trace;
+
+import group.rxcloud.vrml.data.ability.Traceable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Child {@link Traceable} started from a read-only snapshot of the submitting thread's trace map.
+ * <p>
+ * The snapshot is shared until the first access that could write, which copies it into a private map.
+ * Only ever used by one thread.
+ */
+final class SnapshotTraceable implements Traceable {
+
+    private Map<String, String> snapshot;
+    private Map<String, String> traceMap;
+
+    SnapshotTraceable(Map<String, String> snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Take a read-only copy of the trace map.
+     *
+     * @param traceable the traceable, may be {@code null}
+     * @return the snapshot, {@code null} when the traceable is {@code null}
+     */
+    static Map<String, String> snapshotOf(Traceable traceable) {
+        if (traceable == null) {
+            return null;
+        }
+        Map<String, String> traceMap = traceable.getTraceMap();
+        return traceMap == null || traceMap.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(traceMap));
+    }
+
+    @Override
+    public Map<String, String> getTraceMap() {
+        return ownMap();
+    }
+
+    @Override
+    public void setTraceMap(Map<String, String> traceMap) {
+        this.snapshot = null;
+        this.traceMap = traceMap;
+    }
+
+    @Override
+    public void addTrace(String key, String value) {
+        ownMap().put(key, value);
+    }
+
+    private Map<String, String> ownMap() {
+        if (traceMap == null) {
+            traceMap = snapshot == null ? new HashMap<>() : new HashMap<>(snapshot);
+            snapshot = null;
+        }
+        return traceMap;
+    }
+}
@@ -0,0 +1,70 @@
+package group.rxcloud.vrml.trace;
+
+import group.rxcloud.vrml.core.integration.ContextPropagator;
+import group.rxcloud.vrml.data.ability.Traceable;
+
+import java.util.Map;
+
+/**
+ * Propagates the threadLocal {@code Traceable} of {@link MapTraces} and {@link MapMdcTraces} across threads.
+ * <p>
+ * A read-only copy of the trace maps is captured on the submitting thread, and each task traces into its own
+ * child {@code Traceable} that copies the snapshot on first write, so the submitter and the tasks never write
+ * the same map. Traces added by the task are not visible to the submitter.
+ * <p>
+ * The {@code MDC} part is propagated by vrml-core itself.
+ */
+public final class TraceContextPropagator implements ContextPropagator {
+
+    @Override
+    public Object capture() {
+        Map<String, String> map = SnapshotTraceable.snapshotOf(MapTraces.useThreadLocal().get());
+        Map<String, String> mapMdc = SnapshotTraceable.snapshotOf(MapMdcTraces.useThreadLocal().get());
+        if (map == null && mapMdc == null) {
+            return null;
+        }
+        return new Object[]{map, mapMdc};
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object attach(Object captured) {
+        Traceable[] previous = current();
+        Object[] snapshots = (Object[]) captured;
+        Traceable[] children = new Traceable[2];
+        for (int i = 0; snapshots != null && i < children.length; i++) {
+            if (snapshots[i] != null) {
+                children[i] = new SnapshotTraceable((Map<String, String>) snapshots[i]);
+            }
+        }
+        set(children);
+        return previous;
+    }
+
+    @Override
+    public void restore(Object previous) {
+        set(previous);
+    }
+
+    private static Traceable[] current() {
+        Traceable map = MapTraces.useThreadLocal().get();
+        Traceable mapMdc = MapMdcTraces.useThreadLocal().get();
+        return map == null && mapMdc == null ? null : new Traceable[]{map, mapMdc};
+    }
+
+    private static void set(Object state) {
+        Traceable[] traceables = (Traceable[]) state;
+        Traceable map = traceables == null ? null : traceables[0];
+        Traceable mapMdc = traceables == null ? null : traceables[1];
+        if (map == null) {
+            MapTraces.useThreadLocal().clear();
+        } else {
+            MapTraces.useThreadLocal().initObj(map);
+        }
+        if (mapMdc == null) {
+            MapMdcTraces.useThreadLocal().clear();
+        } else {
+            MapMdcTraces.useThreadLocal().initObj(mapMdc);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package group.rxcloud.vrml.trace.span;
+
+import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The default exporter, appends one JSON line per span to a file.
+ * <p>
+ * The default file is {@code ${java.io.tmpdir}/vrml-spans.log},
+ * override it with the system property {@value #FILE_PROPERTY}.
+ * <p>
+ * The file is bounded: once it reaches the max size (default 64MB, the system property
+ * {@value #MAX_BYTES_PROPERTY}) it is rolled to {@code <file>.1}, replacing the previous roll,
+ * so at most twice the max size is kept on disk.
+ */
+public final class FileSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    /**
+     * The system property of the default span file.
+     */
+    public static final String FILE_PROPERTY = "vrml.trace.span.file";
+
+    /**
+     * The system property of the max bytes of the span file before it is rolled.
+     */
+    public static final String MAX_BYTES_PROPERTY = "vrml.trace.span.file.maxBytes";
+
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final Path path;
+    private final Path rolledPath;
+    private final long maxBytes;
+    private Writer writer;
+    private long written;
+
+    /**
+     * Create the exporter with the default max size, the file is opened on the first export.
+     *
+     * @param path the span file
+     */
+    public FileSpanExporter(Path path) {
+        this(path, Try.of(() -> Long.parseLong(System.getProperty(MAX_BYTES_PROPERTY,
+                String.valueOf(DEFAULT_MAX_BYTES)))).getOrElse(DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * Create the exporter, the file is opened on the first export.
+     *
+     * @param path     the span file
+     * @param maxBytes the max bytes of the file before it is rolled
+     */
+    public FileSpanExporter(Path path, long maxBytes) {
+        this.path = Objects.requireNonNull(path, "Span file is null!");
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Span file max bytes must be positive!");
+        }
+        this.rolledPath = path.resolveSibling(path.getFileName() + ".1");
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Create the exporter of the default span file.
+     *
+     * @return the exporter
+     */
+    public static FileSpanExporter createDefault() {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return new FileSpanExporter(Paths.get(System.getProperty("java.io.tmpdir"), "vrml-spans.log"));
+        }
+        return new FileSpanExporter(Paths.get(file));
+    }
+
+    @Override
+    public synchronized void export(List<Span> spans) {
+        StringBuilder line = new StringBuilder(256);
+        try {
+            if (writer == null) {
+                this.open();
+            }
+            for (Span span : spans) {
+                line.setLength(0);
+                appendJson(line, span);
+                line.append('\n');
+                if (written > 0 && written + line.length() > maxBytes) {
+                    this.roll();
+                }
+                writer.write(line.toString());
+                // spans are mostly ascii, chars are close enough to bytes
+                written += line.length();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("[Vrml]Spans failed to write [{}]", path, e);
+            close();
+        }
+    }
+
+    private void open() throws IOException {
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        written = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        writer = null;
+        Files.move(path, rolledPath, StandardCopyOption.REPLACE_EXISTING);
+        this.open();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("[Vrml]Spans failed to close [{}]", path, e);
+            }
+            writer = null;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    static void appendJson(StringBuilder out, Span span) {
+        out.append('{');
+        appendField(out, "traceId", span.getTraceId()).append(',');
+        appendField(out, "spanId", span.getSpanId()).append(',');
+        if (span.getParentSpanId() != null) {
+            appendField(out, "parentSpanId", span.getParentSpanId()).append(',');
+        }
+        appendField(out, "name", span.getName()).append(',');
+        out.append("\"startMicros\":").append(span.getStartEpochMicros()).append(',');
+        out.append("\"durationNanos\":").append(span.getDurationNanos());
+        Map<String, String> tags = span.getTags();
+        if (!tags.isEmpty()) {
+            out.append(",\"tags\":{");
+            boolean first = true;
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                appendField(out, tag.getKey(), tag.getValue());
+                first = false;
+            }
+            out.append('}');
+        }
+        out.append('}');
+    }
+
+    private static StringBuilder appendField(StringBuilder out, String key, String value) {
+        appendString(out, key);
+        out.append(':');
+        appendString(out, value);
+        return out;
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,224 @@
+package group.rxcloud.vrml.trace.span;
+
+import group.rxcloud.vrml.core.integration.TraceIds;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A timed stage of a trace.
+ * <p>
+ * Spans are started with {@link Spans#start(String)} or {@link #child(String)}, tagged by the owner thread
+ * and {@link #end() ended} exactly once, then handed to the {@link SpanCollector}.
+ * Durations come from {@link System#nanoTime()}.
+ * Spans of unsampled traces are shared no-op instances, nothing is allocated or exported for them.
+ */
+public final class Span implements AutoCloseable {
+
+    /**
+     * The inert no-op span.
+     */
+    static final Span NOOP = new Span();
+
+    /**
+     * The no-op span returned for an unsampled root, ending it leaves the unsampled trace.
+     */
+    static final Span SUPPRESSED = new Span();
+
+    private static final long RUNNING = -1L;
+    private static final AtomicLongFieldUpdater<Span> DURATION =
+            AtomicLongFieldUpdater.newUpdater(Span.class, "durationNanos");
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final long startEpochMicros;
+    private final long startNanos;
+
+    /**
+     * The enclosing span restored as current when this span ends, {@code null} if not bound to the thread.
+     */
+    private final Span enclosing;
+    private final boolean bound;
+    private final SpanCollector collector;
+
+    private Map<String, String> tags;
+    private volatile long durationNanos = RUNNING;
+
+    private Span() {
+        this.traceId = null;
+        this.spanId = null;
+        this.parentSpanId = null;
+        this.name = null;
+        this.startEpochMicros = 0L;
+        this.startNanos = 0L;
+        this.enclosing = null;
+        this.bound = false;
+        this.collector = null;
+    }
+
+    Span(String traceId, String parentSpanId, String name, Span enclosing, boolean bound, SpanCollector collector) {
+        this.traceId = traceId;
+        this.spanId = TraceIds.newSpanId();
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.enclosing = enclosing;
+        this.bound = bound;
+        this.collector = collector;
+        this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Start a child span which is not bound to the current thread, e.g. for a stage running asynchronously.
+     *
+     * @param childName the child span name
+     * @return the child span, no-op if this span is not sampled
+     */
+    public Span child(String childName) {
+        if (!isSampled()) {
+            return NOOP;
+        }
+        return new Span(traceId, spanId, childName, null, false, collector);
+    }
+
+    /**
+     * Tag the span, ignored after the span ended.
+     *
+     * @param key   the tag key
+     * @param value the tag value
+     * @return this span
+     */
+    public Span tag(String key, String value) {
+        if (!isSampled() || key == null || value == null || isEnded()) {
+            return this;
+        }
+        if (tags == null) {
+            tags = new LinkedHashMap<>(8);
+        }
+        tags.put(key, value);
+        return this;
+    }
+
+    /**
+     * End the span and hand it to the collector, later calls are ignored.
+     */
+    public void end() {
+        if (this == SUPPRESSED) {
+            Spans.exitSuppressed();
+            return;
+        }
+        if (!isSampled()) {
+            return;
+        }
+        long duration = System.nanoTime() - startNanos;
+        if (!DURATION.compareAndSet(this, RUNNING, duration)) {
+            return;
+        }
+        if (bound) {
+            Spans.exit(this);
+        }
+        collector.offer(this);
+    }
+
+    /**
+     * Same as {@link #end()}.
+     */
+    @Override
+    public void close() {
+        end();
+    }
+
+    /**
+     * Whether the span is recorded.
+     *
+     * @return {@code false} for spans of unsampled traces
+     */
+    public boolean isSampled() {
+        return traceId != null;
+    }
+
+    /**
+     * Whether the span ended.
+     *
+     * @return {@code true} if ended
+     */
+    public boolean isEnded() {
+        return durationNanos != RUNNING;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Gets parent span id.
+     *
+     * @return the parent span id, {@code null} for the root span
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets start time.
+     *
+     * @return the wall clock start time in epoch microseconds
+     */
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    /**
+     * Gets duration.
+     *
+     * @return the duration in nanoseconds, {@code -1} while running
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Gets tags.
+     *
+     * @return the unmodifiable tags
+     */
+    public Map<String, String> getTags() {
+        return tags == null ? Collections.emptyMap() : Collections.unmodifiableMap(tags);
+    }
+
+    Span getEnclosing() {
+        return enclosing;
+    }
+
+    SpanCollector getCollector() {
+        return collector;
+    }
+
+    @Override
+    public String toString() {
+        if (!isSampled()) {
+            return "Span{unsampled}";
+        }
+        return "Span{" +
+                "traceId='" + traceId + '\'' +
+                ", spanId='" + spanId + '\'' +
+                ", parentSpanId='" + parentSpanId + '\'' +
+                ", name='" + name + '\'' +
+                ", durationNanos=" + durationNanos +
+                ", tags=" + getTags() +
+                '}';
+    }
+}
@@ -0,0 +1,148 @@
+package group.rxcloud.vrml.trace.span;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffers finished spans in a bounded lock-free ring and drains them to a {@link SpanExporter}.
+ * <p>
+ * Ending a span only claims a ring slot, exporter I/O runs on the {@code vrml-trace-exporter} daemon thread
+ * every flush interval. When the ring is full the span is dropped and counted.
+ */
+public final class SpanCollector implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SpanCollector.class);
+
+    private static final int MAX_BATCH_SIZE = 512;
+
+    private final SpanRingBuffer buffer;
+    private final SpanExporter exporter;
+    private final long flushIntervalNanos;
+    private final Thread drainer;
+    private final Object drainLock = new Object();
+    private volatile boolean running = true;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Create the collector.
+     *
+     * @param capacity            the ring capacity, rounded up to a power of two
+     * @param exporter            the exporter
+     * @param flushIntervalMillis the drain interval, {@code 0} disables the drain thread and spans are only
+     *                            exported by {@link #drain()}
+     */
+    public SpanCollector(int capacity, SpanExporter exporter, long flushIntervalMillis) {
+        if (flushIntervalMillis < 0) {
+            throw new IllegalArgumentException("Span flush interval must not be negative!");
+        }
+        this.buffer = new SpanRingBuffer(capacity);
+        this.exporter = Objects.requireNonNull(exporter, "Span exporter is null!");
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        if (flushIntervalMillis > 0) {
+            this.drainer = new Thread(this::run, "vrml-trace-exporter");
+            this.drainer.setDaemon(true);
+            this.drainer.start();
+        } else {
+            this.drainer = null;
+        }
+    }
+
+    /**
+     * Offer a finished span.
+     *
+     * @param span the span
+     * @return {@code false} if the span was dropped
+     */
+    public boolean offer(Span span) {
+        if (running && buffer.offer(span)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Export all buffered spans on the caller thread.
+     *
+     * @return the number of drained spans
+     */
+    public int drain() {
+        synchronized (drainLock) {
+            int total = 0;
+            for (; ; ) {
+                List<Span> batch = new ArrayList<>(Math.min(MAX_BATCH_SIZE, Math.max(1, buffer.size())));
+                int drained = buffer.drainTo(batch, MAX_BATCH_SIZE);
+                if (drained == 0) {
+                    return total;
+                }
+                export(batch);
+                total += drained;
+            }
+        }
+    }
+
+    private void export(List<Span> batch) {
+        try {
+            exporter.export(batch);
+            exported.add(batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.warn("[Vrml]Spans export exception!", e);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            drain();
+        }
+    }
+
+    /**
+     * Stop the drain thread, export the remaining spans and close the exporter.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (drainer != null) {
+            drainer.interrupt();
+            try {
+                drainer.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+        exporter.close();
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getExportedCount() {
+        return exported.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,25 @@
+package group.rxcloud.vrml.trace.span;
+
+import group.rxcloud.vrml.core.integration.ContextPropagator;
+
+/**
+ * Propagates the current span across threads, spans started by the task become its children.
+ * Tasks submitted inside an unsampled trace stay unsampled.
+ */
+public final class SpanContextPropagator implements ContextPropagator {
+
+    @Override
+    public Object capture() {
+        return Spans.captureFrame();
+    }
+
+    @Override
+    public Object attach(Object captured) {
+        return Spans.attachFrame((Span) captured);
+    }
+
+    @Override
+    public void restore(Object previous) {
+        Spans.restoreFrame(previous);
+    }
+}
@@ -0,0 +1,24 @@
+package group.rxcloud.vrml.trace.span;
+
+import java.util.List;
+
+/**
+ * The exporter of finished spans.
+ */
+@FunctionalInterface
+public interface SpanExporter extends AutoCloseable {
+
+    /**
+     * Export a batch of finished spans, invoked by a single drain thread.
+     *
+     * @param spans the finished spans
+     */
+    void export(List<Span> spans);
+
+    /**
+     * Release the exporter resources.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,84 @@
+package group.rxcloud.vrml.trace.span;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer of finished spans, many producers and a single consumer.
+ * <p>
+ * Producers claim a sequence with CAS and never block, a full buffer rejects the span.
+ * The consumer clears each slot before advancing {@code head}, so a claimed slot is always empty.
+ */
+final class SpanRingBuffer {
+
+    private final AtomicReferenceArray<Span> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    SpanRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Span buffer capacity must be positive!");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Offer a span.
+     *
+     * @param span the finished span
+     * @return {@code false} if the buffer is full
+     */
+    boolean offer(Span span) {
+        for (; ; ) {
+            long sequence = tail.get();
+            if (sequence - head >= slots.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                slots.lazySet((int) sequence & mask, span);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drain the published spans, must be called by one thread at a time.
+     *
+     * @param out the drained spans
+     * @param max the max number of spans
+     * @return the number of drained spans
+     */
+    int drainTo(List<Span> out, int max) {
+        long sequence = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) sequence & mask;
+            Span span = slots.get(index);
+            if (span == null) {
+                // claimed but not yet published
+                break;
+            }
+            slots.lazySet(index, null);
+            out.add(span);
+            sequence++;
+            drained++;
+        }
+        head = sequence;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
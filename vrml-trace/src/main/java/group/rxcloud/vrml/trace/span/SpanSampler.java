@@ -0,0 +1,52 @@
+package group.rxcloud.vrml.trace.span;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The head sampler, decides once per root span whether the whole trace is recorded.
+ */
+@FunctionalInterface
+public interface SpanSampler {
+
+    /**
+     * Whether the trace started by the root span should be recorded.
+     *
+     * @param name the root span name
+     * @return {@code true} if sampled
+     */
+    boolean isSampled(String name);
+
+    /**
+     * Record every trace.
+     *
+     * @return the sampler
+     */
+    static SpanSampler always() {
+        return name -> true;
+    }
+
+    /**
+     * Record no trace.
+     *
+     * @return the sampler
+     */
+    static SpanSampler never() {
+        return name -> false;
+    }
+
+    /**
+     * Record a random ratio of traces.
+     *
+     * @param ratio the ratio in {@code [0, 1]}
+     * @return the sampler
+     */
+    static SpanSampler ratio(double ratio) {
+        if (ratio >= 1.0) {
+            return always();
+        }
+        if (ratio <= 0.0) {
+            return never();
+        }
+        return name -> ThreadLocalRandom.current().nextDouble() < ratio;
+    }
+}
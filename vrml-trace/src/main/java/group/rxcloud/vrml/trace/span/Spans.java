@@ -0,0 +1,180 @@
+package group.rxcloud.vrml.trace.span;
+
+import group.rxcloud.vrml.core.integration.TraceIds;
+import group.rxcloud.vrml.core.integration.VrmlTraceIntegration;
+import io.vavr.control.Try;
+
+import java.util.Objects;
+
+/**
+ * The Spans API, builds a span tree per thread.
+ * <p>
+ * The first span started on a thread is the root. It joins the {@code traceId} already in MDC if any,
+ * and asks the {@link SpanSampler} once whether the whole trace is recorded. Spans started while
+ * another span is current become its children. Unsampled traces return shared no-op spans, so no
+ * span is created. The sample ratio defaults to the system property {@value #SAMPLE_RATIO_PROPERTY}
+ * (default {@code 1.0}).
+ *
+ * <pre>{@code
+ * try (Span request = Spans.start("order.create")) {
+ *     try (Span load = Spans.start("cache.load")) {
+ *         load.tag("key", key);
+ *     }
+ * }
+ * }</pre>
+ */
+public abstract class Spans {
+
+    /**
+     * The system property of the default head sample ratio.
+     */
+    public static final String SAMPLE_RATIO_PROPERTY = "vrml.trace.span.sampleRatio";
+
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000L;
+
+    private static final ThreadLocal<Frame> FRAMES = ThreadLocal.withInitial(Frame::new);
+
+    private static volatile SpanSampler sampler = SpanSampler.ratio(
+            Try.of(() -> Double.parseDouble(System.getProperty(SAMPLE_RATIO_PROPERTY, "1.0")))
+                    .getOrElse(1.0));
+
+    private static volatile SpanCollector collector;
+
+    /**
+     * Start a span bound to the current thread, as a child of the current span if any.
+     *
+     * @param name the span name
+     * @return the started span, no-op if the trace is not sampled
+     */
+    public static Span start(String name) {
+        Frame frame = FRAMES.get();
+        Span parent = frame.current;
+        Span span;
+        if (parent != null) {
+            span = new Span(parent.getTraceId(), parent.getSpanId(), name, parent, true, parent.getCollector());
+        } else {
+            if (frame.suppressed > 0 || !sampler.isSampled(name)) {
+                frame.suppressed++;
+                return Span.SUPPRESSED;
+            }
+            String traceId = VrmlTraceIntegration.getCurrentTraceId();
+            if (traceId == null) {
+                traceId = TraceIds.newTraceId();
+            }
+            span = new Span(traceId, null, name, null, true, getCollector());
+        }
+        frame.current = span;
+        return span;
+    }
+
+    /**
+     * Get the current span.
+     *
+     * @return the current span, no-op if none
+     */
+    public static Span current() {
+        Span current = FRAMES.get().current;
+        return current != null ? current : Span.NOOP;
+    }
+
+    static void exit(Span span) {
+        Frame frame = FRAMES.get();
+        if (frame.current == span) {
+            frame.current = span.getEnclosing();
+        }
+    }
+
+    static void exitSuppressed() {
+        Frame frame = FRAMES.get();
+        if (frame.suppressed > 0) {
+            frame.suppressed--;
+        }
+    }
+
+    // -- PROPAGATION
+
+    static Span captureFrame() {
+        Frame frame = FRAMES.get();
+        if (frame.current != null) {
+            return frame.current;
+        }
+        return frame.suppressed > 0 ? Span.SUPPRESSED : null;
+    }
+
+    static Object attachFrame(Span captured) {
+        Frame previous = FRAMES.get();
+        Frame frame = new Frame();
+        if (captured == Span.SUPPRESSED) {
+            frame.suppressed = 1;
+        } else {
+            frame.current = captured;
+        }
+        FRAMES.set(frame);
+        return previous;
+    }
+
+    static void restoreFrame(Object previous) {
+        FRAMES.set((Frame) previous);
+    }
+
+    // -- CONFIG
+
+    public static SpanSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Sets the head sampler.
+     *
+     * @param spanSampler the sampler
+     */
+    public static void setSampler(SpanSampler spanSampler) {
+        sampler = Objects.requireNonNull(spanSampler, "Span sampler is null!");
+    }
+
+    /**
+     * Gets the collector, the default one exports to {@link FileSpanExporter#createDefault()}.
+     *
+     * @return the collector
+     */
+    public static SpanCollector getCollector() {
+        SpanCollector current = collector;
+        if (current == null) {
+            synchronized (Spans.class) {
+                current = collector;
+                if (current == null) {
+                    current = new SpanCollector(DEFAULT_CAPACITY, FileSpanExporter.createDefault(),
+                            DEFAULT_FLUSH_INTERVAL_MILLIS);
+                    collector = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Sets the collector, the previous collector is not closed.
+     *
+     * @param spanCollector the collector, {@code null} to use the default collector again
+     */
+    public static void setCollector(SpanCollector spanCollector) {
+        collector = spanCollector;
+    }
+
+    /**
+     * The per-thread span state.
+     */
+    private static final class Frame {
+
+        /**
+         * The current sampled span.
+         */
+        private Span current;
+
+        /**
+         * The depth of spans started inside an unsampled trace.
+         */
+        private int suppressed;
+    }
+}
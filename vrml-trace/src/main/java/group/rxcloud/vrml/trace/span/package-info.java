@@ -0,0 +1,4 @@
+/**
+ * This package defined the span API to measure the latency of each stage in a request.
+ */
+package group.rxcloud.vrml.trace.span;
@@ -0,0 +1,106 @@
+package group.rxcloud.vrml.trace;
+
+import group.rxcloud.vrml.core.integration.VrmlContext;
+import group.rxcloud.vrml.data.ability.Traceable;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * The trace context propagator test.
+ */
+public class TraceContextPropagatorTest {
+
+    @After
+    public void tearDown() {
+        MapTraces.useThreadLocal().clear();
+        MDC.clear();
+    }
+
+    @Test
+    public void testPropagatedTaskWritesIntoChildTraceable() throws Exception {
+        // Given
+        Traceable traceable = new MapTraceable();
+        MapTraces.useThreadLocal().initObj(traceable);
+        MapTraces.useThreadLocal().trace("request", "r-1");
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        ExecutorService executor = VrmlContext.executorService(worker);
+        CountDownLatch taskStarted = new CountDownLatch(1);
+        CountDownLatch callerWritten = new CountDownLatch(1);
+
+        // When
+        Future<Map<String, String>> task = executor.submit(() -> {
+            MapTraces.useThreadLocal().trace("step", "task");
+            taskStarted.countDown();
+            callerWritten.await(5, TimeUnit.SECONDS);
+            return new HashMap<>(MapTraces.useThreadLocal().get().getTraceMap());
+        });
+        taskStarted.await(5, TimeUnit.SECONDS);
+        MapTraces.useThreadLocal().trace("step", "caller");
+        callerWritten.countDown();
+        Map<String, String> taskTraces = task.get(5, TimeUnit.SECONDS);
+        boolean workerRestored = worker.submit(() -> MapTraces.useThreadLocal().get() == null)
+                .get(5, TimeUnit.SECONDS);
+        worker.shutdown();
+
+        // Then
+        assertEquals("r-1", taskTraces.get("request"));
+        assertEquals("task", taskTraces.get("step"));
+        assertEquals("caller", traceable.getTraceMap().get("step"));
+        assertEquals(2, traceable.getTraceMap().size());
+        assertSame(traceable, MapTraces.useThreadLocal().get());
+        assertTrue(workerRestored);
+    }
+
+    @Test
+    public void testMdcSnapshotIgnoresLaterWrites() throws Exception {
+        // Given: a worker with its own MDC, the caller captures then keeps writing
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        worker.submit(() -> MDC.put("worker", "w-1")).get(5, TimeUnit.SECONDS);
+        MDC.put("request", "r-1");
+        VrmlContext context = VrmlContext.capture();
+        MDC.put("request", "r-2");
+        MDC.remove("request");
+
+        // When
+        Future<String> task = worker.submit(context.wrap(() -> MDC.get("request") + "," + MDC.get("worker")));
+        String taskMdc = task.get(5, TimeUnit.SECONDS);
+        String workerMdc = worker.submit(() -> MDC.get("request") + "," + MDC.get("worker"))
+                .get(5, TimeUnit.SECONDS);
+        worker.shutdown();
+
+        // Then
+        assertEquals("r-1,null", taskMdc);
+        assertEquals("null,w-1", workerMdc);
+    }
+
+    private static class MapTraceable implements Traceable {
+
+        private Map<String, String> traceMap = new HashMap<>();
+
+        @Override
+        public Map<String, String> getTraceMap() {
+            return traceMap;
+        }
+
+        @Override
+        public void setTraceMap(Map<String, String> traceMap) {
+            this.traceMap = traceMap;
+        }
+
+        @Override
+        public void addTrace(String key, String value) {
+            traceMap.put(key, value);
+        }
+    }
+}
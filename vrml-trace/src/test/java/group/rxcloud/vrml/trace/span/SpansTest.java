@@ -0,0 +1,192 @@
+package group.rxcloud.vrml.trace.span;
+
+import group.rxcloud.vrml.core.integration.VrmlContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * The Spans test.
+ */
+public class SpansTest {
+
+    private final List<Span> exported = Collections.synchronizedList(new ArrayList<>());
+    private SpanCollector collector;
+
+    @Before
+    public void setUp() {
+        collector = new SpanCollector(16, exported::addAll, 0);
+        Spans.setCollector(collector);
+        Spans.setSampler(SpanSampler.always());
+    }
+
+    @After
+    public void tearDown() {
+        Spans.setCollector(null);
+        Spans.setSampler(SpanSampler.always());
+    }
+
+    @Test
+    public void testNestedSpansBuildTree() {
+        // Given
+        Span root = Spans.start("request");
+        Span child = Spans.start("cache.load").tag("key", "order:1");
+
+        // When
+        assertSame(child, Spans.current());
+        child.end();
+        assertSame(root, Spans.current());
+        root.end();
+        collector.drain();
+
+        // Then
+        assertSame(Span.NOOP, Spans.current());
+        assertEquals(2, exported.size());
+        assertSame(child, exported.get(0));
+        assertSame(root, exported.get(1));
+        assertEquals(root.getTraceId(), child.getTraceId());
+        assertEquals(root.getSpanId(), child.getParentSpanId());
+        assertNull(root.getParentSpanId());
+        assertEquals("order:1", child.getTags().get("key"));
+        assertTrue(root.getDurationNanos() >= child.getDurationNanos());
+    }
+
+    @Test
+    public void testUnsampledTraceSkipsSpans() {
+        // Given
+        Spans.setSampler(SpanSampler.never());
+
+        // When
+        Span root = Spans.start("request");
+        Span child = Spans.start("cache.load");
+        Span detached = root.child("async");
+        child.end();
+        detached.end();
+        root.end();
+        Spans.setSampler(SpanSampler.always());
+        Span next = Spans.start("next");
+        next.end();
+        collector.drain();
+
+        // Then
+        assertFalse(root.isSampled());
+        assertFalse(child.isSampled());
+        assertFalse(detached.isSampled());
+        assertTrue(next.isSampled());
+        assertNull(next.getParentSpanId());
+        assertEquals(1, exported.size());
+    }
+
+    @Test
+    public void testChildSpanIsNotBoundToThread() {
+        // Given
+        Span root = Spans.start("request");
+
+        // When
+        Span async = root.child("async");
+
+        // Then
+        assertSame(root, Spans.current());
+        async.end();
+        async.end();
+        root.end();
+        assertEquals(2, collector.drain());
+        assertEquals(root.getSpanId(), async.getParentSpanId());
+    }
+
+    @Test
+    public void testVrmlContextPropagatesCurrentSpan() throws Exception {
+        // Given
+        ExecutorService executor = VrmlContext.executorService(Executors.newSingleThreadExecutor());
+        Span root = Spans.start("request");
+
+        // When
+        Span async = executor.submit(() -> {
+            try (Span span = Spans.start("async")) {
+                return span;
+            }
+        }).get(5, TimeUnit.SECONDS);
+        root.end();
+        boolean workerRestored = executor.submit(() -> !Spans.current().isSampled()).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertEquals(root.getTraceId(), async.getTraceId());
+        assertEquals(root.getSpanId(), async.getParentSpanId());
+        assertTrue(workerRestored);
+        assertEquals(2, collector.drain());
+    }
+
+    @Test
+    public void testFullBufferDropsSpans() {
+        // Given
+        int capacity = collector.getCapacity();
+
+        // When
+        for (int i = 0; i < capacity + 3; i++) {
+            Spans.start("span-" + i).end();
+        }
+
+        // Then
+        assertEquals(capacity, collector.getPendingCount());
+        assertEquals(3, collector.getDroppedCount());
+        assertEquals(capacity, collector.drain());
+        assertEquals(0, collector.getPendingCount());
+    }
+
+    @Test
+    public void testFileExporterWritesJsonLines() throws Exception {
+        // Given
+        Path file = Files.createTempFile("vrml-spans", ".log");
+        SpanCollector fileCollector = new SpanCollector(16, new FileSpanExporter(file), 0);
+        Spans.setCollector(fileCollector);
+
+        // When
+        Span root = Spans.start("request").tag("quote", "a\"b");
+        root.end();
+        fileCollector.close();
+
+        // Then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"traceId\":\"" + root.getTraceId() + "\""));
+        assertTrue(lines.get(0).contains("\"tags\":{\"quote\":\"a\\\"b\"}"));
+        Files.delete(file);
+    }
+
+    @Test
+    public void testFileExporterRollsAtMaxBytes() throws Exception {
+        // Given: a file that holds about one span
+        for (int i = 0; i < 3; i++) {
+            Spans.start("request-" + i).end();
+        }
+        collector.drain();
+        Path file = Files.createTempFile("vrml-spans", ".log");
+        Path rolled = file.resolveSibling(file.getFileName() + ".1");
+        FileSpanExporter exporter = new FileSpanExporter(file, 200);
+
+        // When
+        exporter.export(exported);
+        exporter.close();
+
+        // Then: the older spans are rolled once, the newest one stays
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"name\":\"request-2\""));
+        assertEquals(1, Files.readAllLines(rolled, StandardCharsets.UTF_8).size());
+        Files.delete(file);
+        Files.delete(rolled);
+    }
+}